@@ -0,0 +1,452 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Operaciones de conjuntos (unión, intersección, diferencia) en paralelo
+ *
+ * En EjemploSet se calculan copiando un HashSet y llamando a addAll(),
+ * retainAll() o removeAll(): todo en un solo hilo y con una búsqueda
+ * hash por elemento. Aquí hay dos caminos:
+ *
+ * 1. Conjuntos hash: se recorre el conjunto MÁS PEQUEÑO en paralelo y se
+ *    consulta el más grande. El spliterator de HashSet divide su tabla
+ *    interna por rangos de cubetas, es decir, por rangos de hash, así que
+ *    cada hilo procesa una partición distinta del espacio hash.
+ * 2. Arreglos ordenados de int: mezcla lineal o búsqueda galopante
+ *    (galloping) cuando un arreglo es mucho más chico que el otro, y
+ *    división por rangos de valores para repartir el trabajo entre hilos.
+ */
+public class AlgebraConjuntos {
+
+    /** Debajo de este tamaño no vale la pena repartir el trabajo */
+    private static final int UMBRAL_PARALELO = 1 << 14;
+
+    /** Si un arreglo es esta cantidad de veces más grande, se usa galloping */
+    private static final int RAZON_GALOPANTE = 32;
+
+    private AlgebraConjuntos() {
+    }
+
+    // ------------------------------------------------------------------
+    // Conjuntos hash
+    // ------------------------------------------------------------------
+
+    /**
+     * Intersección de dos conjuntos recorriendo el menor en paralelo
+     */
+    public static <T> Set<T> interseccion(Set<T> a, Set<T> b) {
+        Set<T> menor = a.size() <= b.size() ? a : b;
+        Set<T> mayor = menor == a ? b : a;
+        return aConjunto(filtrar(menor, mayor, true));
+    }
+
+    /**
+     * Diferencia a - b: elementos de a que no están en b
+     */
+    public static <T> Set<T> diferencia(Set<T> a, Set<T> b) {
+        return aConjunto(filtrar(a, b, false));
+    }
+
+    /**
+     * Unión: se copia el conjunto mayor y se le agrega solo lo que
+     * falta del menor (calculado en paralelo)
+     */
+    public static <T> Set<T> union(Set<T> a, Set<T> b) {
+        Set<T> menor = a.size() <= b.size() ? a : b;
+        Set<T> mayor = menor == a ? b : a;
+        List<T> faltantes = filtrar(menor, mayor, false);
+        HashSet<T> resultado = new HashSet<>(capacidadPara(mayor.size() + faltantes.size()));
+        resultado.addAll(mayor);
+        resultado.addAll(faltantes);
+        return resultado;
+    }
+
+    /**
+     * Intersección de muchos conjuntos: se recorre el menor y cada
+     * elemento se busca en los demás, del más pequeño al más grande
+     * (el más pequeño descarta más elementos antes)
+     */
+    public static <T> Set<T> interseccion(List<? extends Set<T>> conjuntos) {
+        if (conjuntos.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Set<T>> ordenados = new ArrayList<>(conjuntos);
+        ordenados.sort(Comparator.comparingInt(Set::size));
+        Set<T> menor = ordenados.get(0);
+        List<Set<T>> resto = ordenados.subList(1, ordenados.size());
+        List<T> comunes = flujo(menor)
+            .filter(elemento -> {
+                for (Set<T> otro : resto) {
+                    if (!otro.contains(elemento)) {
+                        return false;
+                    }
+                }
+                return true;
+            })
+            .collect(Collectors.toList());
+        return aConjunto(comunes);
+    }
+
+    private static <T> List<T> filtrar(Collection<T> recorrer, Set<T> consultar, boolean conservarSiEsta) {
+        return flujo(recorrer)
+            .filter(elemento -> consultar.contains(elemento) == conservarSiEsta)
+            .collect(Collectors.toList());
+    }
+
+    private static <T> Stream<T> flujo(Collection<T> coleccion) {
+        return coleccion.size() >= UMBRAL_PARALELO ? coleccion.parallelStream() : coleccion.stream();
+    }
+
+    private static <T> Set<T> aConjunto(List<T> elementos) {
+        // Con la capacidad correcta el HashSet nunca se redimensiona
+        HashSet<T> resultado = new HashSet<>(capacidadPara(elementos.size()));
+        resultado.addAll(elementos);
+        return resultado;
+    }
+
+    private static int capacidadPara(int elementos) {
+        return (int) Math.min(Integer.MAX_VALUE, elementos / 0.75 + 1);
+    }
+
+    // ------------------------------------------------------------------
+    // Arreglos ordenados de int (sin duplicados)
+    // ------------------------------------------------------------------
+
+    /**
+     * Unión de dos arreglos ordenados
+     */
+    public static int[] union(int[] a, int[] b) {
+        return porRangos(a, b, Operacion.UNION);
+    }
+
+    /**
+     * Intersección de dos arreglos ordenados
+     */
+    public static int[] interseccion(int[] a, int[] b) {
+        return porRangos(a, b, Operacion.INTERSECCION);
+    }
+
+    /**
+     * Diferencia a - b de dos arreglos ordenados
+     */
+    public static int[] diferencia(int[] a, int[] b) {
+        return porRangos(a, b, Operacion.DIFERENCIA);
+    }
+
+    /**
+     * Intersección de muchos arreglos ordenados: se empieza por el
+     * más corto y el resultado parcial solo puede achicarse
+     */
+    public static int[] interseccion(int[]... arreglos) {
+        if (arreglos.length == 0) {
+            return new int[0];
+        }
+        int[][] ordenados = arreglos.clone();
+        Arrays.sort(ordenados, Comparator.comparingInt(arreglo -> arreglo.length));
+        int[] resultado = ordenados[0];
+        for (int i = 1; i < ordenados.length && resultado.length > 0; i++) {
+            resultado = interseccion(resultado, ordenados[i]);
+        }
+        return resultado;
+    }
+
+    private enum Operacion { UNION, INTERSECCION, DIFERENCIA }
+
+    /**
+     * Divide el rango de valores en partes independientes: los cortes se
+     * toman de "a" y se ubican en "b" con búsqueda binaria. Cada parte se
+     * procesa en su propio hilo y al final se concatenan los resultados
+     */
+    private static int[] porRangos(int[] a, int[] b, Operacion operacion) {
+        int total = a.length + b.length;
+        int partes = total < UMBRAL_PARALELO ? 1
+            : Math.min(Runtime.getRuntime().availableProcessors() * 4, total / UMBRAL_PARALELO);
+        if (partes <= 1) {
+            return secuencial(a, 0, a.length, b, 0, b.length, operacion);
+        }
+        int[] cortesA = new int[partes + 1];
+        int[] cortesB = new int[partes + 1];
+        cortesA[partes] = a.length;
+        cortesB[partes] = b.length;
+        for (int p = 1; p < partes; p++) {
+            cortesA[p] = (int) ((long) a.length * p / partes);
+            cortesB[p] = cortesA[p] < a.length ? inferior(b, 0, b.length, a[cortesA[p]]) : b.length;
+        }
+        int[][] resultados = new int[partes][];
+        IntStream.range(0, partes).parallel().forEach(p ->
+            resultados[p] = secuencial(a, cortesA[p], cortesA[p + 1], b, cortesB[p], cortesB[p + 1], operacion));
+        int largo = 0;
+        for (int[] parcial : resultados) {
+            largo += parcial.length;
+        }
+        int[] resultado = new int[largo];
+        int posicion = 0;
+        for (int[] parcial : resultados) {
+            System.arraycopy(parcial, 0, resultado, posicion, parcial.length);
+            posicion += parcial.length;
+        }
+        return resultado;
+    }
+
+    private static int[] secuencial(int[] a, int desdeA, int hastaA, int[] b, int desdeB, int hastaB,
+                                    Operacion operacion) {
+        int largoA = hastaA - desdeA;
+        int largoB = hastaB - desdeB;
+        switch (operacion) {
+            case UNION:
+                return mezclarUnion(a, desdeA, hastaA, b, desdeB, hastaB);
+            case INTERSECCION:
+                if (largoA > 0 && largoB / largoA >= RAZON_GALOPANTE) {
+                    return galopante(a, desdeA, hastaA, b, desdeB, hastaB, true);
+                }
+                if (largoB > 0 && largoA / largoB >= RAZON_GALOPANTE) {
+                    return galopante(b, desdeB, hastaB, a, desdeA, hastaA, true);
+                }
+                return mezclarInterseccion(a, desdeA, hastaA, b, desdeB, hastaB);
+            default:
+                if (largoA > 0 && largoB / largoA >= RAZON_GALOPANTE) {
+                    return galopante(a, desdeA, hastaA, b, desdeB, hastaB, false);
+                }
+                return mezclarDiferencia(a, desdeA, hastaA, b, desdeB, hastaB);
+        }
+    }
+
+    private static int[] mezclarUnion(int[] a, int i, int hastaA, int[] b, int j, int hastaB) {
+        int[] resultado = new int[(hastaA - i) + (hastaB - j)];
+        int n = 0;
+        while (i < hastaA && j < hastaB) {
+            int x = a[i];
+            int y = b[j];
+            if (x <= y) {
+                resultado[n++] = x;
+                i++;
+                if (x == y) {
+                    j++;
+                }
+            } else {
+                resultado[n++] = y;
+                j++;
+            }
+        }
+        while (i < hastaA) {
+            resultado[n++] = a[i++];
+        }
+        while (j < hastaB) {
+            resultado[n++] = b[j++];
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    private static int[] mezclarInterseccion(int[] a, int i, int hastaA, int[] b, int j, int hastaB) {
+        int[] resultado = new int[Math.min(hastaA - i, hastaB - j)];
+        int n = 0;
+        while (i < hastaA && j < hastaB) {
+            int x = a[i];
+            int y = b[j];
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                resultado[n++] = x;
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    private static int[] mezclarDiferencia(int[] a, int i, int hastaA, int[] b, int j, int hastaB) {
+        int[] resultado = new int[hastaA - i];
+        int n = 0;
+        while (i < hastaA) {
+            int x = a[i];
+            while (j < hastaB && b[j] < x) {
+                j++;
+            }
+            if (j == hastaB || b[j] != x) {
+                resultado[n++] = x;
+            }
+            i++;
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Recorre el arreglo corto y busca cada valor en el largo saltando
+     * 1, 2, 4, 8... posiciones y luego con búsqueda binaria.
+     * Costo O(corto * log(largo / corto)) en lugar de O(corto + largo)
+     */
+    private static int[] galopante(int[] corto, int i, int hastaCorto, int[] largo, int j, int hastaLargo,
+                                   boolean interseccion) {
+        int[] resultado = new int[hastaCorto - i];
+        int n = 0;
+        for (; i < hastaCorto; i++) {
+            int x = corto[i];
+            int salto = 1;
+            int anterior = j;
+            while (j < hastaLargo && largo[j] < x) {
+                anterior = j;
+                j = Math.min(hastaLargo, j + salto);
+                salto <<= 1;
+            }
+            j = inferior(largo, anterior, j < hastaLargo ? j + 1 : hastaLargo, x);
+            boolean esta = j < hastaLargo && largo[j] == x;
+            if (esta == interseccion) {
+                resultado[n++] = x;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Primera posición en [desde, hasta) con valor >= x
+     */
+    private static int inferior(int[] arreglo, int desde, int hasta, int x) {
+        int bajo = desde;
+        int alto = hasta;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (arreglo[medio] < x) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== ÁLGEBRA DE CONJUNTOS EN PARALELO ===\n");
+        ejemploBasico();
+
+        System.out.println("\n=== COMPARACIÓN DE RENDIMIENTO ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        comparacionRendimiento(n);
+    }
+
+    /**
+     * Los mismos conjuntos de EjemploSet.ejemploHashSet()
+     */
+    public static void ejemploBasico() {
+        Set<String> paises = new HashSet<>(Arrays.asList("Colombia", "Argentina", "Brasil"));
+        Set<String> otrosPaises = new HashSet<>(Arrays.asList("Colombia", "Chile", "Perú"));
+        Set<String> terceros = new HashSet<>(Arrays.asList("Colombia", "Brasil", "Chile"));
+
+        System.out.println("Unión: " + union(paises, otrosPaises));
+        System.out.println("Intersección: " + interseccion(paises, otrosPaises));
+        System.out.println("Diferencia (paises - otrosPaises): " + diferencia(paises, otrosPaises));
+        System.out.println("Intersección de tres conjuntos: "
+            + interseccion(Arrays.asList(paises, otrosPaises, terceros)));
+
+        int[] a = {1, 3, 5, 7, 9, 11};
+        int[] b = {3, 4, 5, 6, 7};
+        System.out.println("\nArreglos ordenados " + Arrays.toString(a) + " y " + Arrays.toString(b) + ":");
+        System.out.println("Unión: " + Arrays.toString(union(a, b)));
+        System.out.println("Intersección: " + Arrays.toString(interseccion(a, b)));
+        System.out.println("Diferencia: " + Arrays.toString(diferencia(a, b)));
+    }
+
+    /**
+     * Compara contra copiar el HashSet y llamar a addAll/retainAll/removeAll
+     */
+    public static void comparacionRendimiento(int n) {
+        Random random = new Random(1);
+        int[] arregloA = valoresOrdenados(random, n, 4 * n);
+        int[] arregloB = valoresOrdenados(random, n, 4 * n);
+        int[] arregloC = valoresOrdenados(random, n / 100, 4 * n);
+        HashSet<Integer> a = aHashSet(arregloA);
+        HashSet<Integer> b = aHashSet(arregloB);
+        HashSet<Integer> c = aHashSet(arregloC);
+        System.out.println("Elementos por conjunto: " + n + ", hilos disponibles: "
+            + Runtime.getRuntime().availableProcessors());
+
+        // Calentamiento
+        for (int i = 0; i < 3; i++) {
+            interseccion(a, b);
+            interseccion(arregloA, arregloB);
+        }
+
+        long inicio = System.nanoTime();
+        HashSet<Integer> union = new HashSet<>(a);
+        union.addAll(b);
+        long copia = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        Set<Integer> unionParalela = union(a, b);
+        long paralelo = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        int[] unionOrdenada = union(arregloA, arregloB);
+        long ordenado = System.nanoTime() - inicio;
+        imprimir("Unión", copia, paralelo, ordenado,
+            union.size() == unionParalela.size() && union.size() == unionOrdenada.length);
+
+        inicio = System.nanoTime();
+        HashSet<Integer> inter = new HashSet<>(a);
+        inter.retainAll(b);
+        copia = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        Set<Integer> interParalela = interseccion(a, b);
+        paralelo = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        int[] interOrdenada = interseccion(arregloA, arregloB);
+        ordenado = System.nanoTime() - inicio;
+        imprimir("Intersección", copia, paralelo, ordenado,
+            inter.size() == interParalela.size() && inter.size() == interOrdenada.length);
+
+        inicio = System.nanoTime();
+        HashSet<Integer> dif = new HashSet<>(a);
+        dif.removeAll(b);
+        copia = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        Set<Integer> difParalela = diferencia(a, b);
+        paralelo = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        int[] difOrdenada = diferencia(arregloA, arregloB);
+        ordenado = System.nanoTime() - inicio;
+        imprimir("Diferencia", copia, paralelo, ordenado,
+            dif.size() == difParalela.size() && dif.size() == difOrdenada.length);
+
+        // Intersección de tres conjuntos, uno de ellos 100 veces más chico
+        inicio = System.nanoTime();
+        HashSet<Integer> tres = new HashSet<>(a);
+        tres.retainAll(b);
+        tres.retainAll(c);
+        copia = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        Set<Integer> tresParalela = interseccion(Arrays.asList(a, b, c));
+        paralelo = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        int[] tresOrdenada = interseccion(arregloA, arregloB, arregloC);
+        ordenado = System.nanoTime() - inicio;
+        imprimir("Intersección de 3", copia, paralelo, ordenado,
+            tres.size() == tresParalela.size() && tres.size() == tresOrdenada.length);
+    }
+
+    private static void imprimir(String operacion, long copia, long paralelo, long ordenado, boolean iguales) {
+        System.out.printf("%-18s copia + addAll/retainAll/removeAll: %8.2f ms | paralelo hash: %8.2f ms (%.1fx)"
+                + " | arreglos ordenados: %7.2f ms (%.1fx) | ¿iguales? %s%n",
+            operacion, copia / 1e6, paralelo / 1e6, (double) copia / paralelo,
+            ordenado / 1e6, (double) copia / ordenado, iguales);
+    }
+
+    private static int[] valoresOrdenados(Random random, int n, int rango) {
+        return random.ints(0, rango).distinct().limit(n).sorted().toArray();
+    }
+
+    private static HashSet<Integer> aHashSet(int[] valores) {
+        HashSet<Integer> conjunto = new HashSet<>(capacidadPara(valores.length));
+        for (int valor : valores) {
+            conjunto.add(valor);
+        }
+        return conjunto;
+    }
+}
@@ -0,0 +1,646 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Registros guardados por columnas (struct-of-arrays)
+ *
+ * Cliente, Paciente, Tarea y Producto son objetos chicos: cada uno tiene
+ * su encabezado (12-16 bytes), referencias a sus String y, dentro de un
+ * HashMap o PriorityQueue, un nodo o una referencia más. Con millones de
+ * registros la memoria se va en encabezados y punteros, y recorrerlos
+ * salta por todo el heap. Aquí cada campo es un arreglo primitivo:
+ * - Los String van a un DiccionarioCadenas compartido y la tabla guarda
+ *   su id (un int). Nombres o motivos repetidos se guardan una sola vez
+ * - Una fila se lee con un cursor reutilizable (flyweight): no se crea
+ *   un objeto por registro
+ * - Las colas y mapas guardan ids de fila (int) en lugar de objetos.
+ *   Las colas de prioridad usan MonticuloLong con (prioridad, fila)
+ *   empaquetados en un long
+ * - Recorrer una columna ("valor total del inventario") es un ciclo
+ *   sobre arreglos contiguos
+ */
+public class AlmacenColumnar {
+
+    private AlmacenColumnar() {
+    }
+
+    /**
+     * Empaqueta (prioridad, fila) para un MonticuloLong de máximos: a
+     * igual prioridad sale primero la fila más antigua (menor id)
+     */
+    public static long empaquetar(int prioridad, int fila) {
+        return ((long) prioridad << 32) | (0xFFFFFFFFL - fila);
+    }
+
+    public static int filaDe(long empaquetado) {
+        return (int) (0xFFFFFFFFL - (empaquetado & 0xFFFFFFFFL));
+    }
+
+    public static void main(String[] args) {
+        DiccionarioCadenas diccionario = new DiccionarioCadenas();
+
+        System.out.println("=== INVENTARIO POR COLUMNAS ===\n");
+        ejemploInventario(diccionario);
+
+        System.out.println("\n=== SALA DE EMERGENCIAS Y FILA DE ATENCIÓN ===\n");
+        ejemploColas(diccionario);
+
+        System.out.println("\n=== COMPARACIÓN CON UN OBJETO POR REGISTRO ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        comparacionInventario(n);
+        comparacionTareas(n);
+    }
+
+    /**
+     * El inventario de EjemploMap.aplicacionesPracticas()
+     */
+    public static void ejemploInventario(DiccionarioCadenas diccionario) {
+        TablaProductos productos = new TablaProductos(diccionario, 3);
+        MapaCadenaEntero inventario = new MapaCadenaEntero(3);
+        inventario.put("LAP001", productos.agregar("Laptop Dell", 1200.0, 15));
+        inventario.put("MOU002", productos.agregar("Mouse Logitech", 25.0, 50));
+        inventario.put("TEC003", productos.agregar("Teclado Mecánico", 80.0, 30));
+
+        TablaProductos.Cursor producto = productos.cursor();
+        int fila = inventario.get("LAP001");
+        if (fila != MapaCadenaEntero.AUSENTE) {
+            System.out.println("Producto encontrado: " + producto.en(fila));
+            producto.setCantidad(producto.cantidad() - 1);
+            System.out.println("Después de vender 1 unidad: " + producto);
+        }
+        System.out.println("Valor total del inventario: $" + productos.valorTotal());
+    }
+
+    /**
+     * Los pacientes y clientes de EjemploQueue.aplicacionesPracticas()
+     */
+    public static void ejemploColas(DiccionarioCadenas diccionario) {
+        TablaPacientes pacientes = new TablaPacientes(diccionario, 5);
+        MonticuloLong emergencias = MonticuloLong.maximo(4, 5);
+        emergencias.offer(empaquetar(2, pacientes.agregar("Ana", "Gripe", 2)));
+        emergencias.offer(empaquetar(3, pacientes.agregar("Carlos", "Fractura", 3)));
+        emergencias.offer(empaquetar(5, pacientes.agregar("Luis", "Infarto", 5)));
+        emergencias.offer(empaquetar(1, pacientes.agregar("María", "Dolor leve", 1)));
+        emergencias.offer(empaquetar(5, pacientes.agregar("Pedro", "Accidente grave", 5)));
+
+        System.out.println("Atendiendo por urgencia (empates por orden de llegada):");
+        TablaPacientes.Cursor paciente = pacientes.cursor();
+        while (!emergencias.isEmpty()) {
+            System.out.println("  " + paciente.en(filaDe(emergencias.poll())));
+        }
+
+        TablaClientes clientes = new TablaClientes(diccionario, 3);
+        ColaFilas atencion = new ColaFilas(3);
+        atencion.offer(clientes.agregar("Juan", "Consulta"));
+        atencion.offer(clientes.agregar("María", "Reclamo"));
+        atencion.offer(clientes.agregar("Pedro", "Consulta"));
+        TablaClientes.Cursor cliente = clientes.cursor();
+        System.out.println("\nAtendiendo en orden de llegada:");
+        while (!atencion.isEmpty()) {
+            System.out.println("  " + cliente.en(atencion.poll()));
+        }
+        System.out.println("Cadenas distintas en el diccionario: " + diccionario.size());
+    }
+
+    /**
+     * HashMap<String, Producto> contra TablaProductos + MapaCadenaEntero:
+     * memoria retenida y recorrido para el valor total del inventario
+     */
+    public static void comparacionInventario(int n) {
+        Random random = new Random(17);
+        String[] codigos = new String[n];
+        for (int i = 0; i < n; i++) {
+            codigos[i] = "P" + i; // Los códigos existen en ambos casos: no se cuentan
+        }
+        long base = memoriaUsada();
+        HashMap<String, Producto> objetos = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            // 1000 nombres distintos: en la tabla se guardan una sola vez
+            objetos.put(codigos[i], new Producto("Producto " + (i % 1000), 1 + random.nextInt(100_000) / 100.0,
+                random.nextInt(100)));
+        }
+        long bytesObjetos = memoriaUsada() - base;
+
+        random = new Random(17);
+        base = memoriaUsada();
+        TablaProductos tabla = new TablaProductos(new DiccionarioCadenas(), n);
+        MapaCadenaEntero indice = new MapaCadenaEntero(n);
+        for (int i = 0; i < n; i++) {
+            indice.put(codigos[i], tabla.agregar("Producto " + (i % 1000), 1 + random.nextInt(100_000) / 100.0,
+                random.nextInt(100)));
+        }
+        long bytesTabla = memoriaUsada() - base;
+
+        double totalObjetos = 0;
+        double totalTabla = 0;
+        long tiempoObjetos = Long.MAX_VALUE;
+        long tiempoTabla = Long.MAX_VALUE;
+        for (int ronda = 0; ronda < 5; ronda++) {
+            long inicio = System.nanoTime();
+            totalObjetos = 0;
+            for (Producto producto : objetos.values()) {
+                totalObjetos += producto.precio * producto.cantidad;
+            }
+            tiempoObjetos = Math.min(tiempoObjetos, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            totalTabla = tabla.valorTotal();
+            tiempoTabla = Math.min(tiempoTabla, System.nanoTime() - inicio);
+        }
+        System.out.println("Inventario de " + n + " productos:");
+        System.out.printf("  %-34s %8s %14s%n", "Estructura", "Memoria", "Valor total");
+        System.out.printf("  %-34s %5d MB %11.1f ms%n", "HashMap<String, Producto>", bytesObjetos >> 20,
+            tiempoObjetos / 1e6);
+        System.out.printf("  %-34s %5d MB %11.1f ms%n", "TablaProductos + MapaCadenaEntero", bytesTabla >> 20,
+            tiempoTabla / 1e6);
+        System.out.println("  ¿Mismo total? " + (Math.abs(totalObjetos - totalTabla) < 1e-6 * Math.abs(totalTabla))
+            + ", ¿mismos códigos? " + (objetos.size() == indice.size()));
+    }
+
+    /**
+     * PriorityQueue<Tarea> contra TablaTareas + MonticuloLong: memoria y
+     * tiempo de atender todas las tareas
+     */
+    public static void comparacionTareas(int n) {
+        Random random = new Random(19);
+        long base = memoriaUsada();
+        long inicio = System.nanoTime();
+        PriorityQueue<Tarea> objetos = new PriorityQueue<>();
+        for (int i = 0; i < n; i++) {
+            objetos.offer(new Tarea("Tarea " + (i % 1000), 1 + random.nextInt(5)));
+        }
+        long cargaObjetos = System.nanoTime() - inicio;
+        long bytesObjetos = memoriaUsada() - base;
+
+        random = new Random(19);
+        base = memoriaUsada();
+        inicio = System.nanoTime();
+        TablaTareas tabla = new TablaTareas(new DiccionarioCadenas(), n);
+        MonticuloLong cola = MonticuloLong.maximo(4, n);
+        for (int i = 0; i < n; i++) {
+            int prioridad = 1 + random.nextInt(5);
+            cola.offer(empaquetar(prioridad, tabla.agregar("Tarea " + (i % 1000), prioridad)));
+        }
+        long cargaTabla = System.nanoTime() - inicio;
+        long bytesTabla = memoriaUsada() - base;
+
+        inicio = System.nanoTime();
+        long sumaObjetos = 0;
+        while (!objetos.isEmpty()) {
+            sumaObjetos += objetos.poll().prioridad;
+        }
+        long atencionObjetos = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        long sumaTabla = 0;
+        TablaTareas.Cursor tarea = tabla.cursor();
+        while (!cola.isEmpty()) {
+            sumaTabla += tarea.en(filaDe(cola.poll())).prioridad();
+        }
+        long atencionTabla = System.nanoTime() - inicio;
+
+        System.out.println("\nCola de " + n + " tareas:");
+        System.out.printf("  %-34s %8s %10s %10s%n", "Estructura", "Memoria", "Carga", "Atender");
+        System.out.printf("  %-34s %5d MB %7d ms %7d ms%n", "PriorityQueue<Tarea>", bytesObjetos >> 20,
+            cargaObjetos / 1_000_000, atencionObjetos / 1_000_000);
+        System.out.printf("  %-34s %5d MB %7d ms %7d ms%n", "TablaTareas + MonticuloLong", bytesTabla >> 20,
+            cargaTabla / 1_000_000, atencionTabla / 1_000_000);
+        System.out.println("  ¿Misma suma de prioridades? " + (sumaObjetos == sumaTabla));
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
+
+/**
+ * Mapa String -> int con direccionamiento abierto (sin Integer ni nodos)
+ */
+class MapaCadenaEntero {
+    static final int AUSENTE = -1;
+
+    private String[] claves;
+    private int[] valores;
+    private int size;
+
+    MapaCadenaEntero(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, capacidadEsperada * 4 / 3)) << 1;
+        claves = new String[capacidad];
+        valores = new int[capacidad];
+    }
+
+    /**
+     * Valor asociado a la clave, o AUSENTE
+     */
+    int get(String clave) {
+        int i = buscar(clave);
+        return claves[i] == null ? AUSENTE : valores[i];
+    }
+
+    /**
+     * Asocia el valor (no negativo). Retorna el anterior o AUSENTE
+     */
+    int put(String clave, int valor) {
+        if (valor < 0) {
+            // Un negativo no se distinguiría de AUSENTE en get()
+            throw new IllegalArgumentException("El valor no puede ser negativo: " + valor);
+        }
+        int i = buscar(clave);
+        if (claves[i] != null) {
+            int anterior = valores[i];
+            valores[i] = valor;
+            return anterior;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        if (++size * 4 > claves.length * 3) {
+            redimensionar();
+        }
+        return AUSENTE;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Casilla de la clave, o la casilla libre donde iría (sondeo lineal)
+     */
+    private int buscar(String clave) {
+        int mascara = claves.length - 1;
+        int h = clave.hashCode() * 0x9E3779B9;
+        int i = (h ^ (h >>> 16)) & mascara;
+        while (claves[i] != null && !claves[i].equals(clave)) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private void redimensionar() {
+        String[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        claves = new String[viejasClaves.length * 2];
+        valores = new int[viejasClaves.length * 2];
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasClaves[i] != null) {
+                int j = buscar(viejasClaves[i]);
+                claves[j] = viejasClaves[i];
+                valores[j] = viejosValores[i];
+            }
+        }
+    }
+}
+
+/**
+ * Cada String distinto se guarda una vez y se identifica con un int
+ */
+class DiccionarioCadenas {
+    private final MapaCadenaEntero ids = new MapaCadenaEntero(64);
+    private String[] cadenas = new String[64];
+    private int size;
+
+    /**
+     * Id de la cadena, agregándola si es nueva
+     */
+    int id(String cadena) {
+        int id = ids.get(cadena);
+        if (id != MapaCadenaEntero.AUSENTE) {
+            return id;
+        }
+        if (size == cadenas.length) {
+            cadenas = Arrays.copyOf(cadenas, size * 2);
+        }
+        cadenas[size] = cadena;
+        ids.put(cadena, size);
+        return size++;
+    }
+
+    String cadena(int id) {
+        return cadenas[id];
+    }
+
+    int size() {
+        return size;
+    }
+}
+
+/**
+ * Base de las tablas: cantidad de filas y crecimiento de las columnas
+ */
+abstract class TablaColumnar {
+    protected final DiccionarioCadenas diccionario;
+    private int filas;
+    private int capacidad;
+
+    protected TablaColumnar(DiccionarioCadenas diccionario, int capacidadInicial) {
+        this.diccionario = diccionario;
+        this.capacidad = Math.max(1, capacidadInicial);
+    }
+
+    /**
+     * Reserva una fila nueva, agrandando las columnas si hace falta
+     */
+    protected int nuevaFila() {
+        if (filas == capacidad) {
+            capacidad += (capacidad >> 1) + 1;
+            redimensionar(capacidad);
+        }
+        return filas++;
+    }
+
+    protected abstract void redimensionar(int capacidad);
+
+    protected void verificarFila(int fila) {
+        if (fila < 0 || fila >= filas) {
+            throw new IndexOutOfBoundsException("Fila inválida: " + fila);
+        }
+    }
+
+    public int size() {
+        return filas;
+    }
+}
+
+class TablaProductos extends TablaColumnar {
+    private int[] nombres;
+    private double[] precios;
+    private int[] cantidades;
+
+    TablaProductos(DiccionarioCadenas diccionario, int capacidadInicial) {
+        super(diccionario, capacidadInicial);
+        redimensionar(Math.max(1, capacidadInicial));
+    }
+
+    int agregar(String nombre, double precio, int cantidad) {
+        int fila = nuevaFila();
+        nombres[fila] = diccionario.id(nombre);
+        precios[fila] = precio;
+        cantidades[fila] = cantidad;
+        return fila;
+    }
+
+    /**
+     * Suma de precio * cantidad recorriendo solo dos columnas
+     */
+    double valorTotal() {
+        double total = 0;
+        for (int fila = 0; fila < size(); fila++) {
+            total += precios[fila] * cantidades[fila];
+        }
+        return total;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    protected void redimensionar(int capacidad) {
+        nombres = nombres == null ? new int[capacidad] : Arrays.copyOf(nombres, capacidad);
+        precios = precios == null ? new double[capacidad] : Arrays.copyOf(precios, capacidad);
+        cantidades = cantidades == null ? new int[capacidad] : Arrays.copyOf(cantidades, capacidad);
+    }
+
+    /**
+     * Vista de una fila que se mueve con en(fila) sin crear objetos
+     */
+    class Cursor {
+        private int fila;
+
+        Cursor en(int fila) {
+            verificarFila(fila);
+            this.fila = fila;
+            return this;
+        }
+
+        String nombre() {
+            return diccionario.cadena(nombres[fila]);
+        }
+
+        double precio() {
+            return precios[fila];
+        }
+
+        int cantidad() {
+            return cantidades[fila];
+        }
+
+        void setCantidad(int cantidad) {
+            cantidades[fila] = cantidad;
+        }
+
+        @Override
+        public String toString() {
+            return nombre() + " - $" + precio() + " (Stock: " + cantidad() + ")";
+        }
+    }
+}
+
+class TablaClientes extends TablaColumnar {
+    private int[] nombres;
+    private int[] motivos;
+
+    TablaClientes(DiccionarioCadenas diccionario, int capacidadInicial) {
+        super(diccionario, capacidadInicial);
+        redimensionar(Math.max(1, capacidadInicial));
+    }
+
+    int agregar(String nombre, String motivo) {
+        int fila = nuevaFila();
+        nombres[fila] = diccionario.id(nombre);
+        motivos[fila] = diccionario.id(motivo);
+        return fila;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    protected void redimensionar(int capacidad) {
+        nombres = nombres == null ? new int[capacidad] : Arrays.copyOf(nombres, capacidad);
+        motivos = motivos == null ? new int[capacidad] : Arrays.copyOf(motivos, capacidad);
+    }
+
+    class Cursor {
+        private int fila;
+
+        Cursor en(int fila) {
+            verificarFila(fila);
+            this.fila = fila;
+            return this;
+        }
+
+        String nombre() {
+            return diccionario.cadena(nombres[fila]);
+        }
+
+        String motivo() {
+            return diccionario.cadena(motivos[fila]);
+        }
+
+        @Override
+        public String toString() {
+            return nombre() + " (" + motivo() + ")";
+        }
+    }
+}
+
+class TablaPacientes extends TablaColumnar {
+    private int[] nombres;
+    private int[] condiciones;
+    private byte[] urgencias; // 1-5: alcanza un byte
+
+    TablaPacientes(DiccionarioCadenas diccionario, int capacidadInicial) {
+        super(diccionario, capacidadInicial);
+        redimensionar(Math.max(1, capacidadInicial));
+    }
+
+    int agregar(String nombre, String condicion, int urgencia) {
+        if (urgencia < Byte.MIN_VALUE || urgencia > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Urgencia fuera de rango: " + urgencia);
+        }
+        int fila = nuevaFila();
+        nombres[fila] = diccionario.id(nombre);
+        condiciones[fila] = diccionario.id(condicion);
+        urgencias[fila] = (byte) urgencia;
+        return fila;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    protected void redimensionar(int capacidad) {
+        nombres = nombres == null ? new int[capacidad] : Arrays.copyOf(nombres, capacidad);
+        condiciones = condiciones == null ? new int[capacidad] : Arrays.copyOf(condiciones, capacidad);
+        urgencias = urgencias == null ? new byte[capacidad] : Arrays.copyOf(urgencias, capacidad);
+    }
+
+    class Cursor {
+        private int fila;
+
+        Cursor en(int fila) {
+            verificarFila(fila);
+            this.fila = fila;
+            return this;
+        }
+
+        String nombre() {
+            return diccionario.cadena(nombres[fila]);
+        }
+
+        String condicion() {
+            return diccionario.cadena(condiciones[fila]);
+        }
+
+        int urgencia() {
+            return urgencias[fila];
+        }
+
+        @Override
+        public String toString() {
+            return "[Urgencia " + urgencia() + "] " + nombre() + " - " + condicion();
+        }
+    }
+}
+
+class TablaTareas extends TablaColumnar {
+    private int[] descripciones;
+    private int[] prioridades;
+
+    TablaTareas(DiccionarioCadenas diccionario, int capacidadInicial) {
+        super(diccionario, capacidadInicial);
+        redimensionar(Math.max(1, capacidadInicial));
+    }
+
+    int agregar(String descripcion, int prioridad) {
+        int fila = nuevaFila();
+        descripciones[fila] = diccionario.id(descripcion);
+        prioridades[fila] = prioridad;
+        return fila;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    protected void redimensionar(int capacidad) {
+        descripciones = descripciones == null ? new int[capacidad] : Arrays.copyOf(descripciones, capacidad);
+        prioridades = prioridades == null ? new int[capacidad] : Arrays.copyOf(prioridades, capacidad);
+    }
+
+    class Cursor {
+        private int fila;
+
+        Cursor en(int fila) {
+            verificarFila(fila);
+            this.fila = fila;
+            return this;
+        }
+
+        String descripcion() {
+            return diccionario.cadena(descripciones[fila]);
+        }
+
+        int prioridad() {
+            return prioridades[fila];
+        }
+
+        @Override
+        public String toString() {
+            return "[Prioridad " + prioridad() + "] " + descripcion();
+        }
+    }
+}
+
+/**
+ * Cola FIFO de ids de fila sobre un buffer circular que crece
+ */
+class ColaFilas {
+    private int[] filas;
+    private int inicio;
+    private int size;
+
+    ColaFilas(int capacidadInicial) {
+        filas = new int[Math.max(1, capacidadInicial)];
+    }
+
+    void offer(int fila) {
+        if (size == filas.length) {
+            int[] nuevas = new int[filas.length * 2];
+            for (int i = 0; i < size; i++) {
+                nuevas[i] = filas[(inicio + i) % filas.length];
+            }
+            filas = nuevas;
+            inicio = 0;
+        }
+        filas[(inicio + size) % filas.length] = fila;
+        size++;
+    }
+
+    int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("La cola está vacía");
+        }
+        int fila = filas[inicio];
+        inicio = (inicio + 1) % filas.length;
+        size--;
+        return fila;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Clase auxiliar para representar un cliente
+ */
+class Cliente {
+    String nombre;
+    String motivo;
+    
+    public Cliente(String nombre, String motivo) {
+        this.nombre = nombre;
+        this.motivo = motivo;
+    }
+    
+    @Override
+    public String toString() {
+        return nombre + " (" + motivo + ")";
+    }
+}
@@ -0,0 +1,1133 @@
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractQueue;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * Decoradores de List, Set, Map y Queue con métricas de uso
+ *
+ * Los ejemplos no muestran qué hacen las colecciones por dentro: cuándo
+ * redimensiona un HashMap, cuánto copia un ArrayList al crecer o cuántos
+ * niveles recorre un PriorityQueue. Estos decoradores:
+ * - Cuentan cada operación y miden su latencia en un HistogramaLatencia.
+ *   Solo se mide una de cada "muestreo" llamadas (elegida al azar) para
+ *   que el costo sea bajo y se puedan dejar activos
+ * - Registran eventos estructurales. Como ArrayList y HashMap no exponen
+ *   su capacidad, se replica su política de crecimiento (ArrayList crece
+ *   1.5x desde 10, HashMap duplica desde 16 al pasar 0.75 de carga) y se
+ *   cuentan redimensiones y bytes copiados (referencias de 4 bytes, con
+ *   compressed oops). Son cifras del modelo, no de la colección: para un
+ *   HashMap o HashSet creado con capacidad inicial hay que pasarla a
+ *   mapa() o conjunto(), si no se supone la de 16. Las cadenas de
+ *   colisión se calculan al exportar, ubicando cada clave en la tabla
+ *   modelada
+ * - En colaPrioridad() el comparador cuenta comparaciones, que miden los
+ *   niveles reales que sube o baja cada elemento
+ * - Exportan todo como JSON con instantaneaJson()
+ *
+ * El registro guarda las métricas con referencias débiles: cuando un
+ * decorador deja de usarse, sus métricas y la colección decorada se
+ * liberan solas, sin esperar a reiniciar(). Por lo mismo, el decorador
+ * debe seguir vivo hasta que se exporten sus métricas.
+ *
+ * Los decoradores son tan seguros entre hilos como la colección decorada:
+ * las métricas usan contadores atómicos y los métodos atómicos de Map
+ * (putIfAbsent, merge, compute...) se delegan tal cual, en lugar de
+ * heredar las versiones de Map que hacen get y luego put.
+ */
+public final class ColeccionesInstrumentadas {
+
+    private static final List<WeakReference<MetricasColeccion>> REGISTRADAS = new CopyOnWriteArrayList<>();
+    static final int SIN_CAPACIDAD = -1;
+    private static volatile int muestreo = 8;
+
+    private ColeccionesInstrumentadas() {
+    }
+
+    /**
+     * Mide la latencia de una de cada "cada" operaciones (potencia de dos; 1 = todas)
+     */
+    public static void configurarMuestreo(int cada) {
+        if (cada < 1 || Integer.bitCount(cada) != 1) {
+            throw new IllegalArgumentException("El muestreo debe ser una potencia de dos: " + cada);
+        }
+        muestreo = cada;
+    }
+
+    public static <E> List<E> lista(String nombre, List<E> lista) {
+        return new ListaInstrumentada<>(registrar(nombre, lista, SIN_CAPACIDAD), lista);
+    }
+
+    public static <E> Set<E> conjunto(String nombre, Set<E> conjunto) {
+        return new ConjuntoInstrumentado<>(registrar(nombre, conjunto, SIN_CAPACIDAD), conjunto);
+    }
+
+    /**
+     * Para un HashSet creado con new HashSet<>(capacidadInicial): el
+     * modelo parte de la misma tabla que el JDK
+     */
+    public static <E> Set<E> conjunto(String nombre, Set<E> conjunto, int capacidadInicial) {
+        return new ConjuntoInstrumentado<>(registrar(nombre, conjunto, validarCapacidad(capacidadInicial)),
+            conjunto);
+    }
+
+    public static <K, V> Map<K, V> mapa(String nombre, Map<K, V> mapa) {
+        return new MapaInstrumentado<>(registrar(nombre, mapa, SIN_CAPACIDAD), mapa);
+    }
+
+    /**
+     * Para un HashMap creado con new HashMap<>(capacidadInicial): el
+     * modelo parte de la misma tabla que el JDK
+     */
+    public static <K, V> Map<K, V> mapa(String nombre, Map<K, V> mapa, int capacidadInicial) {
+        return new MapaInstrumentado<>(registrar(nombre, mapa, validarCapacidad(capacidadInicial)), mapa);
+    }
+
+    public static <E> Queue<E> cola(String nombre, Queue<E> cola) {
+        return new ColaInstrumentada<>(registrar(nombre, cola, SIN_CAPACIDAD), cola, null);
+    }
+
+    /**
+     * PriorityQueue con orden natural que cuenta las comparaciones de cada operación
+     */
+    public static <E extends Comparable<? super E>> Queue<E> colaPrioridad(String nombre) {
+        return colaPrioridad(nombre, Comparator.naturalOrder());
+    }
+
+    public static <E> Queue<E> colaPrioridad(String nombre, Comparator<? super E> orden) {
+        ComparadorContador<E> contador = new ComparadorContador<>(orden);
+        PriorityQueue<E> cola = new PriorityQueue<>(contador);
+        return new ColaInstrumentada<>(registrar(nombre, cola, SIN_CAPACIDAD), cola, contador);
+    }
+
+    /**
+     * Métricas de los decoradores que siguen vivos. De paso descarta las
+     * de los que ya se liberaron
+     */
+    public static List<MetricasColeccion> metricas() {
+        List<MetricasColeccion> vivas = new ArrayList<>(REGISTRADAS.size());
+        for (WeakReference<MetricasColeccion> referencia : REGISTRADAS) {
+            MetricasColeccion metricas = referencia.get();
+            if (metricas != null) {
+                vivas.add(metricas);
+            }
+        }
+        REGISTRADAS.removeIf(referencia -> referencia.get() == null);
+        return vivas;
+    }
+
+    /**
+     * Olvida las colecciones registradas hasta ahora
+     */
+    public static void reiniciar() {
+        REGISTRADAS.clear();
+    }
+
+    /**
+     * Métricas de todas las colecciones registradas, como arreglo JSON
+     */
+    public static String instantaneaJson() {
+        StringBuilder json = new StringBuilder("[");
+        for (MetricasColeccion metricas : metricas()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(metricas.aJson());
+        }
+        return json.append(']').toString();
+    }
+
+    public static void imprimirResumen() {
+        for (MetricasColeccion metricas : metricas()) {
+            System.out.println(metricas);
+        }
+    }
+
+    private static MetricasColeccion registrar(String nombre, Object coleccion, int capacidadInicial) {
+        MetricasColeccion metricas = new MetricasColeccion(nombre, coleccion.getClass().getSimpleName(),
+            muestreo - 1, coleccion, capacidadInicial);
+        REGISTRADAS.add(new WeakReference<>(metricas));
+        return metricas;
+    }
+
+    private static int validarCapacidad(int capacidadInicial) {
+        if (capacidadInicial < 0) {
+            throw new IllegalArgumentException("Capacidad inicial negativa: " + capacidadInicial);
+        }
+        return capacidadInicial;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== MÉTRICAS DE HASHMAP, ARRAYLIST Y PRIORITYQUEUE ===\n");
+        ejemploMetricas();
+
+        System.out.println("\n=== COSTO DE LA INSTRUMENTACIÓN ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        costoInstrumentacion(n);
+    }
+
+    public static void ejemploMetricas() {
+        Map<String, Integer> edades = mapa("edades", new HashMap<>());
+        for (int i = 0; i < 1000; i++) {
+            edades.put("persona" + i, 20 + i % 50);
+        }
+        for (int i = 0; i < 5000; i++) {
+            edades.get("persona" + (i % 1200));
+        }
+
+        List<Integer> numeros = lista("numeros", new ArrayList<>());
+        for (int i = 0; i < 1000; i++) {
+            numeros.add(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            numeros.add(0, -i); // Cada inserción al inicio desplaza toda la lista
+        }
+
+        Queue<Integer> urgencias = colaPrioridad("urgencias");
+        for (int i = 0; i < 1000; i++) {
+            urgencias.offer(ThreadLocalRandom.current().nextInt(1000));
+        }
+        while (!urgencias.isEmpty()) {
+            urgencias.poll();
+        }
+
+        imprimirResumen();
+        System.out.println("\nJSON:\n" + instantaneaJson());
+        // Las métricas se registran con referencias débiles: los decoradores deben vivir hasta aquí
+        Reference.reachabilityFence(edades);
+        Reference.reachabilityFence(numeros);
+        Reference.reachabilityFence(urgencias);
+        reiniciar();
+    }
+
+    /**
+     * Compara put/get sobre un HashMap directo contra el mismo HashMap
+     * decorado, con el muestreo por defecto y midiendo todas las operaciones
+     */
+    public static void costoInstrumentacion(int n) {
+        for (int ronda = 0; ronda < 2; ronda++) { // La primera ronda calienta el JIT
+            long directo = medirMapa(new HashMap<>(), n);
+            long muestreado = medirMapa(mapa("muestreado", new HashMap<>()), n);
+            configurarMuestreo(1);
+            long completo = medirMapa(mapa("completo", new HashMap<>()), n);
+            configurarMuestreo(8);
+            reiniciar();
+            if (ronda == 1) {
+                System.out.printf("put + get de %d claves:%n", n);
+                System.out.printf("  HashMap directo:           %5d ms%n", directo / 1_000_000);
+                System.out.printf("  Instrumentado (1 de 8):    %5d ms (%+.0f ns/op)%n", muestreado / 1_000_000,
+                    (muestreado - directo) / (2.0 * n));
+                System.out.printf("  Instrumentado (todas):     %5d ms (%+.0f ns/op)%n", completo / 1_000_000,
+                    (completo - directo) / (2.0 * n));
+            }
+        }
+    }
+
+    private static long medirMapa(Map<Integer, Integer> mapa, int n) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            mapa.put(i, i);
+        }
+        long suma = 0;
+        for (int i = 0; i < n; i++) {
+            suma += mapa.get(i);
+        }
+        long tiempo = System.nanoTime() - inicio;
+        if (suma == -1) {
+            System.out.println(suma); // Evita que el JIT elimine las lecturas
+        }
+        return tiempo;
+    }
+}
+
+/**
+ * Métricas de una colección: operaciones, eventos estructurales y,
+ * si la colección es conocida, un modelo de su estructura interna
+ */
+class MetricasColeccion {
+    private final String nombre;
+    private final String tipo;
+    private final int mascaraMuestreo;
+    private final Object coleccion;
+    private final Map<String, OperacionMedida> operaciones = new LinkedHashMap<>();
+    private final Map<String, LongAdder> eventos = new LinkedHashMap<>();
+    private final Map<String, LongAccumulator> maximos = new LinkedHashMap<>();
+    private final ModeloEstructura modelo;
+
+    MetricasColeccion(String nombre, String tipo, int mascaraMuestreo, Object coleccion, int capacidadInicial) {
+        this.nombre = nombre;
+        this.tipo = tipo;
+        this.mascaraMuestreo = mascaraMuestreo;
+        this.coleccion = coleccion;
+        this.modelo = ModeloEstructura.para(coleccion, this, capacidadInicial);
+    }
+
+    /**
+     * Se llama al crear el decorador, antes de compartirlo entre hilos
+     */
+    OperacionMedida operacion(String nombre) {
+        return operaciones.computeIfAbsent(nombre, n -> new OperacionMedida(mascaraMuestreo));
+    }
+
+    LongAdder evento(String nombre) {
+        return eventos.computeIfAbsent(nombre, n -> new LongAdder());
+    }
+
+    LongAccumulator maximo(String nombre) {
+        return maximos.computeIfAbsent(nombre, n -> new LongAccumulator(Math::max, 0));
+    }
+
+    /**
+     * Avisa al modelo que cambió el tamaño de la colección
+     */
+    void observarTamanio(int tamanio) {
+        if (modelo != null) {
+            modelo.observar(tamanio);
+        }
+    }
+
+    public String nombre() {
+        return nombre;
+    }
+
+    public long cantidad(String operacion) {
+        OperacionMedida medida = operaciones.get(operacion);
+        return medida == null ? 0 : medida.cantidad.sum();
+    }
+
+    public HistogramaLatencia latencias(String operacion) {
+        OperacionMedida medida = operaciones.get(operacion);
+        return medida == null ? null : medida.latencias;
+    }
+
+    public long evento(String nombre, long siNoExiste) {
+        LongAdder contador = eventos.get(nombre);
+        return contador == null ? siNoExiste : contador.sum();
+    }
+
+    private Map<String, Long> estructura() {
+        Map<String, Long> valores = new LinkedHashMap<>();
+        for (Map.Entry<String, LongAdder> evento : eventos.entrySet()) {
+            valores.put(evento.getKey(), evento.getValue().sum());
+        }
+        for (Map.Entry<String, LongAccumulator> maximo : maximos.entrySet()) {
+            valores.put(maximo.getKey(), maximo.getValue().get());
+        }
+        if (modelo != null) {
+            modelo.exportar(valores);
+        }
+        return valores;
+    }
+
+    String aJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"nombre\":\"").append(nombre.replace("\"", "\\\"")).append("\",\"tipo\":\"").append(tipo)
+            .append("\",\"tamanio\":").append(tamanio()).append(",\"operaciones\":{");
+        boolean primero = true;
+        for (Map.Entry<String, OperacionMedida> operacion : operaciones.entrySet()) {
+            if (operacion.getValue().cantidad.sum() == 0) {
+                continue;
+            }
+            json.append(primero ? "" : ",").append('"').append(operacion.getKey()).append("\":{\"llamadas\":")
+                .append(operacion.getValue().cantidad.sum()).append(",\"latencia\":")
+                .append(operacion.getValue().latencias.aJson()).append('}');
+            primero = false;
+        }
+        json.append("},\"estructura\":{");
+        primero = true;
+        for (Map.Entry<String, Long> valor : estructura().entrySet()) {
+            json.append(primero ? "" : ",").append('"').append(valor.getKey()).append("\":").append(valor.getValue());
+            primero = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    private int tamanio() {
+        if (coleccion instanceof Collection) {
+            return ((Collection<?>) coleccion).size();
+        }
+        return ((Map<?, ?>) coleccion).size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder(nombre + " (" + tipo + ", " + tamanio() + " elementos)");
+        for (Map.Entry<String, OperacionMedida> operacion : operaciones.entrySet()) {
+            long llamadas = operacion.getValue().cantidad.sum();
+            if (llamadas > 0) {
+                texto.append("\n  ").append(String.format("%-12s", operacion.getKey())).append(llamadas)
+                    .append(" llamadas, ").append(operacion.getValue().latencias);
+            }
+        }
+        texto.append("\n  estructura: ").append(estructura());
+        return texto.toString();
+    }
+}
+
+/**
+ * Contador de llamadas y latencias muestreadas de una operación
+ */
+class OperacionMedida {
+    private static final long SIN_MEDIR = Long.MIN_VALUE;
+
+    final LongAdder cantidad = new LongAdder();
+    final HistogramaLatencia latencias = new HistogramaLatencia();
+    private final int mascara;
+
+    OperacionMedida(int mascara) {
+        this.mascara = mascara;
+    }
+
+    /**
+     * Cuenta la llamada y, si le toca ser muestreada, retorna el instante de inicio
+     */
+    long iniciar() {
+        cantidad.increment();
+        return (ThreadLocalRandom.current().nextInt() & mascara) == 0 ? System.nanoTime() : SIN_MEDIR;
+    }
+
+    void terminar(long inicio) {
+        if (inicio != SIN_MEDIR) {
+            latencias.registrar(System.nanoTime() - inicio);
+        }
+    }
+}
+
+/**
+ * Réplica de la estructura interna de las colecciones conocidas
+ */
+abstract class ModeloEstructura {
+    private static final int BYTES_REFERENCIA = 4;
+
+    abstract void observar(int tamanio);
+
+    abstract void exportar(Map<String, Long> destino);
+
+    /**
+     * Modelo para la colección, o null si su estructura no se conoce.
+     * capacidadInicial es SIN_CAPACIDAD si no se indicó
+     */
+    static ModeloEstructura para(Object coleccion, MetricasColeccion metricas, int capacidadInicial) {
+        if (coleccion instanceof ArrayList) {
+            // ArrayList(): arreglo vacío y capacidad 10 en el primer add; luego 1.5x
+            return new ModeloArreglo(metricas, tamanioDe(coleccion), 0, c -> c == 0 ? 10 : c + (c >> 1));
+        } else if (coleccion instanceof PriorityQueue) {
+            return new ModeloArreglo(metricas, Math.max(11, tamanioDe(coleccion)), 0,
+                c -> c < 64 ? c + c + 2 : c + (c >> 1));
+        } else if (coleccion instanceof ArrayDeque) {
+            // ArrayDeque crece cuando el arreglo se llena, así que siempre deja una celda libre
+            return new ModeloArreglo(metricas, Math.max(17, tamanioDe(coleccion) + 1), 1,
+                c -> c < 64 ? c + c + 2 : c + (c >> 1));
+        } else if (coleccion instanceof HashMap) {
+            return new ModeloTablaHash(metricas, ((Map<?, ?>) coleccion).keySet(), capacidadInicial);
+        } else if (coleccion instanceof HashSet) {
+            return new ModeloTablaHash(metricas, (Set<?>) coleccion, capacidadInicial);
+        }
+        return null;
+    }
+
+    static long bytesReferencias(long cantidad) {
+        return cantidad * BYTES_REFERENCIA;
+    }
+
+    private static int tamanioDe(Object coleccion) {
+        return ((Collection<?>) coleccion).size();
+    }
+}
+
+/**
+ * Arreglo que crece con una política fija (ArrayList, PriorityQueue, ArrayDeque)
+ */
+class ModeloArreglo extends ModeloEstructura {
+    private final LongAdder crecimientos;
+    private final LongAdder bytesCopiados;
+    private final IntUnaryOperator politica;
+    private final int celdasLibres;
+    private int capacidad;
+
+    /**
+     * celdasLibres: celdas que la estructura nunca ocupa (1 en ArrayDeque)
+     */
+    ModeloArreglo(MetricasColeccion metricas, int capacidadInicial, int celdasLibres, IntUnaryOperator politica) {
+        this.crecimientos = metricas.evento("crecimientos");
+        this.bytesCopiados = metricas.evento("bytesCopiados");
+        this.politica = politica;
+        this.celdasLibres = celdasLibres;
+        this.capacidad = capacidadInicial;
+    }
+
+    @Override
+    void observar(int tamanio) {
+        while (tamanio + celdasLibres > capacidad) {
+            crecimientos.increment();
+            bytesCopiados.add(bytesReferencias(capacidad));
+            capacidad = politica.applyAsInt(capacidad);
+        }
+    }
+
+    @Override
+    void exportar(Map<String, Long> destino) {
+        destino.put("capacidadModelada", (long) capacidad);
+    }
+}
+
+/**
+ * Tabla de HashMap/HashSet: redimensiones al pasar 0.75 de carga y,
+ * al exportar, la distribución de claves por cubeta
+ */
+class ModeloTablaHash extends ModeloEstructura {
+    private final LongAdder redimensiones;
+    private final LongAdder bytesCopiados;
+    private final LongAdder entradasReubicadas;
+    private final Set<?> claves;
+    private int capacidad;
+
+    /**
+     * Sin capacidadInicial se supone new HashMap<>() (16 cubetas); con
+     * ella, la potencia de 2 que elige HashMap (tableSizeFor)
+     */
+    ModeloTablaHash(MetricasColeccion metricas, Set<?> claves, int capacidadInicial) {
+        this.redimensiones = metricas.evento("redimensiones");
+        this.bytesCopiados = metricas.evento("bytesCopiados");
+        this.entradasReubicadas = metricas.evento("entradasReubicadas");
+        this.claves = claves;
+        this.capacidad = capacidadInicial == ColeccionesInstrumentadas.SIN_CAPACIDAD ? 16
+            : capacidadInicial <= 1 ? 1 : Integer.highestOneBit(capacidadInicial - 1) << 1;
+        // Para una tabla que ya tiene datos se supone la capacidad mínima que los admite
+        while (claves.size() > capacidad * 3L / 4) {
+            capacidad <<= 1;
+        }
+    }
+
+    @Override
+    void observar(int tamanio) {
+        while (tamanio > capacidad * 3L / 4) {
+            redimensiones.increment();
+            bytesCopiados.add(bytesReferencias(capacidad));
+            // HashMap inserta el nodo nuevo antes de redimensionar: se reubican todos
+            entradasReubicadas.add(tamanio);
+            capacidad <<= 1;
+        }
+    }
+
+    /**
+     * Recorre las claves (fuera del camino rápido) y calcula la cadena más
+     * larga y el promedio de claves comparadas en una búsqueda exitosa.
+     * Desde 8 colisiones HashMap convierte la cubeta en árbol, así que
+     * cadenas largas indican un hashCode() pobre
+     */
+    @Override
+    void exportar(Map<String, Long> destino) {
+        int[] porCubeta = new int[capacidad];
+        long total = 0;
+        for (Object clave : claves) {
+            int h = clave == null ? 0 : clave.hashCode();
+            porCubeta[(h ^ (h >>> 16)) & (capacidad - 1)]++;
+            total++;
+        }
+        long maxima = 0;
+        long ocupadas = 0;
+        long comparaciones = 0;
+        for (int enCubeta : porCubeta) {
+            if (enCubeta > 0) {
+                ocupadas++;
+                maxima = Math.max(maxima, enCubeta);
+                comparaciones += (long) enCubeta * (enCubeta + 1) / 2;
+            }
+        }
+        destino.put("capacidadModelada", (long) capacidad);
+        destino.put("cubetasOcupadas", ocupadas);
+        destino.put("cadenaMaxima", maxima);
+        // Promedio por mil, para mantener valores enteros en el JSON
+        destino.put("comparacionesPorBusquedax1000", total == 0 ? 0 : comparaciones * 1000 / total);
+    }
+}
+
+/**
+ * Comparador que cuenta cuántas veces se lo llama
+ */
+class ComparadorContador<E> implements Comparator<E> {
+    private final Comparator<? super E> orden;
+    final LongAdder comparaciones = new LongAdder();
+
+    ComparadorContador(Comparator<? super E> orden) {
+        this.orden = orden;
+    }
+
+    @Override
+    public int compare(E a, E b) {
+        comparaciones.increment();
+        return orden.compare(a, b);
+    }
+}
+
+class ListaInstrumentada<E> extends AbstractList<E> {
+    private final MetricasColeccion metricas;
+    private final List<E> lista;
+    private final OperacionMedida get;
+    private final OperacionMedida set;
+    private final OperacionMedida add;
+    private final OperacionMedida insertar;
+    private final OperacionMedida remove;
+    private final OperacionMedida contains;
+    private final OperacionMedida iterar;
+    private final LongAdder bytesDesplazados;
+    private final LongAdder nodosRecorridos;
+
+    ListaInstrumentada(MetricasColeccion metricas, List<E> lista) {
+        this.metricas = metricas;
+        this.lista = lista;
+        get = metricas.operacion("get");
+        set = metricas.operacion("set");
+        add = metricas.operacion("add");
+        insertar = metricas.operacion("add(indice)");
+        remove = metricas.operacion("remove");
+        contains = metricas.operacion("contains");
+        iterar = metricas.operacion("iterator");
+        // ArrayList desplaza el resto del arreglo; LinkedList camina hasta el índice
+        bytesDesplazados = lista instanceof ArrayList ? metricas.evento("bytesDesplazados") : null;
+        nodosRecorridos = lista instanceof LinkedList ? metricas.evento("nodosRecorridos") : null;
+    }
+
+    @Override
+    public E get(int indice) {
+        long inicio = get.iniciar();
+        try {
+            recorrer(indice);
+            return lista.get(indice);
+        } finally {
+            get.terminar(inicio);
+        }
+    }
+
+    @Override
+    public E set(int indice, E elemento) {
+        long inicio = set.iniciar();
+        try {
+            recorrer(indice);
+            return lista.set(indice, elemento);
+        } finally {
+            set.terminar(inicio);
+        }
+    }
+
+    @Override
+    public boolean add(E elemento) {
+        long inicio = add.iniciar();
+        try {
+            return lista.add(elemento);
+        } finally {
+            add.terminar(inicio);
+            metricas.observarTamanio(lista.size());
+        }
+    }
+
+    @Override
+    public void add(int indice, E elemento) {
+        long inicio = insertar.iniciar();
+        try {
+            desplazar(indice);
+            recorrer(indice);
+            lista.add(indice, elemento);
+        } finally {
+            insertar.terminar(inicio);
+            metricas.observarTamanio(lista.size());
+        }
+    }
+
+    @Override
+    public E remove(int indice) {
+        long inicio = remove.iniciar();
+        try {
+            // Se desplazan los que siguen al eliminado, pero se camina hasta él
+            desplazar(indice + 1);
+            recorrer(indice);
+            return lista.remove(indice);
+        } finally {
+            remove.terminar(inicio);
+        }
+    }
+
+    @Override
+    public boolean remove(Object elemento) {
+        long inicio = remove.iniciar();
+        try {
+            return lista.remove(elemento);
+        } finally {
+            remove.terminar(inicio);
+        }
+    }
+
+    @Override
+    public boolean contains(Object elemento) {
+        long inicio = contains.iniciar();
+        try {
+            return lista.contains(elemento);
+        } finally {
+            contains.terminar(inicio);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        long inicio = iterar.iniciar();
+        try {
+            return lista.iterator();
+        } finally {
+            iterar.terminar(inicio);
+        }
+    }
+
+    // Lo que sigue se delega directamente: las versiones de AbstractList
+    // recorren con get(i), que en un LinkedList camina desde un extremo
+    // en cada paso (y además se contaría como get)
+
+    @Override
+    public ListIterator<E> listIterator() {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int indice) {
+        long inicio = iterar.iniciar();
+        try {
+            return lista.listIterator(indice);
+        } finally {
+            iterar.terminar(inicio);
+        }
+    }
+
+    @Override
+    public int indexOf(Object elemento) {
+        long inicio = contains.iniciar();
+        try {
+            return lista.indexOf(elemento);
+        } finally {
+            contains.terminar(inicio);
+        }
+    }
+
+    @Override
+    public int lastIndexOf(Object elemento) {
+        long inicio = contains.iniciar();
+        try {
+            return lista.lastIndexOf(elemento);
+        } finally {
+            contains.terminar(inicio);
+        }
+    }
+
+    @Override
+    public List<E> subList(int desde, int hasta) {
+        return lista.subList(desde, hasta);
+    }
+
+    @Override
+    public void sort(Comparator<? super E> orden) {
+        lista.sort(orden);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operador) {
+        lista.replaceAll(operador);
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return otro == this || lista.equals(otro);
+    }
+
+    @Override
+    public int hashCode() {
+        return lista.hashCode();
+    }
+
+    @Override
+    public int size() {
+        return lista.size();
+    }
+
+    @Override
+    public void clear() {
+        lista.clear();
+    }
+
+    /**
+     * Bytes que ArrayList mueve con System.arraycopy desde el índice hasta el final
+     */
+    private void desplazar(int indice) {
+        if (bytesDesplazados != null && indice < lista.size()) {
+            bytesDesplazados.add(ModeloEstructura.bytesReferencias(lista.size() - indice));
+        }
+    }
+
+    private void recorrer(int indice) {
+        if (nodosRecorridos != null) {
+            // LinkedList empieza por el extremo más cercano
+            nodosRecorridos.add(Math.min(indice, Math.max(0, lista.size() - indice)));
+        }
+    }
+}
+
+class ConjuntoInstrumentado<E> extends AbstractSet<E> {
+    private final MetricasColeccion metricas;
+    private final Set<E> conjunto;
+    private final OperacionMedida add;
+    private final OperacionMedida remove;
+    private final OperacionMedida contains;
+    private final OperacionMedida iterar;
+
+    ConjuntoInstrumentado(MetricasColeccion metricas, Set<E> conjunto) {
+        this.metricas = metricas;
+        this.conjunto = conjunto;
+        add = metricas.operacion("add");
+        remove = metricas.operacion("remove");
+        contains = metricas.operacion("contains");
+        iterar = metricas.operacion("iterator");
+    }
+
+    @Override
+    public boolean add(E elemento) {
+        long inicio = add.iniciar();
+        try {
+            return conjunto.add(elemento);
+        } finally {
+            add.terminar(inicio);
+            metricas.observarTamanio(conjunto.size());
+        }
+    }
+
+    @Override
+    public boolean remove(Object elemento) {
+        long inicio = remove.iniciar();
+        try {
+            return conjunto.remove(elemento);
+        } finally {
+            remove.terminar(inicio);
+        }
+    }
+
+    @Override
+    public boolean contains(Object elemento) {
+        long inicio = contains.iniciar();
+        try {
+            return conjunto.contains(elemento);
+        } finally {
+            contains.terminar(inicio);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        long inicio = iterar.iniciar();
+        try {
+            return conjunto.iterator();
+        } finally {
+            iterar.terminar(inicio);
+        }
+    }
+
+    @Override
+    public int size() {
+        return conjunto.size();
+    }
+
+    @Override
+    public void clear() {
+        conjunto.clear();
+    }
+}
+
+class MapaInstrumentado<K, V> extends AbstractMap<K, V> {
+    private final MetricasColeccion metricas;
+    private final Map<K, V> mapa;
+    private final OperacionMedida get;
+    private final OperacionMedida put;
+    private final OperacionMedida remove;
+    private final OperacionMedida containsKey;
+    private final OperacionMedida iterar;
+
+    MapaInstrumentado(MetricasColeccion metricas, Map<K, V> mapa) {
+        this.metricas = metricas;
+        this.mapa = mapa;
+        get = metricas.operacion("get");
+        put = metricas.operacion("put");
+        remove = metricas.operacion("remove");
+        containsKey = metricas.operacion("containsKey");
+        iterar = metricas.operacion("entrySet");
+    }
+
+    @Override
+    public V get(Object clave) {
+        long inicio = get.iniciar();
+        try {
+            return mapa.get(clave);
+        } finally {
+            get.terminar(inicio);
+        }
+    }
+
+    @Override
+    public V getOrDefault(Object clave, V porDefecto) {
+        long inicio = get.iniciar();
+        try {
+            return mapa.getOrDefault(clave, porDefecto);
+        } finally {
+            get.terminar(inicio);
+        }
+    }
+
+    @Override
+    public V put(K clave, V valor) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.put(clave, valor);
+        } finally {
+            put.terminar(inicio);
+            metricas.observarTamanio(mapa.size());
+        }
+    }
+
+    @Override
+    public V remove(Object clave) {
+        long inicio = remove.iniciar();
+        try {
+            return mapa.remove(clave);
+        } finally {
+            remove.terminar(inicio);
+        }
+    }
+
+    // Los métodos atómicos de Map se delegan: sus versiones por defecto
+    // hacen get y luego put, y sobre un ConcurrentHashMap perderían
+    // actualizaciones
+
+    @Override
+    public V putIfAbsent(K clave, V valor) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.putIfAbsent(clave, valor);
+        } finally {
+            put.terminar(inicio);
+            metricas.observarTamanio(mapa.size());
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(K clave, Function<? super K, ? extends V> funcion) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.computeIfAbsent(clave, funcion);
+        } finally {
+            put.terminar(inicio);
+            metricas.observarTamanio(mapa.size());
+        }
+    }
+
+    @Override
+    public V computeIfPresent(K clave, BiFunction<? super K, ? super V, ? extends V> funcion) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.computeIfPresent(clave, funcion);
+        } finally {
+            put.terminar(inicio);
+        }
+    }
+
+    @Override
+    public V compute(K clave, BiFunction<? super K, ? super V, ? extends V> funcion) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.compute(clave, funcion);
+        } finally {
+            put.terminar(inicio);
+            metricas.observarTamanio(mapa.size());
+        }
+    }
+
+    @Override
+    public V merge(K clave, V valor, BiFunction<? super V, ? super V, ? extends V> funcion) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.merge(clave, valor, funcion);
+        } finally {
+            put.terminar(inicio);
+            metricas.observarTamanio(mapa.size());
+        }
+    }
+
+    @Override
+    public V replace(K clave, V valor) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.replace(clave, valor);
+        } finally {
+            put.terminar(inicio);
+        }
+    }
+
+    @Override
+    public boolean replace(K clave, V anterior, V valor) {
+        long inicio = put.iniciar();
+        try {
+            return mapa.replace(clave, anterior, valor);
+        } finally {
+            put.terminar(inicio);
+        }
+    }
+
+    @Override
+    public boolean remove(Object clave, Object valor) {
+        long inicio = remove.iniciar();
+        try {
+            return mapa.remove(clave, valor);
+        } finally {
+            remove.terminar(inicio);
+        }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> funcion) {
+        mapa.replaceAll(funcion);
+    }
+
+    @Override
+    public boolean containsKey(Object clave) {
+        long inicio = containsKey.iniciar();
+        try {
+            return mapa.containsKey(clave);
+        } finally {
+            containsKey.terminar(inicio);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        long inicio = iterar.iniciar();
+        try {
+            return mapa.entrySet();
+        } finally {
+            iterar.terminar(inicio);
+        }
+    }
+
+    @Override
+    public int size() {
+        return mapa.size();
+    }
+
+    @Override
+    public void clear() {
+        mapa.clear();
+    }
+}
+
+class ColaInstrumentada<E> extends AbstractQueue<E> {
+    private final MetricasColeccion metricas;
+    private final Queue<E> cola;
+    private final ComparadorContador<E> comparador;
+    private final OperacionMedida offer;
+    private final OperacionMedida poll;
+    private final OperacionMedida peek;
+    private final OperacionMedida iterar;
+    private final LongAdder comparaciones;
+    private final LongAccumulator nivelesMaximos;
+
+    ColaInstrumentada(MetricasColeccion metricas, Queue<E> cola, ComparadorContador<E> comparador) {
+        this.metricas = metricas;
+        this.cola = cola;
+        this.comparador = comparador;
+        offer = metricas.operacion("offer");
+        poll = metricas.operacion("poll");
+        peek = metricas.operacion("peek");
+        iterar = metricas.operacion("iterator");
+        comparaciones = comparador != null ? metricas.evento("comparaciones") : null;
+        nivelesMaximos = comparador != null ? metricas.maximo("nivelesMaximos") : null;
+    }
+
+    @Override
+    public boolean offer(E elemento) {
+        long inicio = offer.iniciar();
+        long antes = comparador != null ? comparador.comparaciones.sum() : 0;
+        try {
+            return cola.offer(elemento);
+        } finally {
+            offer.terminar(inicio);
+            metricas.observarTamanio(cola.size());
+            // Al subir se compara una vez por nivel
+            registrarNiveles(antes, 1);
+        }
+    }
+
+    @Override
+    public E poll() {
+        long inicio = poll.iniciar();
+        long antes = comparador != null ? comparador.comparaciones.sum() : 0;
+        try {
+            return cola.poll();
+        } finally {
+            poll.terminar(inicio);
+            // Al bajar se comparan los dos hijos y luego el menor con el elemento
+            registrarNiveles(antes, 2);
+        }
+    }
+
+    @Override
+    public E peek() {
+        long inicio = peek.iniciar();
+        try {
+            return cola.peek();
+        } finally {
+            peek.terminar(inicio);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        long inicio = iterar.iniciar();
+        try {
+            return cola.iterator();
+        } finally {
+            iterar.terminar(inicio);
+        }
+    }
+
+    @Override
+    public int size() {
+        return cola.size();
+    }
+
+    private void registrarNiveles(long antes, int comparacionesPorNivel) {
+        if (comparador == null) {
+            return;
+        }
+        long hechas = comparador.comparaciones.sum() - antes;
+        comparaciones.add(hechas);
+        nivelesMaximos.accumulate(hechas / comparacionesPorNivel);
+    }
+}
@@ -0,0 +1,1193 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto de enteros comprimido al estilo Roaring bitmap
+ *
+ * HashSet<Integer> y TreeSet<Integer> gastan más de 40 bytes por elemento
+ * (objeto Integer + nodo + referencias) y procesan un elemento a la vez.
+ * Aquí los enteros se agrupan por sus 16 bits altos y cada grupo de hasta
+ * 65536 valores se guarda en el contenedor más compacto:
+ * - ContenedorArreglo: char[] ordenado, para grupos con pocos valores (<= 4096)
+ * - ContenedorBitmap: 1024 palabras long (8 KB), para grupos densos
+ * - ContenedorRuns: pares (inicio, largo), para rangos consecutivos
+ *
+ * La unión, intersección y diferencia entre bitmaps se hacen palabra
+ * por palabra: cada operación long procesa 64 valores de una vez.
+ */
+public class ConjuntoBitmap implements Iterable<Integer> {
+
+    private char[] claves = new char[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int numContenedores;
+    private long cardinalidad;
+
+    /**
+     * Agrega un entero. Retorna true si no estaba en el conjunto
+     */
+    public boolean add(int valor) {
+        int u = valor ^ Integer.MIN_VALUE; // Así el orden sin signo coincide con el orden de int
+        char alta = (char) (u >>> 16);
+        int baja = u & 0xFFFF;
+        int i = buscarClave(alta);
+        if (i >= 0) {
+            Contenedor c = contenedores[i];
+            int antes = c.cardinalidad();
+            c = c.add(baja);
+            contenedores[i] = c;
+            if (c.cardinalidad() == antes) {
+                return false;
+            }
+        } else {
+            insertarContenedor(-i - 1, alta, new ContenedorArreglo().add(baja));
+        }
+        cardinalidad++;
+        return true;
+    }
+
+    /**
+     * Elimina un entero. Retorna true si estaba en el conjunto
+     */
+    public boolean remove(int valor) {
+        int u = valor ^ Integer.MIN_VALUE;
+        int i = buscarClave((char) (u >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        Contenedor c = contenedores[i];
+        int antes = c.cardinalidad();
+        c = c.remove(u & 0xFFFF);
+        if (c.cardinalidad() == antes) {
+            return false;
+        }
+        cardinalidad--;
+        if (c.cardinalidad() == 0) {
+            eliminarContenedor(i);
+        } else {
+            contenedores[i] = c;
+        }
+        return true;
+    }
+
+    public boolean contains(int valor) {
+        int u = valor ^ Integer.MIN_VALUE;
+        int i = buscarClave((char) (u >>> 16));
+        return i >= 0 && contenedores[i].contains(u & 0xFFFF);
+    }
+
+    public long size() {
+        return cardinalidad;
+    }
+
+    public boolean isEmpty() {
+        return cardinalidad == 0;
+    }
+
+    /**
+     * Unión: elementos que están en este conjunto o en el otro
+     */
+    public ConjuntoBitmap union(ConjuntoBitmap otro) {
+        ConjuntoBitmap resultado = new ConjuntoBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < numContenedores && j < otro.numContenedores) {
+            char a = claves[i];
+            char b = otro.claves[j];
+            if (a < b) {
+                resultado.agregarAlFinal(a, contenedores[i++].copia());
+            } else if (a > b) {
+                resultado.agregarAlFinal(b, otro.contenedores[j++].copia());
+            } else {
+                resultado.agregarAlFinal(a, Contenedor.union(contenedores[i++], otro.contenedores[j++]));
+            }
+        }
+        while (i < numContenedores) {
+            resultado.agregarAlFinal(claves[i], contenedores[i++].copia());
+        }
+        while (j < otro.numContenedores) {
+            resultado.agregarAlFinal(otro.claves[j], otro.contenedores[j++].copia());
+        }
+        return resultado;
+    }
+
+    /**
+     * Intersección: elementos que están en ambos conjuntos
+     */
+    public ConjuntoBitmap interseccion(ConjuntoBitmap otro) {
+        ConjuntoBitmap resultado = new ConjuntoBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < numContenedores && j < otro.numContenedores) {
+            char a = claves[i];
+            char b = otro.claves[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                resultado.agregarAlFinal(a, Contenedor.interseccion(contenedores[i++], otro.contenedores[j++]));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Diferencia: elementos de este conjunto que no están en el otro
+     */
+    public ConjuntoBitmap diferencia(ConjuntoBitmap otro) {
+        ConjuntoBitmap resultado = new ConjuntoBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < numContenedores) {
+            char a = claves[i];
+            while (j < otro.numContenedores && otro.claves[j] < a) {
+                j++;
+            }
+            if (j < otro.numContenedores && otro.claves[j] == a) {
+                resultado.agregarAlFinal(a, Contenedor.diferencia(contenedores[i], otro.contenedores[j]));
+            } else {
+                resultado.agregarAlFinal(a, contenedores[i].copia());
+            }
+            i++;
+        }
+        return resultado;
+    }
+
+    /**
+     * Mayor elemento menor o igual al valor, o null si no existe
+     */
+    public Integer floor(int valor) {
+        int u = valor ^ Integer.MIN_VALUE;
+        int i = buscarClave((char) (u >>> 16));
+        if (i >= 0) {
+            int baja = contenedores[i].floor(u & 0xFFFF);
+            if (baja >= 0) {
+                return combinar(claves[i], baja);
+            }
+            i--;
+        } else {
+            i = -i - 2;
+        }
+        if (i < 0) {
+            return null;
+        }
+        return combinar(claves[i], contenedores[i].floor(0xFFFF));
+    }
+
+    /**
+     * Menor elemento mayor o igual al valor, o null si no existe
+     */
+    public Integer ceiling(int valor) {
+        int u = valor ^ Integer.MIN_VALUE;
+        int i = buscarClave((char) (u >>> 16));
+        if (i >= 0) {
+            int baja = contenedores[i].ceiling(u & 0xFFFF);
+            if (baja >= 0) {
+                return combinar(claves[i], baja);
+            }
+            i++;
+        } else {
+            i = -i - 1;
+        }
+        if (i >= numContenedores) {
+            return null;
+        }
+        return combinar(claves[i], contenedores[i].ceiling(0));
+    }
+
+    /**
+     * Cantidad de elementos menores o iguales al valor
+     */
+    public long rank(int valor) {
+        int u = valor ^ Integer.MIN_VALUE;
+        char alta = (char) (u >>> 16);
+        long total = 0;
+        for (int i = 0; i < numContenedores && claves[i] <= alta; i++) {
+            if (claves[i] < alta) {
+                total += contenedores[i].cardinalidad();
+            } else {
+                total += contenedores[i].rank(u & 0xFFFF);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * El k-ésimo menor elemento (k empieza en 0)
+     */
+    public int select(long k) {
+        if (k < 0 || k >= cardinalidad) {
+            throw new IndexOutOfBoundsException("Posición fuera de rango: " + k);
+        }
+        for (int i = 0; i < numContenedores; i++) {
+            int card = contenedores[i].cardinalidad();
+            if (k < card) {
+                return combinar(claves[i], contenedores[i].select((int) k));
+            }
+            k -= card;
+        }
+        throw new IllegalStateException("Cardinalidad inconsistente");
+    }
+
+    /**
+     * Recorre los elementos en orden ascendente sin crear objetos Integer
+     */
+    public void recorrer(IntConsumer accion) {
+        int[] buffer = new int[0];
+        for (int i = 0; i < numContenedores; i++) {
+            int base = claves[i] << 16;
+            buffer = bufferPara(contenedores[i], buffer);
+            int n = contenedores[i].llenar(buffer);
+            for (int j = 0; j < n; j++) {
+                accion.accept((base | buffer[j]) ^ Integer.MIN_VALUE);
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int[] buffer = new int[0];
+            private int contenedor;
+            private int posicion;
+            private int enBuffer;
+
+            @Override
+            public boolean hasNext() {
+                while (posicion == enBuffer) {
+                    if (contenedor == numContenedores) {
+                        return false;
+                    }
+                    buffer = bufferPara(contenedores[contenedor], buffer);
+                    enBuffer = contenedores[contenedor++].llenar(buffer);
+                    posicion = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return combinar(claves[contenedor - 1], buffer[posicion++]);
+            }
+        };
+    }
+
+    /**
+     * Buffer donde entran los valores del contenedor. Crece al doble (hasta
+     * 2^16) solo cuando hace falta, así un conjunto chico no reserva 256 KB
+     */
+    private static int[] bufferPara(Contenedor contenedor, int[] actual) {
+        int card = contenedor.cardinalidad();
+        if (card <= actual.length) {
+            return actual;
+        }
+        return new int[Math.min(1 << 16, Math.max(card, actual.length * 2))];
+    }
+
+    /**
+     * Convierte a ContenedorRuns los grupos donde ocupa menos memoria.
+     * Conviene llamarlo después de cargar muchos rangos consecutivos
+     */
+    public void optimizarRuns() {
+        for (int i = 0; i < numContenedores; i++) {
+            contenedores[i] = contenedores[i].optimizar();
+        }
+    }
+
+    /**
+     * Estimación de los bytes usados por los contenedores
+     */
+    public long bytesEstimados() {
+        long total = 16L + claves.length * 2L + contenedores.length * 4L;
+        for (int i = 0; i < numContenedores; i++) {
+            total += contenedores[i].bytesEstimados();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        recorrer(v -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(v);
+        });
+        return sb.append(']').toString();
+    }
+
+    private static int combinar(char alta, int baja) {
+        return ((alta << 16) | baja) ^ Integer.MIN_VALUE;
+    }
+
+    private int buscarClave(char alta) {
+        return Arrays.binarySearch(claves, 0, numContenedores, alta);
+    }
+
+    private void insertarContenedor(int i, char alta, Contenedor c) {
+        asegurarCapacidad();
+        System.arraycopy(claves, i, claves, i + 1, numContenedores - i);
+        System.arraycopy(contenedores, i, contenedores, i + 1, numContenedores - i);
+        claves[i] = alta;
+        contenedores[i] = c;
+        numContenedores++;
+    }
+
+    private void eliminarContenedor(int i) {
+        System.arraycopy(claves, i + 1, claves, i, numContenedores - i - 1);
+        System.arraycopy(contenedores, i + 1, contenedores, i, numContenedores - i - 1);
+        numContenedores--;
+        contenedores[numContenedores] = null;
+    }
+
+    /**
+     * Usado por las operaciones de conjuntos, que generan claves en orden.
+     * Los contenedores vacíos (null) se descartan
+     */
+    private void agregarAlFinal(char alta, Contenedor c) {
+        if (c == null || c.cardinalidad() == 0) {
+            return;
+        }
+        asegurarCapacidad();
+        claves[numContenedores] = alta;
+        contenedores[numContenedores++] = c;
+        cardinalidad += c.cardinalidad();
+    }
+
+    private void asegurarCapacidad() {
+        if (numContenedores == claves.length) {
+            claves = Arrays.copyOf(claves, numContenedores * 2);
+            contenedores = Arrays.copyOf(contenedores, numContenedores * 2);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== CONJUNTO BITMAP COMPRIMIDO ===\n");
+        ejemploBasico();
+
+        System.out.println("\n=== COMPARACIÓN CON HASHSET Y TREESET ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        comparacionRendimiento(n);
+    }
+
+    /**
+     * Las mismas operaciones que EjemploSet, con un ConjuntoBitmap
+     */
+    public static void ejemploBasico() {
+        ConjuntoBitmap numeros = new ConjuntoBitmap();
+        numeros.add(50);
+        numeros.add(20);
+        numeros.add(80);
+        numeros.add(10);
+        numeros.add(30);
+        numeros.add(20); // Duplicado - será ignorado
+        numeros.add(-5); // Los negativos también se ordenan correctamente
+
+        System.out.println("Conjunto ordenado: " + numeros);
+        System.out.println("Tamaño: " + numeros.size());
+        System.out.println("Menor o igual a 25: " + numeros.floor(25));
+        System.out.println("Mayor o igual a 25: " + numeros.ceiling(25));
+        System.out.println("Cuántos son <= 30 (rank): " + numeros.rank(30));
+        System.out.println("Tercer menor (select(2)): " + numeros.select(2));
+
+        ConjuntoBitmap otros = new ConjuntoBitmap();
+        otros.add(20);
+        otros.add(30);
+        otros.add(99);
+        System.out.println("\nOtro conjunto: " + otros);
+        System.out.println("Unión: " + numeros.union(otros));
+        System.out.println("Intersección: " + numeros.interseccion(otros));
+        System.out.println("Diferencia: " + numeros.diferencia(otros));
+
+        // Un rango grande y consecutivo se comprime en muy pocos bytes
+        ConjuntoBitmap rango = new ConjuntoBitmap();
+        for (int i = 0; i < 1_000_000; i++) {
+            rango.add(i);
+        }
+        System.out.println("\nRango [0, 1000000): " + rango.bytesEstimados() + " bytes");
+        rango.optimizarRuns();
+        System.out.println("Después de optimizarRuns(): " + rango.bytesEstimados() + " bytes");
+    }
+
+    /**
+     * Compara contra HashSet y TreeSet con IDs agrupados en bloques densos
+     * (como los IDs de usuarios creados en lotes) más algunos dispersos
+     */
+    public static void comparacionRendimiento(int n) {
+        int[] a = generarIds(n, 1);
+        int[] b = generarIds(n, 2);
+        System.out.println("Elementos por conjunto: " + n);
+
+        long inicio = System.nanoTime();
+        HashSet<Integer> hashA = new HashSet<>();
+        HashSet<Integer> hashB = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            hashA.add(a[i]);
+            hashB.add(b[i]);
+        }
+        long tiempoHash = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        TreeSet<Integer> arbolA = new TreeSet<>();
+        TreeSet<Integer> arbolB = new TreeSet<>();
+        for (int i = 0; i < n; i++) {
+            arbolA.add(a[i]);
+            arbolB.add(b[i]);
+        }
+        long tiempoArbol = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        ConjuntoBitmap bitsA = new ConjuntoBitmap();
+        ConjuntoBitmap bitsB = new ConjuntoBitmap();
+        for (int i = 0; i < n; i++) {
+            bitsA.add(a[i]);
+            bitsB.add(b[i]);
+        }
+        long tiempoBits = System.nanoTime() - inicio;
+        imprimir("Construcción", tiempoHash, tiempoArbol, tiempoBits);
+
+        inicio = System.nanoTime();
+        HashSet<Integer> unionHash = new HashSet<>(hashA);
+        unionHash.addAll(hashB);
+        tiempoHash = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        TreeSet<Integer> unionArbol = new TreeSet<>(arbolA);
+        unionArbol.addAll(arbolB);
+        tiempoArbol = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        ConjuntoBitmap unionBits = bitsA.union(bitsB);
+        tiempoBits = System.nanoTime() - inicio;
+        imprimir("Unión", tiempoHash, tiempoArbol, tiempoBits);
+
+        inicio = System.nanoTime();
+        HashSet<Integer> interHash = new HashSet<>(hashA);
+        interHash.retainAll(hashB);
+        tiempoHash = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        TreeSet<Integer> interArbol = new TreeSet<>(arbolA);
+        interArbol.retainAll(arbolB);
+        tiempoArbol = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        ConjuntoBitmap interBits = bitsA.interseccion(bitsB);
+        tiempoBits = System.nanoTime() - inicio;
+        imprimir("Intersección", tiempoHash, tiempoArbol, tiempoBits);
+
+        inicio = System.nanoTime();
+        HashSet<Integer> difHash = new HashSet<>(hashA);
+        difHash.removeAll(hashB);
+        tiempoHash = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        TreeSet<Integer> difArbol = new TreeSet<>(arbolA);
+        difArbol.removeAll(arbolB);
+        tiempoArbol = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        ConjuntoBitmap difBits = bitsA.diferencia(bitsB);
+        tiempoBits = System.nanoTime() - inicio;
+        imprimir("Diferencia", tiempoHash, tiempoArbol, tiempoBits);
+
+        inicio = System.nanoTime();
+        long sumaArbol = 0;
+        for (int v : arbolA) {
+            sumaArbol += v;
+        }
+        tiempoArbol = System.nanoTime() - inicio;
+        inicio = System.nanoTime();
+        long sumaBits = 0;
+        for (PrimitiveIterator.OfInt it = bitsA.iterator(); it.hasNext(); ) {
+            sumaBits += it.nextInt();
+        }
+        tiempoBits = System.nanoTime() - inicio;
+        imprimir("Recorrido ordenado", -1, tiempoArbol, tiempoBits);
+
+        System.out.println("\n¿Mismos resultados? unión " + (unionHash.size() == unionBits.size())
+            + ", intersección " + (interArbol.size() == interBits.size())
+            + ", diferencia " + (difHash.size() == difBits.size())
+            + ", recorrido " + (sumaArbol == sumaBits));
+
+        // Memoria medida con el GC antes y después de construir cada conjunto
+        // a partir de los int (así cada uno crea sus propios Integer)
+        hashA = hashB = unionHash = interHash = difHash = null;
+        arbolA = arbolB = unionArbol = interArbol = difArbol = null;
+        long base = memoriaUsada();
+        HashSet<Integer> medidoHash = new HashSet<>();
+        for (int v : a) {
+            medidoHash.add(v);
+        }
+        long bytesHash = memoriaUsada() - base;
+        base = memoriaUsada();
+        TreeSet<Integer> medidoArbol = new TreeSet<>();
+        for (int v : a) {
+            medidoArbol.add(v);
+        }
+        long bytesArbol = memoriaUsada() - base;
+        base = memoriaUsada();
+        ConjuntoBitmap medidoBits = new ConjuntoBitmap();
+        for (int v : a) {
+            medidoBits.add(v);
+        }
+        medidoBits.optimizarRuns();
+        long bytesBits = memoriaUsada() - base;
+
+        System.out.printf("%nMemoria del conjunto A (%d elementos distintos):%n", medidoHash.size());
+        System.out.printf("  HashSet<Integer>: %6.2f bytes/elemento%n", (double) bytesHash / medidoHash.size());
+        System.out.printf("  TreeSet<Integer>: %6.2f bytes/elemento%n", (double) bytesArbol / medidoArbol.size());
+        System.out.printf("  ConjuntoBitmap:   %6.2f bytes/elemento (bytesEstimados(): %.2f)%n",
+            (double) bytesBits / medidoBits.size(), (double) medidoBits.bytesEstimados() / medidoBits.size());
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void imprimir(String operacion, long hash, long arbol, long bits) {
+        System.out.printf("%-20s HashSet: %9s  TreeSet: %9.2f ms  ConjuntoBitmap: %8.2f ms%n", operacion,
+            hash < 0 ? "-" : String.format("%.2f ms", hash / 1e6), arbol / 1e6, bits / 1e6);
+    }
+
+    /**
+     * 90% de los IDs en bloques consecutivos y 10% dispersos
+     */
+    private static int[] generarIds(int n, long semilla) {
+        Random random = new Random(semilla);
+        int[] ids = new int[n];
+        int i = 0;
+        while (i < n * 9 / 10) {
+            int inicioBloque = random.nextInt(50_000_000);
+            int largo = Math.min(1 + random.nextInt(20_000), n * 9 / 10 - i);
+            for (int j = 0; j < largo; j++) {
+                ids[i++] = inicioBloque + j;
+            }
+        }
+        while (i < n) {
+            ids[i++] = random.nextInt(Integer.MAX_VALUE);
+        }
+        return ids;
+    }
+}
+
+/**
+ * Contenedor de hasta 65536 valores (los 16 bits bajos de un grupo).
+ * add() y remove() retornan el contenedor a usar de ahí en adelante,
+ * que puede ser de otro tipo si conviene cambiar de representación
+ */
+abstract class Contenedor {
+    static final int MAX_ARREGLO = 4096;
+
+    abstract int cardinalidad();
+
+    abstract boolean contains(int baja);
+
+    abstract Contenedor add(int baja);
+
+    abstract Contenedor remove(int baja);
+
+    /** Cantidad de valores menores o iguales a baja */
+    abstract int rank(int baja);
+
+    /** El j-ésimo menor valor (j empieza en 0) */
+    abstract int select(int j);
+
+    /** Mayor valor <= baja, o -1 */
+    abstract int floor(int baja);
+
+    /** Menor valor >= baja, o -1 */
+    abstract int ceiling(int baja);
+
+    /** Escribe los valores en orden y retorna cuántos son */
+    abstract int llenar(int[] destino);
+
+    /** Aplica OR de este contenedor sobre las palabras de un bitmap */
+    abstract void orEn(long[] palabras);
+
+    abstract ContenedorBitmap aBitmap();
+
+    abstract Contenedor copia();
+
+    abstract long bytesEstimados();
+
+    /**
+     * Retorna la representación más compacta para estos valores
+     */
+    Contenedor optimizar() {
+        ContenedorRuns runs = ContenedorRuns.desde(this);
+        long actual = bytesEstimados();
+        return runs.bytesEstimados() < actual ? runs : this;
+    }
+
+    static Contenedor union(Contenedor a, Contenedor b) {
+        if (a instanceof ContenedorArreglo && b instanceof ContenedorArreglo) {
+            ContenedorArreglo resultado = ContenedorArreglo.union((ContenedorArreglo) a, (ContenedorArreglo) b);
+            return resultado.cardinalidad() > MAX_ARREGLO ? resultado.aBitmap() : resultado;
+        }
+        long[] palabras = new long[ContenedorBitmap.PALABRAS];
+        a.orEn(palabras);
+        b.orEn(palabras);
+        return ContenedorBitmap.normalizar(palabras);
+    }
+
+    static Contenedor interseccion(Contenedor a, Contenedor b) {
+        if (a instanceof ContenedorArreglo) {
+            return ((ContenedorArreglo) a).filtrar(b, true);
+        }
+        if (b instanceof ContenedorArreglo) {
+            return ((ContenedorArreglo) b).filtrar(a, true);
+        }
+        long[] x = a.aBitmap().palabras;
+        long[] y = b.aBitmap().palabras;
+        long[] palabras = new long[ContenedorBitmap.PALABRAS];
+        for (int i = 0; i < palabras.length; i++) {
+            palabras[i] = x[i] & y[i];
+        }
+        return ContenedorBitmap.normalizar(palabras);
+    }
+
+    static Contenedor diferencia(Contenedor a, Contenedor b) {
+        if (a instanceof ContenedorArreglo) {
+            return ((ContenedorArreglo) a).filtrar(b, false);
+        }
+        long[] x = a.aBitmap().palabras;
+        long[] palabras = new long[ContenedorBitmap.PALABRAS];
+        if (b instanceof ContenedorArreglo) {
+            System.arraycopy(x, 0, palabras, 0, palabras.length);
+            ContenedorArreglo arreglo = (ContenedorArreglo) b;
+            for (int i = 0; i < arreglo.cardinalidad(); i++) {
+                int v = arreglo.valores[i];
+                palabras[v >>> 6] &= ~(1L << v);
+            }
+        } else {
+            long[] y = b.aBitmap().palabras;
+            for (int i = 0; i < palabras.length; i++) {
+                palabras[i] = x[i] & ~y[i];
+            }
+        }
+        return ContenedorBitmap.normalizar(palabras);
+    }
+}
+
+/**
+ * Arreglo ordenado de valores de 16 bits (2 bytes por valor)
+ */
+class ContenedorArreglo extends Contenedor {
+    char[] valores;
+    private int card;
+
+    ContenedorArreglo() {
+        this(new char[4], 0);
+    }
+
+    ContenedorArreglo(char[] valores, int card) {
+        this.valores = valores;
+        this.card = card;
+    }
+
+    @Override
+    int cardinalidad() {
+        return card;
+    }
+
+    @Override
+    boolean contains(int baja) {
+        return Arrays.binarySearch(valores, 0, card, (char) baja) >= 0;
+    }
+
+    @Override
+    Contenedor add(int baja) {
+        int i = Arrays.binarySearch(valores, 0, card, (char) baja);
+        if (i >= 0) {
+            return this;
+        }
+        if (card == MAX_ARREGLO) {
+            // Demasiados valores: el bitmap de 8 KB ya es más compacto
+            return aBitmap().add(baja);
+        }
+        i = -i - 1;
+        if (card == valores.length) {
+            valores = Arrays.copyOf(valores, Math.min(MAX_ARREGLO, card * 2));
+        }
+        System.arraycopy(valores, i, valores, i + 1, card - i);
+        valores[i] = (char) baja;
+        card++;
+        return this;
+    }
+
+    @Override
+    Contenedor remove(int baja) {
+        int i = Arrays.binarySearch(valores, 0, card, (char) baja);
+        if (i >= 0) {
+            System.arraycopy(valores, i + 1, valores, i, card - i - 1);
+            card--;
+        }
+        return this;
+    }
+
+    @Override
+    int rank(int baja) {
+        int i = Arrays.binarySearch(valores, 0, card, (char) baja);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    @Override
+    int select(int j) {
+        return valores[j];
+    }
+
+    @Override
+    int floor(int baja) {
+        int i = Arrays.binarySearch(valores, 0, card, (char) baja);
+        if (i >= 0) {
+            return baja;
+        }
+        i = -i - 1;
+        return i == 0 ? -1 : valores[i - 1];
+    }
+
+    @Override
+    int ceiling(int baja) {
+        int i = Arrays.binarySearch(valores, 0, card, (char) baja);
+        if (i >= 0) {
+            return baja;
+        }
+        i = -i - 1;
+        return i == card ? -1 : valores[i];
+    }
+
+    @Override
+    int llenar(int[] destino) {
+        for (int i = 0; i < card; i++) {
+            destino[i] = valores[i];
+        }
+        return card;
+    }
+
+    @Override
+    void orEn(long[] palabras) {
+        for (int i = 0; i < card; i++) {
+            int v = valores[i];
+            palabras[v >>> 6] |= 1L << v;
+        }
+    }
+
+    @Override
+    ContenedorBitmap aBitmap() {
+        long[] palabras = new long[ContenedorBitmap.PALABRAS];
+        orEn(palabras);
+        return new ContenedorBitmap(palabras, card);
+    }
+
+    @Override
+    Contenedor copia() {
+        return new ContenedorArreglo(Arrays.copyOf(valores, card), card);
+    }
+
+    @Override
+    long bytesEstimados() {
+        return 16L + 16 + valores.length * 2L;
+    }
+
+    /**
+     * Conserva los valores que están (o no están) en el otro contenedor
+     */
+    Contenedor filtrar(Contenedor otro, boolean conservarSiEsta) {
+        char[] resultado = new char[card];
+        int n = 0;
+        for (int i = 0; i < card; i++) {
+            if (otro.contains(valores[i]) == conservarSiEsta) {
+                resultado[n++] = valores[i];
+            }
+        }
+        return new ContenedorArreglo(resultado, n);
+    }
+
+    static ContenedorArreglo union(ContenedorArreglo a, ContenedorArreglo b) {
+        char[] resultado = new char[a.card + b.card];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.card && j < b.card) {
+            char x = a.valores[i];
+            char y = b.valores[j];
+            if (x < y) {
+                resultado[n++] = x;
+                i++;
+            } else if (x > y) {
+                resultado[n++] = y;
+                j++;
+            } else {
+                resultado[n++] = x;
+                i++;
+                j++;
+            }
+        }
+        while (i < a.card) {
+            resultado[n++] = a.valores[i++];
+        }
+        while (j < b.card) {
+            resultado[n++] = b.valores[j++];
+        }
+        return new ContenedorArreglo(resultado, n);
+    }
+}
+
+/**
+ * Bitmap de 65536 bits: 1024 palabras long, 8 KB fijos
+ */
+class ContenedorBitmap extends Contenedor {
+    static final int PALABRAS = 1024;
+
+    final long[] palabras;
+    private int card;
+
+    ContenedorBitmap(long[] palabras, int card) {
+        this.palabras = palabras;
+        this.card = card;
+    }
+
+    /**
+     * Crea el contenedor adecuado para las palabras dadas (o null si están vacías)
+     */
+    static Contenedor normalizar(long[] palabras) {
+        int card = 0;
+        for (long palabra : palabras) {
+            card += Long.bitCount(palabra);
+        }
+        if (card == 0) {
+            return null;
+        }
+        ContenedorBitmap bitmap = new ContenedorBitmap(palabras, card);
+        return card <= MAX_ARREGLO ? bitmap.aArreglo() : bitmap;
+    }
+
+    @Override
+    int cardinalidad() {
+        return card;
+    }
+
+    @Override
+    boolean contains(int baja) {
+        return (palabras[baja >>> 6] & (1L << baja)) != 0;
+    }
+
+    @Override
+    Contenedor add(int baja) {
+        long antes = palabras[baja >>> 6];
+        long despues = antes | (1L << baja);
+        if (antes != despues) {
+            palabras[baja >>> 6] = despues;
+            card++;
+        }
+        return this;
+    }
+
+    @Override
+    Contenedor remove(int baja) {
+        long antes = palabras[baja >>> 6];
+        long despues = antes & ~(1L << baja);
+        if (antes != despues) {
+            palabras[baja >>> 6] = despues;
+            card--;
+            if (card <= MAX_ARREGLO) {
+                return aArreglo();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    int rank(int baja) {
+        int palabra = baja >>> 6;
+        int total = 0;
+        for (int i = 0; i < palabra; i++) {
+            total += Long.bitCount(palabras[i]);
+        }
+        // Desplazar para quedarse solo con los bits 0..baja de la palabra
+        return total + Long.bitCount(palabras[palabra] << (63 - (baja & 63)));
+    }
+
+    @Override
+    int select(int j) {
+        for (int i = 0; i < PALABRAS; i++) {
+            int bits = Long.bitCount(palabras[i]);
+            if (j < bits) {
+                long palabra = palabras[i];
+                for (int k = 0; k < j; k++) {
+                    palabra &= palabra - 1; // Quitar el bit más bajo
+                }
+                return i * 64 + Long.numberOfTrailingZeros(palabra);
+            }
+            j -= bits;
+        }
+        throw new IndexOutOfBoundsException("Posición fuera de rango: " + j);
+    }
+
+    @Override
+    int floor(int baja) {
+        int i = baja >>> 6;
+        long palabra = palabras[i] << (63 - (baja & 63));
+        if (palabra != 0) {
+            return baja - Long.numberOfLeadingZeros(palabra);
+        }
+        for (i--; i >= 0; i--) {
+            if (palabras[i] != 0) {
+                return i * 64 + 63 - Long.numberOfLeadingZeros(palabras[i]);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    int ceiling(int baja) {
+        int i = baja >>> 6;
+        long palabra = palabras[i] & (-1L << baja);
+        if (palabra != 0) {
+            return i * 64 + Long.numberOfTrailingZeros(palabra);
+        }
+        for (i++; i < PALABRAS; i++) {
+            if (palabras[i] != 0) {
+                return i * 64 + Long.numberOfTrailingZeros(palabras[i]);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    int llenar(int[] destino) {
+        int n = 0;
+        for (int i = 0; i < PALABRAS; i++) {
+            long palabra = palabras[i];
+            while (palabra != 0) {
+                destino[n++] = i * 64 + Long.numberOfTrailingZeros(palabra);
+                palabra &= palabra - 1;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    void orEn(long[] destino) {
+        for (int i = 0; i < PALABRAS; i++) {
+            destino[i] |= palabras[i];
+        }
+    }
+
+    @Override
+    ContenedorBitmap aBitmap() {
+        return this;
+    }
+
+    ContenedorArreglo aArreglo() {
+        char[] valores = new char[card];
+        int n = 0;
+        for (int i = 0; i < PALABRAS; i++) {
+            long palabra = palabras[i];
+            while (palabra != 0) {
+                valores[n++] = (char) (i * 64 + Long.numberOfTrailingZeros(palabra));
+                palabra &= palabra - 1;
+            }
+        }
+        return new ContenedorArreglo(valores, card);
+    }
+
+    @Override
+    Contenedor copia() {
+        return new ContenedorBitmap(palabras.clone(), card);
+    }
+
+    @Override
+    long bytesEstimados() {
+        return 16L + 16 + PALABRAS * 8L;
+    }
+}
+
+/**
+ * Secuencias de valores consecutivos guardadas como pares (inicio, largo - 1).
+ * Se crea con optimizarRuns(); para modificarlo se convierte primero
+ * a arreglo o bitmap
+ */
+class ContenedorRuns extends Contenedor {
+    private final char[] runs; // runs[2i] = inicio, runs[2i + 1] = largo - 1
+    private final int numRuns;
+    private final int card;
+
+    private ContenedorRuns(char[] runs, int numRuns, int card) {
+        this.runs = runs;
+        this.numRuns = numRuns;
+        this.card = card;
+    }
+
+    static ContenedorRuns desde(Contenedor c) {
+        int[] valores = new int[c.cardinalidad()];
+        int n = c.llenar(valores);
+        char[] runs = new char[8];
+        int numRuns = 0;
+        int i = 0;
+        while (i < n) {
+            int inicio = valores[i];
+            int fin = inicio;
+            while (i + 1 < n && valores[i + 1] == fin + 1) {
+                fin++;
+                i++;
+            }
+            i++;
+            if (2 * numRuns + 2 > runs.length) {
+                runs = Arrays.copyOf(runs, runs.length * 2);
+            }
+            runs[2 * numRuns] = (char) inicio;
+            runs[2 * numRuns + 1] = (char) (fin - inicio);
+            numRuns++;
+        }
+        return new ContenedorRuns(Arrays.copyOf(runs, 2 * numRuns), numRuns, n);
+    }
+
+    private int inicio(int i) {
+        return runs[2 * i];
+    }
+
+    private int fin(int i) {
+        return runs[2 * i] + runs[2 * i + 1];
+    }
+
+    /**
+     * Índice del último run cuyo inicio es <= baja, o -1
+     */
+    private int buscarRun(int baja) {
+        int bajo = 0;
+        int alto = numRuns - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicio(medio) <= baja) {
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return alto;
+    }
+
+    private Contenedor modificable() {
+        return card <= MAX_ARREGLO ? aBitmap().aArreglo() : aBitmap();
+    }
+
+    @Override
+    int cardinalidad() {
+        return card;
+    }
+
+    @Override
+    boolean contains(int baja) {
+        int i = buscarRun(baja);
+        return i >= 0 && baja <= fin(i);
+    }
+
+    @Override
+    Contenedor add(int baja) {
+        return contains(baja) ? this : modificable().add(baja);
+    }
+
+    @Override
+    Contenedor remove(int baja) {
+        return contains(baja) ? modificable().remove(baja) : this;
+    }
+
+    @Override
+    int rank(int baja) {
+        int total = 0;
+        for (int i = 0; i < numRuns && inicio(i) <= baja; i++) {
+            total += Math.min(fin(i), baja) - inicio(i) + 1;
+        }
+        return total;
+    }
+
+    @Override
+    int select(int j) {
+        for (int i = 0; i < numRuns; i++) {
+            int largo = fin(i) - inicio(i) + 1;
+            if (j < largo) {
+                return inicio(i) + j;
+            }
+            j -= largo;
+        }
+        throw new IndexOutOfBoundsException("Posición fuera de rango: " + j);
+    }
+
+    @Override
+    int floor(int baja) {
+        int i = buscarRun(baja);
+        return i < 0 ? -1 : Math.min(baja, fin(i));
+    }
+
+    @Override
+    int ceiling(int baja) {
+        int i = buscarRun(baja);
+        if (i >= 0 && baja <= fin(i)) {
+            return baja;
+        }
+        return i + 1 < numRuns ? inicio(i + 1) : -1;
+    }
+
+    @Override
+    int llenar(int[] destino) {
+        int n = 0;
+        for (int i = 0; i < numRuns; i++) {
+            for (int v = inicio(i); v <= fin(i); v++) {
+                destino[n++] = v;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    void orEn(long[] palabras) {
+        for (int i = 0; i < numRuns; i++) {
+            int desde = inicio(i);
+            int hasta = fin(i) + 1; // Exclusivo
+            int primera = desde >>> 6;
+            int ultima = (hasta - 1) >>> 6;
+            long mascaraInicio = -1L << desde;
+            long mascaraFin = -1L >>> (-hasta);
+            if (primera == ultima) {
+                palabras[primera] |= mascaraInicio & mascaraFin;
+            } else {
+                palabras[primera] |= mascaraInicio;
+                for (int w = primera + 1; w < ultima; w++) {
+                    palabras[w] = -1L;
+                }
+                palabras[ultima] |= mascaraFin;
+            }
+        }
+    }
+
+    @Override
+    ContenedorBitmap aBitmap() {
+        long[] palabras = new long[ContenedorBitmap.PALABRAS];
+        orEn(palabras);
+        return new ContenedorBitmap(palabras, card);
+    }
+
+    @Override
+    Contenedor copia() {
+        return this; // Inmutable: se puede compartir
+    }
+
+    @Override
+    long bytesEstimados() {
+        return 16L + 16 + runs.length * 2L;
+    }
+
+    @Override
+    Contenedor optimizar() {
+        return this;
+    }
+}
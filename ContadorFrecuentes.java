@@ -0,0 +1,365 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Palabras más frecuentes de un flujo sin guardar todas las palabras
+ *
+ * El contador de frecuencias de EjemploMap.aplicacionesPracticas() usa
+ * un HashMap<String, Integer> con una entrada por palabra distinta: con
+ * un flujo de logs sin fin crece para siempre, y además cuenta desde el
+ * principio cuando solo interesa lo reciente. Este contador combina:
+ * - Un sketch Count-Min: d filas de w contadores. Cada palabra suma 1 en
+ *   una columna por fila y su frecuencia estimada es el mínimo de esas d
+ *   columnas. Nunca subestima; sobreestima a lo sumo e/w del total con
+ *   probabilidad 1 - e^-d
+ * - Una ventana deslizante por épocas: hay un sketch por época y uno
+ *   con la suma de todos. Al cerrar una época se resta del total el
+ *   sketch más viejo y se reutiliza, así que lo que sale de la ventana
+ *   deja de contar
+ * - Un montículo de mínimos indexado con 4k candidatas: las palabras de
+ *   mayor estimación vistas hasta ahora. Si una palabra supera a la menor
+ *   del montículo, la reemplaza. Al cambiar de época se reestiman las
+ *   candidatas y salen las que quedaron en 0. Como el montículo guarda
+ *   más palabras que las k que se informan, las que estaban debajo del
+ *   top siguen ahí para ocupar los lugares que libera la época saliente
+ *   (la idea de Space-Saving), y los lugares vacíos se vuelven a llenar
+ *   con las palabras que llegan
+ *
+ * La memoria es fija: (épocas + 1) x d x w contadores más 4k entradas.
+ */
+public class ContadorFrecuentes {
+
+    static final int CANDIDATAS_POR_PALABRA = 4;
+
+    private final int k;
+    private final int profundidad;
+    private final int mascara;
+    private final int[][] epocas;    // Un sketch por época (d x w aplanado)
+    private final long[] eventosEpoca;
+    private final int[] total;       // Suma de los sketches de todas las épocas
+    private final long eventosPorEpoca;
+    private int actual;
+    private long eventosVentana;
+
+    // Montículo de mínimos por estimación, con la posición de cada palabra
+    private final int candidatas;
+    private final String[] palabras;
+    private final long[] conteos;
+    private final Map<String, Integer> posiciones;
+    private int tamaño;
+
+    /**
+     * @param k               cantidad de palabras frecuentes a mantener
+     * @param ancho           contadores por fila (potencia de dos)
+     * @param profundidad     filas del sketch
+     * @param numEpocas       épocas que forman la ventana
+     * @param eventosPorEpoca palabras por época; con 0 las épocas se
+     *                        cierran solo con avanzarEpoca() (por tiempo)
+     */
+    public ContadorFrecuentes(int k, int ancho, int profundidad, int numEpocas, long eventosPorEpoca) {
+        if (k <= 0 || profundidad <= 0 || numEpocas <= 0 || eventosPorEpoca < 0) {
+            throw new IllegalArgumentException("Parámetros inválidos");
+        }
+        if (Integer.bitCount(ancho) != 1) {
+            throw new IllegalArgumentException("El ancho debe ser potencia de dos: " + ancho);
+        }
+        this.k = k;
+        this.profundidad = profundidad;
+        this.mascara = ancho - 1;
+        this.epocas = new int[numEpocas][ancho * profundidad];
+        this.eventosEpoca = new long[numEpocas];
+        this.total = new int[ancho * profundidad];
+        this.eventosPorEpoca = eventosPorEpoca;
+        this.candidatas = (int) Math.min((long) k * CANDIDATAS_POR_PALABRA, Integer.MAX_VALUE - 8);
+        this.palabras = new String[candidatas];
+        this.conteos = new long[candidatas];
+        this.posiciones = new HashMap<>(2 * candidatas);
+    }
+
+    /**
+     * Top 100 sobre las últimas ~1M palabras en 8 épocas, con 4 filas
+     * de 16384 contadores (error menor a 0.02% de la ventana, 2.3 MB)
+     */
+    public ContadorFrecuentes() {
+        this(100, 1 << 14, 4, 8, 1 << 17);
+    }
+
+    public void agregar(String palabra) {
+        long hash = Hash64.hash(palabra);
+        long hash2 = segundoHash(hash);
+        int[] epoca = epocas[actual];
+        long estimacion = Long.MAX_VALUE;
+        for (int fila = 0; fila < profundidad; fila++) {
+            int celda = celda(hash, hash2, fila);
+            epoca[celda]++;
+            estimacion = Math.min(estimacion, ++total[celda]);
+        }
+        eventosEpoca[actual]++;
+        eventosVentana++;
+        actualizarMonticulo(palabra, estimacion);
+        if (eventosPorEpoca > 0 && eventosEpoca[actual] == eventosPorEpoca) {
+            avanzarEpoca();
+        }
+    }
+
+    /**
+     * Frecuencia estimada en la ventana (nunca menor que la real)
+     */
+    public long estimar(String palabra) {
+        return estimarHash(Hash64.hash(palabra));
+    }
+
+    /**
+     * Cierra la época actual: la más vieja sale de la ventana
+     */
+    public void avanzarEpoca() {
+        actual = (actual + 1) % epocas.length;
+        int[] saliente = epocas[actual];
+        for (int i = 0; i < total.length; i++) {
+            total[i] -= saliente[i];
+        }
+        Arrays.fill(saliente, 0);
+        eventosVentana -= eventosEpoca[actual];
+        eventosEpoca[actual] = 0;
+
+        // Las estimaciones del montículo bajaron: se recalculan y se rearma
+        int vivos = 0;
+        for (int i = 0; i < tamaño; i++) {
+            long estimacion = estimar(palabras[i]);
+            if (estimacion > 0) {
+                palabras[vivos] = palabras[i];
+                conteos[vivos++] = estimacion;
+            } else {
+                posiciones.remove(palabras[i]);
+            }
+        }
+        Arrays.fill(palabras, vivos, tamaño, null);
+        tamaño = vivos;
+        for (int i = tamaño / 2 - 1; i >= 0; i--) {
+            bajar(i);
+        }
+        for (int i = 0; i < tamaño; i++) {
+            posiciones.put(palabras[i], i);
+        }
+    }
+
+    /**
+     * Las k palabras más frecuentes de la ventana, de mayor a menor
+     */
+    public List<Map.Entry<String, Long>> masFrecuentes() {
+        List<Map.Entry<String, Long>> resultado = new ArrayList<>(tamaño);
+        for (int i = 0; i < tamaño; i++) {
+            resultado.add(Map.entry(palabras[i], conteos[i]));
+        }
+        resultado.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return new ArrayList<>(resultado.subList(0, Math.min(k, tamaño)));
+    }
+
+    public long eventosEnVentana() {
+        return eventosVentana;
+    }
+
+    /**
+     * Memoria de los contadores (sin contar las palabras del montículo)
+     */
+    public long bytesContadores() {
+        return (long) (epocas.length + 1) * total.length * Integer.BYTES;
+    }
+
+    /**
+     * Columna de la fila: doble hashing (h1 + fila * h2) con un solo
+     * recorrido de la palabra, en lugar de un hash con semilla por fila
+     */
+    private int celda(long hash, long hash2, int fila) {
+        return fila * (mascara + 1) + (int) ((hash + fila * hash2) & mascara);
+    }
+
+    private static long segundoHash(long hash) {
+        return Hash64.mezclar(hash) | 1;
+    }
+
+    private long estimarHash(long hash) {
+        long hash2 = segundoHash(hash);
+        long estimacion = Long.MAX_VALUE;
+        for (int fila = 0; fila < profundidad; fila++) {
+            estimacion = Math.min(estimacion, total[celda(hash, hash2, fila)]);
+        }
+        return estimacion;
+    }
+
+    private void actualizarMonticulo(String palabra, long estimacion) {
+        // Entre épocas las estimaciones solo suben: si no supera al menor
+        // del montículo, o no está en él o su conteo no cambió
+        if (tamaño == candidatas && estimacion <= conteos[0]) {
+            return;
+        }
+        Integer posicion = posiciones.get(palabra);
+        if (posicion != null) {
+            conteos[posicion] = estimacion;
+            bajar(posicion); // Su conteo solo puede haber subido
+        } else if (tamaño < candidatas) {
+            palabras[tamaño] = palabra;
+            conteos[tamaño] = estimacion;
+            posiciones.put(palabra, tamaño);
+            subir(tamaño++);
+        } else if (estimacion > conteos[0]) {
+            posiciones.remove(palabras[0]);
+            palabras[0] = palabra;
+            conteos[0] = estimacion;
+            posiciones.put(palabra, 0);
+            bajar(0);
+        }
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (conteos[padre] <= conteos[i]) {
+                return;
+            }
+            intercambiar(i, padre);
+            i = padre;
+        }
+    }
+
+    private void bajar(int i) {
+        while (true) {
+            int menor = i;
+            int izquierdo = 2 * i + 1;
+            if (izquierdo < tamaño && conteos[izquierdo] < conteos[menor]) {
+                menor = izquierdo;
+            }
+            if (izquierdo + 1 < tamaño && conteos[izquierdo + 1] < conteos[menor]) {
+                menor = izquierdo + 1;
+            }
+            if (menor == i) {
+                return;
+            }
+            intercambiar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void intercambiar(int i, int j) {
+        String palabra = palabras[i];
+        palabras[i] = palabras[j];
+        palabras[j] = palabra;
+        long conteo = conteos[i];
+        conteos[i] = conteos[j];
+        conteos[j] = conteo;
+        posiciones.put(palabras[i], i);
+        posiciones.put(palabras[j], j);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== CONTADOR DE FRECUENCIAS DE EjemploMap ===\n");
+        ContadorFrecuentes contador = new ContadorFrecuentes(3, 1 << 8, 4, 2, 0);
+        for (String palabra : "java es genial java es poderoso java es versátil".split(" ")) {
+            contador.agregar(palabra);
+        }
+        System.out.println("Top 3: " + contador.masFrecuentes());
+        contador.avanzarEpoca();
+        for (String palabra : "python es simple python es popular".split(" ")) {
+            contador.agregar(palabra);
+        }
+        System.out.println("Top 3 (dos épocas en la ventana): " + contador.masFrecuentes());
+        contador.avanzarEpoca();
+        System.out.println("Top 3 (solo queda la segunda época): " + contador.masFrecuentes());
+
+        System.out.println("\n=== FLUJO DE PALABRAS CONTRA HashMap<String, Integer> ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        comparacionExacto(n, 1_000_000);
+    }
+
+    /**
+     * n palabras con distribución de Zipf sobre un vocabulario grande. A
+     * la mitad del flujo cambian las palabras populares: el top-k de la
+     * ventana debe seguir a las nuevas, el conteo total no
+     */
+    public static void comparacionExacto(int n, int vocabulario) {
+        String[] palabras = new String[vocabulario];
+        for (int i = 0; i < vocabulario; i++) {
+            palabras[i] = "palabra" + i;
+        }
+        GeneradorClaves zipf = GeneradorClaves.zipf(vocabulario, 0.99);
+        SplittableRandom random = new SplittableRandom(43);
+        int[] flujo = new int[n];
+        for (int i = 0; i < n; i++) {
+            int desplazamiento = i < n / 2 ? 0 : vocabulario / 2;
+            flujo[i] = (zipf.siguiente(random) + desplazamiento) % vocabulario;
+        }
+
+        int k = 20;
+        long base = memoriaUsada();
+        ContadorFrecuentes contador = new ContadorFrecuentes(k, 1 << 14, 4, 8, 1 << 17);
+        long inicio = System.nanoTime();
+        for (int indice : flujo) {
+            contador.agregar(palabras[indice]);
+        }
+        long tiempoSketch = System.nanoTime() - inicio;
+        long bytesSketch = memoriaUsada() - base;
+
+        base = memoriaUsada();
+        HashMap<String, Integer> exacto = new HashMap<>();
+        inicio = System.nanoTime();
+        for (int indice : flujo) {
+            String palabra = palabras[indice];
+            exacto.put(palabra, exacto.getOrDefault(palabra, 0) + 1);
+        }
+        long tiempoExacto = System.nanoTime() - inicio;
+        long bytesExacto = memoriaUsada() - base;
+
+        // Conteo exacto de la misma ventana, solo para medir la precisión
+        HashMap<String, Integer> ventana = new HashMap<>();
+        for (int i = (int) (n - contador.eventosEnVentana()); i < n; i++) {
+            ventana.merge(palabras[flujo[i]], 1, Integer::sum);
+        }
+        List<Map.Entry<String, Integer>> topVentana = new ArrayList<>(ventana.entrySet());
+        topVentana.sort((a, b) -> b.getValue() - a.getValue());
+        List<Map.Entry<String, Integer>> topTotal = new ArrayList<>(exacto.entrySet());
+        topTotal.sort((a, b) -> b.getValue() - a.getValue());
+
+        List<Map.Entry<String, Long>> estimado = contador.masFrecuentes();
+        int aciertos = 0;
+        double errorRelativo = 0;
+        for (Map.Entry<String, Long> entrada : estimado) {
+            for (int i = 0; i < Math.min(k, topVentana.size()); i++) {
+                if (topVentana.get(i).getKey().equals(entrada.getKey())) {
+                    aciertos++;
+                }
+            }
+            int real = ventana.getOrDefault(entrada.getKey(), 0);
+            errorRelativo += (double) (entrada.getValue() - real) / Math.max(1, real);
+        }
+
+        System.out.println(n + " palabras, vocabulario de " + vocabulario + ", top " + k
+            + ", ventana de " + contador.eventosEnVentana() + " palabras");
+        System.out.printf("  %-30s %10s %10s%n", "", "Memoria", "Tiempo");
+        System.out.printf("  %-30s %7d KB %7d ms%n", "ContadorFrecuentes (ventana)", bytesSketch >> 10,
+            tiempoSketch / 1_000_000);
+        System.out.printf("  %-30s %7d KB %7d ms%n", "HashMap<String, Integer>", bytesExacto >> 10,
+            tiempoExacto / 1_000_000);
+        System.out.println("  Palabras distintas en el HashMap: " + exacto.size());
+        System.out.println("  Top " + k + " de la ventana encontrado: " + aciertos + "/"
+            + Math.min(k, topVentana.size()));
+        if (estimado.isEmpty()) {
+            return; // Flujo vacío
+        }
+        System.out.printf("  Sobreestimación media del top: %.2f%%%n", errorRelativo / estimado.size() * 100);
+        System.out.println("  Más frecuente (ventana, estimado): " + estimado.get(0));
+        System.out.println("  Más frecuente (ventana, exacto):   " + topVentana.get(0));
+        System.out.println("  Más frecuente (HashMap, desde el inicio): " + topTotal.get(0));
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
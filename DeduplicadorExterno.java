@@ -0,0 +1,508 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ordenamiento externo con eliminación de duplicados
+ *
+ * "Eliminar duplicados" en EjemploSet carga todo el arreglo en un
+ * HashSet<Integer>. Con archivos de miles de millones de registros eso
+ * no entra en memoria. Este deduplicador trabaja en dos fases:
+ * 1. Lee la entrada por bloques que caben en el presupuesto de memoria,
+ *    ordena cada bloque en paralelo (un tramo por hilo) y lo escribe a
+ *    disco como una "corrida" ordenada y sin repetidos
+ * 2. Fusiona las corridas con un montículo (PriorityQueue) que siempre
+ *    entrega el menor valor pendiente, y descarta los iguales al último
+ *    escrito. Si hay más corridas que buffers en memoria, se fusionan
+ *    por grupos en varias pasadas
+ *
+ * Los registros son long en binario (8 bytes, big-endian) y toda la E/S
+ * pasa por FileChannel con buffers directos.
+ */
+public class DeduplicadorExterno {
+
+    private static final int BYTES_REGISTRO = Long.BYTES;
+    private static final int TAMANIO_BUFFER = 1 << 16; // 64 KB por archivo abierto
+
+    private final Path dirTemporal;
+    private final long memoriaBytes;
+    private final int paralelismo;
+
+    /**
+     * @param dirTemporal carpeta donde se escriben las corridas intermedias
+     * @param memoriaBytes memoria para el bloque en ordenamiento y los buffers de fusión
+     * @param paralelismo hilos que ordenan cada bloque
+     */
+    public DeduplicadorExterno(Path dirTemporal, long memoriaBytes, int paralelismo) {
+        if (memoriaBytes < BYTES_REGISTRO) {
+            throw new IllegalArgumentException("Memoria insuficiente: " + memoriaBytes + " bytes");
+        }
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1: " + paralelismo);
+        }
+        this.dirTemporal = dirTemporal;
+        this.memoriaBytes = memoriaBytes;
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Ordena la entrada y escribe en la salida cada valor una sola vez
+     */
+    public ResultadoDeduplicacion ordenarSinDuplicados(Path entrada, Path salida)
+            throws IOException, InterruptedException {
+        long tamanio = Files.size(entrada);
+        if (tamanio % BYTES_REGISTRO != 0) {
+            throw new IOException("El archivo no contiene registros de " + BYTES_REGISTRO + " bytes: " + entrada);
+        }
+        long inicio = System.nanoTime();
+        List<Path> corridas = new ArrayList<>();
+        List<Path> temporales = new ArrayList<>(); // Todo lo creado, para borrarlo aunque algo falle
+        ExecutorService pool = Executors.newFixedThreadPool(paralelismo);
+        try {
+            // Fase 1: bloques ordenados en paralelo
+            int registrosPorBloque = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.max(1, (memoriaBytes - 2L * TAMANIO_BUFFER) / BYTES_REGISTRO));
+            long[] bloque = new long[(int) Math.min(registrosPorBloque, tamanio / BYTES_REGISTRO)];
+            try (LectorRegistros lector = new LectorRegistros(entrada)) {
+                int n;
+                while ((n = lector.leer(bloque)) > 0) {
+                    int[] limites = ordenarPorTramos(pool, bloque, n);
+                    Path corrida = Files.createTempFile(dirTemporal, "corrida", ".bin");
+                    temporales.add(corrida);
+                    corridas.add(corrida);
+                    List<FuenteOrdenada> tramos = new ArrayList<>();
+                    for (int t = 0; t + 1 < limites.length; t++) {
+                        tramos.add(new TramoOrdenado(bloque, limites[t], limites[t + 1]));
+                    }
+                    try (EscritorRegistros escritor = new EscritorRegistros(corrida)) {
+                        fusionar(tramos, escritor);
+                    }
+                }
+            }
+            bloque = null;
+
+            // Fase 2: fusión de corridas, en varias pasadas si no caben todas
+            int aridad = (int) Math.max(2, Math.min(corridas.size(), memoriaBytes / TAMANIO_BUFFER - 1));
+            int pasadas = 0;
+            while (corridas.size() > aridad) {
+                List<Path> siguientes = new ArrayList<>();
+                for (int i = 0; i < corridas.size(); i += aridad) {
+                    List<Path> grupo = corridas.subList(i, Math.min(corridas.size(), i + aridad));
+                    Path fusionada = Files.createTempFile(dirTemporal, "corrida", ".bin");
+                    temporales.add(fusionada);
+                    siguientes.add(fusionada);
+                    fusionarArchivos(grupo, fusionada);
+                    for (Path usada : grupo) {
+                        Files.deleteIfExists(usada); // Libera disco durante la pasada
+                    }
+                }
+                corridas = siguientes;
+                pasadas++;
+            }
+            long escritos = fusionarArchivos(corridas, salida);
+            pasadas++;
+            return new ResultadoDeduplicacion(tamanio / BYTES_REGISTRO, escritos, corridas.size(), pasadas,
+                System.nanoTime() - inicio);
+        } finally {
+            pool.shutdown();
+            for (Path temporal : temporales) {
+                Files.deleteIfExists(temporal);
+            }
+        }
+    }
+
+    /**
+     * Ordena los primeros n valores del bloque en "paralelismo" tramos
+     * independientes. Retorna los límites de los tramos
+     */
+    private int[] ordenarPorTramos(ExecutorService pool, long[] bloque, int n) throws InterruptedException {
+        int tramos = Math.max(1, Math.min(paralelismo, n / 1024));
+        int[] limites = new int[tramos + 1];
+        for (int t = 0; t <= tramos; t++) {
+            limites[t] = (int) ((long) n * t / tramos);
+        }
+        List<Future<?>> pendientes = new ArrayList<>();
+        for (int t = 0; t < tramos; t++) {
+            int desde = limites[t];
+            int hasta = limites[t + 1];
+            pendientes.add(pool.submit(() -> Arrays.sort(bloque, desde, hasta)));
+        }
+        try {
+            for (Future<?> pendiente : pendientes) {
+                pendiente.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló el ordenamiento de un tramo", e.getCause());
+        }
+        return limites;
+    }
+
+    /**
+     * Fusiona las corridas en el destino y las borra. Retorna los registros escritos
+     */
+    private long fusionarArchivos(List<Path> corridas, Path destino) throws IOException {
+        List<FuenteOrdenada> lectores = new ArrayList<>();
+        Throwable principal = null;
+        try (EscritorRegistros escritor = new EscritorRegistros(destino)) {
+            for (Path corrida : corridas) {
+                lectores.add(new LectorRegistros(corrida));
+            }
+            return fusionar(lectores, escritor);
+        } catch (Throwable e) {
+            principal = e;
+            throw e;
+        } finally {
+            IOException cierre = cerrar(lectores, principal);
+            for (Path corrida : corridas) {
+                Files.deleteIfExists(corrida);
+            }
+            if (cierre != null && principal == null) {
+                throw cierre;
+            }
+        }
+    }
+
+    /**
+     * Cierra todos los lectores aunque alguno falle. Cada error se agrega
+     * como suprimido a la excepción principal o, si no la hay, al primer
+     * error de cierre, que se retorna
+     */
+    private static IOException cerrar(List<FuenteOrdenada> lectores, Throwable principal) {
+        IOException primero = null;
+        for (FuenteOrdenada lector : lectores) {
+            try {
+                ((LectorRegistros) lector).close();
+            } catch (IOException e) {
+                if (principal != null) {
+                    principal.addSuppressed(e);
+                } else if (primero == null) {
+                    primero = e;
+                } else {
+                    primero.addSuppressed(e);
+                }
+            }
+        }
+        return primero;
+    }
+
+    /**
+     * Fusión de k fuentes ordenadas con un montículo, sin repetidos.
+     * Retorna la cantidad de registros escritos
+     */
+    private static long fusionar(List<FuenteOrdenada> fuentes, EscritorRegistros escritor) throws IOException {
+        PriorityQueue<FuenteOrdenada> monticulo = new PriorityQueue<>(Math.max(1, fuentes.size()),
+            (a, b) -> Long.compare(a.actual(), b.actual()));
+        for (FuenteOrdenada fuente : fuentes) {
+            if (fuente.avanzar()) {
+                monticulo.offer(fuente);
+            }
+        }
+        long escritos = 0;
+        long ultimo = 0;
+        while (!monticulo.isEmpty()) {
+            FuenteOrdenada menor = monticulo.poll();
+            long valor = menor.actual();
+            if (escritos == 0 || valor != ultimo) {
+                escritor.escribir(valor);
+                ultimo = valor;
+                escritos++;
+            }
+            if (menor.avanzar()) {
+                monticulo.offer(menor);
+            }
+        }
+        return escritos;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.out.println("=== ELIMINAR DUPLICADOS FUERA DE MEMORIA ===\n");
+        ejemploEliminarDuplicados();
+
+        System.out.println("\n=== ARCHIVO GRANDE ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long memoria = (args.length > 1 ? Long.parseLong(args[1]) : 16) << 20;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        archivoGrande(n, memoria, hilos);
+    }
+
+    /**
+     * El arreglo de EjemploSet.aplicacionesPracticas(), con una memoria
+     * tan chica que obliga a usar varias corridas y pasadas
+     */
+    public static void ejemploEliminarDuplicados() throws IOException, InterruptedException {
+        long[] conDuplicados = {1, 2, 3, 2, 4, 1, 5, 3, 6, 4};
+        Path entrada = Files.createTempFile("con-duplicados", ".bin");
+        Path salida = Files.createTempFile("sin-duplicados", ".bin");
+        try {
+            escribirArchivo(entrada, conDuplicados);
+            // 3 registros por bloque: 4 corridas fusionadas de a 2
+            DeduplicadorExterno deduplicador = new DeduplicadorExterno(entrada.getParent(),
+                2L * TAMANIO_BUFFER + 3 * BYTES_REGISTRO, 2);
+            ResultadoDeduplicacion resultado = deduplicador.ordenarSinDuplicados(entrada, salida);
+            System.out.println("Array original: " + Arrays.toString(conDuplicados));
+            System.out.println("Sin duplicados y ordenado: " + Arrays.toString(leerArchivo(salida)));
+            System.out.println(resultado);
+        } finally {
+            Files.deleteIfExists(entrada);
+            Files.deleteIfExists(salida);
+        }
+    }
+
+    /**
+     * Deduplica un archivo de n registros con muchos repetidos y verifica
+     * el resultado contra un BitSet de los valores presentes
+     */
+    public static void archivoGrande(int n, long memoria, int hilos) throws IOException, InterruptedException {
+        Path entrada = Files.createTempFile("registros", ".bin");
+        Path salida = Files.createTempFile("registros-unicos", ".bin");
+        try {
+            int rango = Math.max(1, n / 2);
+            BitSet presentes = new BitSet(rango);
+            Random random = new Random(11);
+            try (EscritorRegistros escritor = new EscritorRegistros(entrada)) {
+                for (int i = 0; i < n; i++) {
+                    int valor = random.nextInt(rango);
+                    presentes.set(valor);
+                    escritor.escribir(valor);
+                }
+            }
+            System.out.println("Registros: " + n + " (" + Files.size(entrada) / (1 << 20) + " MB), memoria: "
+                + memoria / (1 << 20) + " MB, hilos: " + hilos);
+
+            DeduplicadorExterno deduplicador = new DeduplicadorExterno(entrada.getParent(), memoria, hilos);
+            ResultadoDeduplicacion resultado = deduplicador.ordenarSinDuplicados(entrada, salida);
+            System.out.println(resultado);
+
+            // Verificación: estrictamente creciente y con los mismos valores
+            boolean correcto = resultado.escritos() == presentes.cardinality();
+            try (LectorRegistros lector = new LectorRegistros(salida)) {
+                long anterior = -1;
+                while (correcto && lector.avanzar()) {
+                    long valor = lector.actual();
+                    correcto = valor > anterior && presentes.get((int) valor);
+                    anterior = valor;
+                }
+            }
+            System.out.println("¿Ordenado, sin repetidos y completo? " + correcto);
+        } finally {
+            Files.deleteIfExists(entrada);
+            Files.deleteIfExists(salida);
+        }
+    }
+
+    private static void escribirArchivo(Path archivo, long[] valores) throws IOException {
+        try (EscritorRegistros escritor = new EscritorRegistros(archivo)) {
+            for (long valor : valores) {
+                escritor.escribir(valor);
+            }
+        }
+    }
+
+    private static long[] leerArchivo(Path archivo) throws IOException {
+        long[] valores = new long[(int) (Files.size(archivo) / BYTES_REGISTRO)];
+        try (LectorRegistros lector = new LectorRegistros(archivo)) {
+            lector.leer(valores);
+        }
+        return valores;
+    }
+}
+
+/**
+ * Secuencia ordenada que se consume de a un valor
+ */
+interface FuenteOrdenada {
+
+    /**
+     * Pasa al siguiente valor. Retorna false si no quedan
+     */
+    boolean avanzar() throws IOException;
+
+    long actual();
+}
+
+/**
+ * Tramo ordenado de un arreglo en memoria
+ */
+class TramoOrdenado implements FuenteOrdenada {
+    private final long[] datos;
+    private int posicion;
+    private final int hasta;
+
+    TramoOrdenado(long[] datos, int desde, int hasta) {
+        this.datos = datos;
+        this.posicion = desde - 1;
+        this.hasta = hasta;
+    }
+
+    @Override
+    public boolean avanzar() {
+        return ++posicion < hasta;
+    }
+
+    @Override
+    public long actual() {
+        return datos[posicion];
+    }
+}
+
+/**
+ * Lector secuencial de registros long con un buffer directo
+ */
+class LectorRegistros implements FuenteOrdenada, Closeable {
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private boolean finArchivo;
+    private long actual;
+
+    LectorRegistros(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        buffer = ByteBuffer.allocateDirect(1 << 16);
+        buffer.flip(); // Empieza vacío
+    }
+
+    @Override
+    public boolean avanzar() throws IOException {
+        if (buffer.remaining() < Long.BYTES && !rellenar()) {
+            return false;
+        }
+        actual = buffer.getLong();
+        return true;
+    }
+
+    @Override
+    public long actual() {
+        return actual;
+    }
+
+    /**
+     * Llena el arreglo con los siguientes registros. Retorna cuántos leyó
+     */
+    int leer(long[] destino) throws IOException {
+        int n = 0;
+        while (n < destino.length) {
+            if (buffer.remaining() < Long.BYTES && !rellenar()) {
+                break;
+            }
+            int disponibles = Math.min(destino.length - n, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().get(destino, n, disponibles);
+            buffer.position(buffer.position() + disponibles * Long.BYTES);
+            n += disponibles;
+        }
+        return n;
+    }
+
+    private boolean rellenar() throws IOException {
+        buffer.compact();
+        while (!finArchivo && buffer.position() < Long.BYTES) {
+            if (canal.read(buffer) < 0) {
+                finArchivo = true;
+            }
+        }
+        // Mientras haya espacio se sigue leyendo para aprovechar el buffer
+        while (!finArchivo && buffer.hasRemaining()) {
+            int leidos = canal.read(buffer);
+            if (leidos < 0) {
+                finArchivo = true;
+            } else if (leidos == 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= Long.BYTES;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
+
+/**
+ * Escritor secuencial de registros long con un buffer directo
+ */
+class EscritorRegistros implements Closeable {
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+
+    EscritorRegistros(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        buffer = ByteBuffer.allocateDirect(1 << 16);
+    }
+
+    void escribir(long valor) throws IOException {
+        if (buffer.remaining() < Long.BYTES) {
+            vaciar();
+        }
+        buffer.putLong(valor);
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            vaciar();
+        } finally {
+            canal.close();
+        }
+    }
+}
+
+/**
+ * Resumen de una ejecución del deduplicador
+ */
+class ResultadoDeduplicacion {
+    private final long leidos;
+    private final long escritos;
+    private final int corridasFinales;
+    private final int pasadas;
+    private final long nanos;
+
+    ResultadoDeduplicacion(long leidos, long escritos, int corridasFinales, int pasadas, long nanos) {
+        this.leidos = leidos;
+        this.escritos = escritos;
+        this.corridasFinales = corridasFinales;
+        this.pasadas = pasadas;
+        this.nanos = nanos;
+    }
+
+    public long leidos() {
+        return leidos;
+    }
+
+    public long escritos() {
+        return escritos;
+    }
+
+    public double registrosPorSegundo() {
+        return leidos * 1e9 / Math.max(1, nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Leídos: %d, únicos: %d, pasadas de fusión: %d (última de %d corridas), "
+            + "%d ms, %.0f registros/s", leidos, escritos, pasadas, corridasFinales, nanos / 1_000_000,
+            registrosPorSegundo());
+    }
+}
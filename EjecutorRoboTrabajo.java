@@ -0,0 +1,593 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mini ejecutor fork-join basado en robo de trabajo (work stealing)
+ *
+ * En EjemploQueue vimos que un ArrayDeque sirve como pila (LIFO) y como
+ * cola (FIFO). El robo de trabajo usa exactamente esa idea:
+ * - Cada hilo trabajador tiene su propio deque (DequeRoboTrabajo)
+ * - El dueño agrega y saca tareas por abajo como una PILA (LIFO):
+ *   trabaja primero en lo más reciente, que está "caliente" en caché
+ * - Los hilos desocupados roban por arriba como una COLA (FIFO):
+ *   se llevan las tareas más antiguas, que suelen ser las más grandes
+ */
+public class EjecutorRoboTrabajo {
+
+    private final Trabajador[] trabajadores;
+    private final ConcurrentLinkedQueue<TareaRecursiva<?>> colaExterna = new ConcurrentLinkedQueue<>();
+    private volatile boolean activo = true;
+
+    public EjecutorRoboTrabajo(int hilos) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + hilos);
+        }
+        trabajadores = new Trabajador[hilos];
+        for (int i = 0; i < hilos; i++) {
+            trabajadores[i] = new Trabajador(this, i);
+        }
+        for (Trabajador trabajador : trabajadores) {
+            trabajador.start();
+        }
+    }
+
+    /**
+     * Ejecuta la tarea en el pool y espera su resultado
+     */
+    public <V> V invocar(TareaRecursiva<V> tarea) {
+        if (!activo) {
+            throw new IllegalStateException("El ejecutor está detenido");
+        }
+        colaExterna.offer(tarea);
+        despertarTodos();
+        while (!tarea.terminada()) {
+            LockSupport.parkNanos(50_000);
+        }
+        return tarea.resultado();
+    }
+
+    public void detener() {
+        activo = false;
+        despertarTodos();
+        for (Trabajador trabajador : trabajadores) {
+            try {
+                trabajador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public int hilos() {
+        return trabajadores.length;
+    }
+
+    /**
+     * Total de tareas robadas a otros trabajadores (para observar el balanceo)
+     */
+    public long totalRobos() {
+        long total = 0;
+        for (Trabajador trabajador : trabajadores) {
+            total += trabajador.robos;
+        }
+        return total;
+    }
+
+    void despertarTodos() {
+        for (Trabajador trabajador : trabajadores) {
+            LockSupport.unpark(trabajador);
+        }
+    }
+
+    /**
+     * Busca una tarea para el trabajador indicado:
+     * primero intenta robar a otro trabajador y luego la cola externa
+     */
+    TareaRecursiva<?> buscarTarea(Trabajador ladron) {
+        int n = trabajadores.length;
+        int inicio = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            Trabajador victima = trabajadores[(inicio + i) % n];
+            if (victima == ladron) {
+                continue;
+            }
+            TareaRecursiva<?> robada = victima.deque.steal();
+            if (robada != null) {
+                ladron.robos++;
+                return robada;
+            }
+        }
+        return colaExterna.poll();
+    }
+
+    boolean estaActivo() {
+        return activo;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== DEQUE DE ROBO DE TRABAJO ===\n");
+        ejemploDeque();
+
+        System.out.println("\n=== COMPARACIÓN DE RENDIMIENTO ===\n");
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        comparacionRendimiento(hilos);
+    }
+
+    /**
+     * Muestra que el dueño trabaja como pila y el ladrón como cola
+     */
+    public static void ejemploDeque() {
+        DequeRoboTrabajo<String> deque = new DequeRoboTrabajo<>();
+        deque.push("Tarea 1");
+        deque.push("Tarea 2");
+        deque.push("Tarea 3");
+        deque.push("Tarea 4");
+        System.out.println("Tareas en el deque: " + deque.size());
+
+        // El dueño saca la más reciente (LIFO)
+        System.out.println("Dueño hace pop(): " + deque.pop());
+        // Un ladrón se lleva la más antigua (FIFO)
+        System.out.println("Ladrón hace steal(): " + deque.steal());
+        System.out.println("Dueño hace pop(): " + deque.pop());
+        System.out.println("Ladrón hace steal(): " + deque.steal());
+        System.out.println("¿Vacío? " + (deque.size() == 0) + ", pop() en vacío: " + deque.pop());
+    }
+
+    /**
+     * Compara este ejecutor contra ForkJoinPool y un ThreadPoolExecutor
+     * con una única cola compartida, en dos cargas divide y vencerás:
+     * Fibonacci recursivo y suma de un arreglo grande
+     */
+    public static void comparacionRendimiento(int hilos) throws Exception {
+        int n = 32;
+        int umbralFib = 15;
+        long[] datos = new long[20_000_000];
+        for (int i = 0; i < datos.length; i++) {
+            datos[i] = i % 1000;
+        }
+        int umbralSuma = 10_000;
+        System.out.println("Hilos: " + hilos + ", fib(" + n + "), suma de " + datos.length + " elementos");
+
+        EjecutorRoboTrabajo ejecutor = new EjecutorRoboTrabajo(hilos);
+        ForkJoinPool forkJoin = new ForkJoinPool(hilos);
+        ThreadPoolExecutor compartido = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>());
+        try {
+            // Calentamiento para que el JIT compile las rutas principales
+            for (int i = 0; i < 3; i++) {
+                ejecutor.invocar(new FibonacciTarea(n - 4, umbralFib));
+                forkJoin.invoke(new FibonacciForkJoin(n - 4, umbralFib));
+                ejecutor.invocar(new SumaTarea(datos, 0, datos.length, umbralSuma));
+                forkJoin.invoke(new SumaForkJoin(datos, 0, datos.length, umbralSuma));
+                sumaCompartida(compartido, datos, umbralSuma);
+            }
+
+            System.out.println("\nFibonacci recursivo:");
+            long inicio = System.nanoTime();
+            long fibPropio = ejecutor.invocar(new FibonacciTarea(n, umbralFib));
+            long tiempoPropio = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long fibForkJoin = forkJoin.invoke(new FibonacciForkJoin(n, umbralFib));
+            long tiempoForkJoin = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long fibCompartido = fibonacciCompartido(compartido, n, umbralFib);
+            long tiempoCompartido = System.nanoTime() - inicio;
+
+            imprimirFila("EjecutorRoboTrabajo", tiempoPropio, fibPropio);
+            imprimirFila("ForkJoinPool", tiempoForkJoin, fibForkJoin);
+            imprimirFila("ThreadPoolExecutor", tiempoCompartido, fibCompartido);
+
+            System.out.println("\nSuma divide y vencerás:");
+            inicio = System.nanoTime();
+            long sumaPropia = ejecutor.invocar(new SumaTarea(datos, 0, datos.length, umbralSuma));
+            tiempoPropio = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long sumaForkJoin = forkJoin.invoke(new SumaForkJoin(datos, 0, datos.length, umbralSuma));
+            tiempoForkJoin = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long sumaCompartida = sumaCompartida(compartido, datos, umbralSuma);
+            tiempoCompartido = System.nanoTime() - inicio;
+
+            imprimirFila("EjecutorRoboTrabajo", tiempoPropio, sumaPropia);
+            imprimirFila("ForkJoinPool", tiempoForkJoin, sumaForkJoin);
+            imprimirFila("ThreadPoolExecutor", tiempoCompartido, sumaCompartida);
+
+            System.out.println("\nTareas robadas entre trabajadores: " + ejecutor.totalRobos());
+        } finally {
+            ejecutor.detener();
+            forkJoin.shutdown();
+            compartido.shutdown();
+        }
+    }
+
+    private static void imprimirFila(String nombre, long nanos, long resultado) {
+        System.out.printf("  %-20s %9.2f ms (resultado: %d)%n", nombre, nanos / 1_000_000.0, resultado);
+    }
+
+    /**
+     * Con una cola compartida no se puede esperar dentro de una tarea a sus
+     * subtareas sin arriesgar un bloqueo mutuo, así que el árbol se expande
+     * desde el hilo que llama y solo las hojas se envían a la cola
+     */
+    private static long fibonacciCompartido(ThreadPoolExecutor pool, int n, int umbral)
+            throws InterruptedException, ExecutionException {
+        List<Future<Long>> hojas = new ArrayList<>();
+        expandirFibonacci(pool, n, umbral, hojas);
+        long total = 0;
+        for (Future<Long> hoja : hojas) {
+            total += hoja.get();
+        }
+        return total;
+    }
+
+    private static void expandirFibonacci(ThreadPoolExecutor pool, int n, int umbral, List<Future<Long>> hojas) {
+        if (n <= umbral) {
+            hojas.add(pool.submit(() -> FibonacciTarea.secuencial(n)));
+        } else {
+            expandirFibonacci(pool, n - 1, umbral, hojas);
+            expandirFibonacci(pool, n - 2, umbral, hojas);
+        }
+    }
+
+    private static long sumaCompartida(ThreadPoolExecutor pool, long[] datos, int umbral)
+            throws InterruptedException, ExecutionException {
+        List<Future<Long>> hojas = new ArrayList<>();
+        for (int desde = 0; desde < datos.length; desde += umbral) {
+            int inicio = desde;
+            int fin = Math.min(datos.length, desde + umbral);
+            hojas.add(pool.submit(() -> SumaTarea.secuencial(datos, inicio, fin)));
+        }
+        long total = 0;
+        for (Future<Long> hoja : hojas) {
+            total += hoja.get();
+        }
+        return total;
+    }
+}
+
+/**
+ * Deque de Chase-Lev sin bloqueos
+ *
+ * - push() y pop() solo los llama el hilo dueño, por abajo (LIFO)
+ * - steal() lo puede llamar cualquier hilo, por arriba (FIFO)
+ * - El único punto de contención es el último elemento, que se
+ *   resuelve con un compareAndSet sobre "arriba"
+ */
+class DequeRoboTrabajo<E> {
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final AtomicLong arriba = new AtomicLong();
+    private volatile long abajo;
+    private volatile AtomicReferenceArray<E> elementos = new AtomicReferenceArray<>(CAPACIDAD_INICIAL);
+
+    /**
+     * Agrega una tarea por abajo. Solo lo llama el dueño
+     */
+    public void push(E elemento) {
+        long b = abajo;
+        long t = arriba.get();
+        AtomicReferenceArray<E> arreglo = elementos;
+        if (b - t >= arreglo.length() - 1) {
+            arreglo = crecer(arreglo, t, b);
+        }
+        arreglo.set((int) (b & (arreglo.length() - 1)), elemento);
+        abajo = b + 1; // Escritura volatile: publica el elemento a los ladrones
+    }
+
+    /**
+     * Saca la tarea más reciente. Solo lo llama el dueño.
+     * Retorna null si el deque está vacío o si un ladrón ganó el último elemento
+     */
+    public E pop() {
+        long b = abajo - 1;
+        AtomicReferenceArray<E> arreglo = elementos;
+        abajo = b; // Reservar el elemento antes de leer "arriba"
+        long t = arriba.get();
+        if (t > b) {
+            // Estaba vacío
+            abajo = b + 1;
+            return null;
+        }
+        E elemento = arreglo.get((int) (b & (arreglo.length() - 1)));
+        if (t == b) {
+            // Último elemento: competir con los ladrones
+            if (!arriba.compareAndSet(t, t + 1)) {
+                elemento = null;
+            }
+            abajo = b + 1;
+        }
+        return elemento;
+    }
+
+    /**
+     * Roba la tarea más antigua. Lo puede llamar cualquier hilo.
+     * Retorna null si el deque está vacío o si perdió la carrera con otro hilo
+     */
+    public E steal() {
+        long t = arriba.get();
+        long b = abajo;
+        if (t >= b) {
+            return null;
+        }
+        AtomicReferenceArray<E> arreglo = elementos;
+        E elemento = arreglo.get((int) (t & (arreglo.length() - 1)));
+        if (!arriba.compareAndSet(t, t + 1)) {
+            return null;
+        }
+        return elemento;
+    }
+
+    public long size() {
+        return Math.max(0, abajo - arriba.get());
+    }
+
+    /**
+     * Duplica la capacidad. Los ladrones que aún lean el arreglo viejo
+     * ven los mismos elementos, porque el arreglo viejo no se modifica
+     */
+    private AtomicReferenceArray<E> crecer(AtomicReferenceArray<E> viejo, long t, long b) {
+        AtomicReferenceArray<E> nuevo = new AtomicReferenceArray<>(viejo.length() * 2);
+        for (long i = t; i < b; i++) {
+            nuevo.set((int) (i & (nuevo.length() - 1)), viejo.get((int) (i & (viejo.length() - 1))));
+        }
+        elementos = nuevo;
+        return nuevo;
+    }
+}
+
+/**
+ * Hilo trabajador: ejecuta sus propias tareas (LIFO) y, cuando no tiene,
+ * roba a los demás o toma trabajo de la cola externa
+ */
+class Trabajador extends Thread {
+    final EjecutorRoboTrabajo ejecutor;
+    final DequeRoboTrabajo<TareaRecursiva<?>> deque = new DequeRoboTrabajo<>();
+    long robos; // Solo lo escribe este hilo
+
+    Trabajador(EjecutorRoboTrabajo ejecutor, int indice) {
+        super("robo-trabajo-" + indice);
+        this.ejecutor = ejecutor;
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        int intentosFallidos = 0;
+        while (ejecutor.estaActivo()) {
+            TareaRecursiva<?> tarea = deque.pop();
+            if (tarea == null) {
+                tarea = ejecutor.buscarTarea(this);
+            }
+            if (tarea != null) {
+                tarea.ejecutar();
+                intentosFallidos = 0;
+            } else if (++intentosFallidos < 64) {
+                Thread.onSpinWait();
+            } else {
+                // Sin trabajo: dormir un poco para no consumir CPU
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    }
+}
+
+/**
+ * Tarea divide y vencerás para EjecutorRoboTrabajo
+ * (equivalente simplificado de RecursiveTask)
+ */
+abstract class TareaRecursiva<V> {
+    private volatile boolean terminada;
+    private V resultado;
+    private Throwable error;
+
+    /**
+     * Cálculo de la tarea. Puede llamar fork() y join() sobre subtareas
+     */
+    protected abstract V calcular();
+
+    /**
+     * Envía la tarea al deque del trabajador actual para que se
+     * ejecute después o para que otro hilo la robe
+     */
+    public final TareaRecursiva<V> fork() {
+        Thread actual = Thread.currentThread();
+        if (!(actual instanceof Trabajador)) {
+            throw new IllegalStateException("fork() solo puede llamarse desde un trabajador");
+        }
+        Trabajador trabajador = (Trabajador) actual;
+        trabajador.deque.push(this);
+        return this;
+    }
+
+    /**
+     * Espera el resultado. Mientras tanto, el trabajador ejecuta otras
+     * tareas (propias o robadas) en lugar de quedarse bloqueado
+     */
+    public final V join() {
+        Thread actual = Thread.currentThread();
+        if (!(actual instanceof Trabajador)) {
+            throw new IllegalStateException("join() solo puede llamarse desde un trabajador; afuera se usa invocar()");
+        }
+        Trabajador trabajador = (Trabajador) actual;
+        while (!terminada) {
+            TareaRecursiva<?> otra = trabajador.deque.pop();
+            if (otra == null) {
+                otra = trabajador.ejecutor.buscarTarea(trabajador);
+            }
+            if (otra != null) {
+                otra.ejecutar();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return resultado();
+    }
+
+    /**
+     * Nunca lanza: si calcular() falla, la excepción se guarda y se
+     * relanza en join() o invocar(), como en ForkJoinTask. Así el
+     * trabajador sigue vivo y quien espera no se queda bloqueado
+     */
+    final void ejecutar() {
+        try {
+            resultado = calcular();
+        } catch (Throwable e) {
+            error = e;
+        }
+        terminada = true; // Escritura volatile: publica el resultado o el error
+    }
+
+    final boolean terminada() {
+        return terminada;
+    }
+
+    final V resultado() {
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+        return resultado;
+    }
+}
+
+/**
+ * Fibonacci recursivo: muchas tareas pequeñas y desbalanceadas
+ */
+class FibonacciTarea extends TareaRecursiva<Long> {
+    private final int n;
+    private final int umbral;
+
+    FibonacciTarea(int n, int umbral) {
+        this.n = n;
+        this.umbral = umbral;
+    }
+
+    @Override
+    protected Long calcular() {
+        if (n <= umbral) {
+            return secuencial(n);
+        }
+        FibonacciTarea izquierda = new FibonacciTarea(n - 1, umbral);
+        izquierda.fork();
+        long derecha = new FibonacciTarea(n - 2, umbral).calcular();
+        return izquierda.join() + derecha;
+    }
+
+    static long secuencial(int n) {
+        return n < 2 ? n : secuencial(n - 1) + secuencial(n - 2);
+    }
+}
+
+/**
+ * Suma de un rango del arreglo dividiéndolo a la mitad
+ */
+class SumaTarea extends TareaRecursiva<Long> {
+    private final long[] datos;
+    private final int desde;
+    private final int hasta;
+    private final int umbral;
+
+    SumaTarea(long[] datos, int desde, int hasta, int umbral) {
+        this.datos = datos;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.umbral = umbral;
+    }
+
+    @Override
+    protected Long calcular() {
+        if (hasta - desde <= umbral) {
+            return secuencial(datos, desde, hasta);
+        }
+        int medio = (desde + hasta) >>> 1;
+        SumaTarea izquierda = new SumaTarea(datos, desde, medio, umbral);
+        izquierda.fork();
+        long derecha = new SumaTarea(datos, medio, hasta, umbral).calcular();
+        return izquierda.join() + derecha;
+    }
+
+    static long secuencial(long[] datos, int desde, int hasta) {
+        long suma = 0;
+        for (int i = desde; i < hasta; i++) {
+            suma += datos[i];
+        }
+        return suma;
+    }
+}
+
+/**
+ * Misma carga que FibonacciTarea, pero para ForkJoinPool
+ */
+class FibonacciForkJoin extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final int n;
+    private final int umbral;
+
+    FibonacciForkJoin(int n, int umbral) {
+        this.n = n;
+        this.umbral = umbral;
+    }
+
+    @Override
+    protected Long compute() {
+        if (n <= umbral) {
+            return FibonacciTarea.secuencial(n);
+        }
+        FibonacciForkJoin izquierda = new FibonacciForkJoin(n - 1, umbral);
+        izquierda.fork();
+        long derecha = new FibonacciForkJoin(n - 2, umbral).compute();
+        return izquierda.join() + derecha;
+    }
+}
+
+/**
+ * Misma carga que SumaTarea, pero para ForkJoinPool
+ */
+class SumaForkJoin extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final long[] datos;
+    private final int desde;
+    private final int hasta;
+    private final int umbral;
+
+    SumaForkJoin(long[] datos, int desde, int hasta, int umbral) {
+        this.datos = datos;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.umbral = umbral;
+    }
+
+    @Override
+    protected Long compute() {
+        if (hasta - desde <= umbral) {
+            return SumaTarea.secuencial(datos, desde, hasta);
+        }
+        int medio = (desde + hasta) >>> 1;
+        SumaForkJoin izquierda = new SumaForkJoin(datos, desde, medio, umbral);
+        izquierda.fork();
+        long derecha = new SumaForkJoin(datos, medio, hasta, umbral).compute();
+        return izquierda.join() + derecha;
+    }
+}
@@ -1,6 +1,8 @@
+import java.lang.ref.Reference;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Arrays;
 
 /**
  * Ejemplo de uso de List: ArrayList y LinkedList
@@ -18,6 +20,12 @@ public class EjemploList {
         
         System.out.println("\n=== COMPARACIÓN DE RENDIMIENTO ===\n");
         comparacionRendimiento();
+        
+        // Con --metricas se repite el escenario con colecciones instrumentadas
+        if (Arrays.asList(args).contains("--metricas")) {
+            System.out.println("\n=== MÉTRICAS DE LAS COLECCIONES ===\n");
+            metricas();
+        }
     }
     
     /**
@@ -206,4 +214,31 @@ public class EjemploList {
         System.out.println("- Usa ArrayList para acceso frecuente por índice");
         System.out.println("- Usa LinkedList para inserciones/eliminaciones frecuentes al inicio/medio");
     }
+    
+    /**
+     * La comparación de rendimiento, vista desde adentro: copias al crecer,
+     * bytes desplazados al insertar al inicio y nodos recorridos por get()
+     */
+    public static void metricas() {
+        List<Integer> arrayList = ColeccionesInstrumentadas.lista("arrayList", new ArrayList<>());
+        List<Integer> linkedList = ColeccionesInstrumentadas.lista("linkedList", new LinkedList<>());
+        for (int i = 0; i < 50000; i++) {
+            arrayList.add(i);
+            linkedList.add(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            arrayList.get(i * 10);
+            linkedList.get(i * 10);
+        }
+        for (int i = 0; i < 1000; i++) {
+            arrayList.add(0, i);
+            linkedList.add(0, i);
+        }
+        ColeccionesInstrumentadas.imprimirResumen();
+        System.out.println("\nJSON: " + ColeccionesInstrumentadas.instantaneaJson());
+        // Las métricas se registran con referencias débiles: los decoradores deben vivir hasta aquí
+        Reference.reachabilityFence(arrayList);
+        Reference.reachabilityFence(linkedList);
+        ColeccionesInstrumentadas.reiniciar();
+    }
 }
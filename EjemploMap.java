@@ -1,6 +1,8 @@
+import java.lang.ref.Reference;
 import java.util.HashMap;
 import java.util.TreeMap;
 import java.util.Map;
+import java.util.Arrays;
 
 /**
  * Ejemplo de uso de Map: HashMap y TreeMap
@@ -20,6 +22,12 @@ public class EjemploMap {
         
         System.out.println("\n=== APLICACIONES PRÁCTICAS ===\n");
         aplicacionesPracticas();
+        
+        // Con --metricas se repite el escenario con colecciones instrumentadas
+        if (Arrays.asList(args).contains("--metricas")) {
+            System.out.println("\n=== MÉTRICAS DE LAS COLECCIONES ===\n");
+            metricas();
+        }
     }
     
     /**
@@ -275,24 +283,24 @@ public class EjemploMap {
         }
         return resultado;
     }
-}
-
-/**
- * Clase auxiliar para representar un producto
- */
-class Producto {
-    String nombre;
-    double precio;
-    int cantidad;
-    
-    public Producto(String nombre, double precio, int cantidad) {
-        this.nombre = nombre;
-        this.precio = precio;
-        this.cantidad = cantidad;
-    }
     
-    @Override
-    public String toString() {
-        return nombre + " - $" + precio + " (Stock: " + cantidad + ")";
+    /**
+     * El contador de frecuencias con un texto más largo: redimensiones
+     * del HashMap y largo de las cadenas de colisión
+     */
+    public static void metricas() {
+        Map<String, Integer> frecuencias = ColeccionesInstrumentadas.mapa("frecuencias", new HashMap<>());
+        Map<String, Integer> ordenadas = ColeccionesInstrumentadas.mapa("ordenadas", new TreeMap<>());
+        for (int i = 0; i < 100000; i++) {
+            String palabra = "palabra" + (i % 5000);
+            frecuencias.put(palabra, frecuencias.getOrDefault(palabra, 0) + 1);
+            ordenadas.put(palabra, ordenadas.getOrDefault(palabra, 0) + 1);
+        }
+        ColeccionesInstrumentadas.imprimirResumen();
+        System.out.println("\nJSON: " + ColeccionesInstrumentadas.instantaneaJson());
+        // Las métricas se registran con referencias débiles: los decoradores deben vivir hasta aquí
+        Reference.reachabilityFence(frecuencias);
+        Reference.reachabilityFence(ordenadas);
+        ColeccionesInstrumentadas.reiniciar();
     }
 }
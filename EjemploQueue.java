@@ -1,9 +1,11 @@
+import java.lang.ref.Reference;
 import java.util.LinkedList;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Deque;
 import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Arrays;
 
 /**
  * Ejemplo de uso de Queue/Deque: LinkedList, ArrayDeque y PriorityQueue
@@ -27,6 +29,12 @@ public class EjemploQueue {
         
         System.out.println("\n=== APLICACIONES PRÁCTICAS ===\n");
         aplicacionesPracticas();
+        
+        // Con --metricas se repite el escenario con colecciones instrumentadas
+        if (Arrays.asList(args).contains("--metricas")) {
+            System.out.println("\n=== MÉTRICAS DE LAS COLECCIONES ===\n");
+            metricas();
+        }
     }
     
     /**
@@ -246,6 +254,15 @@ public class EjemploQueue {
         historial.pop(); // stackoverflow.com
         System.out.println("  Página actual: " + historial.peek());
         
+        // Con HistorialNavegacion también hay botón adelante y memoria acotada
+        HistorialNavegacion navegador = new HistorialNavegacion(new PoolUrls(), 10);
+        navegador.visitar("google.com");
+        navegador.visitar("github.com");
+        navegador.visitar("stackoverflow.com");
+        System.out.println("\nCon botones atrás y adelante:");
+        System.out.println("  Atrás -> " + navegador.atras());
+        System.out.println("  Adelante -> " + navegador.adelante());
+
         // 4. Sistema de prioridades de tareas
         System.out.println("\n4. Gestión de tareas con prioridad:");
         PriorityQueue<Tarea> sistemaTareas = new PriorityQueue<>();
@@ -299,74 +316,27 @@ public class EjemploQueue {
             }
         }
     }
-}
-
-/**
- * Clase auxiliar para representar una tarea con prioridad
- * Implementa Comparable para que PriorityQueue pueda ordenar
- */
-class Tarea implements Comparable<Tarea> {
-    String descripcion;
-    int prioridad; // Número mayor = mayor prioridad
-    
-    public Tarea(String descripcion, int prioridad) {
-        this.descripcion = descripcion;
-        this.prioridad = prioridad;
-    }
-    
-    @Override
-    public int compareTo(Tarea otra) {
-        // Orden descendente: mayor prioridad primero
-        return Integer.compare(otra.prioridad, this.prioridad);
-    }
-    
-    @Override
-    public String toString() {
-        return "[Prioridad " + prioridad + "] " + descripcion;
-    }
-}
-
-/**
- * Clase auxiliar para representar un cliente
- */
-class Cliente {
-    String nombre;
-    String motivo;
-    
-    public Cliente(String nombre, String motivo) {
-        this.nombre = nombre;
-        this.motivo = motivo;
-    }
     
-    @Override
-    public String toString() {
-        return nombre + " (" + motivo + ")";
-    }
-}
-
-/**
- * Clase auxiliar para representar un paciente
- * Implementa Comparable para ordenar por urgencia
- */
-class Paciente implements Comparable<Paciente> {
-    String nombre;
-    String condicion;
-    int urgencia; // 1-5, donde 5 es más urgente
-    
-    public Paciente(String nombre, String condicion, int urgencia) {
-        this.nombre = nombre;
-        this.condicion = condicion;
-        this.urgencia = urgencia;
-    }
-    
-    @Override
-    public int compareTo(Paciente otro) {
-        // Orden descendente: mayor urgencia primero
-        return Integer.compare(otro.urgencia, this.urgencia);
-    }
-    
-    @Override
-    public String toString() {
-        return "[Urgencia " + urgencia + "] " + nombre + " - " + condicion;
+    /**
+     * La sala de emergencias y la fila de atención con más pacientes:
+     * niveles que recorre el PriorityQueue y crecimiento del ArrayDeque
+     */
+    public static void metricas() {
+        Queue<Paciente> emergencias = ColeccionesInstrumentadas.colaPrioridad("emergencias");
+        Queue<Cliente> atencion = ColeccionesInstrumentadas.cola("atencion", new ArrayDeque<>());
+        for (int i = 0; i < 10000; i++) {
+            emergencias.offer(new Paciente("Paciente " + i, "Consulta", 1 + i % 5));
+            atencion.offer(new Cliente("Cliente " + i, "Trámite"));
+        }
+        while (!emergencias.isEmpty()) {
+            emergencias.poll();
+            atencion.poll();
+        }
+        ColeccionesInstrumentadas.imprimirResumen();
+        System.out.println("\nJSON: " + ColeccionesInstrumentadas.instantaneaJson());
+        // Las métricas se registran con referencias débiles: los decoradores deben vivir hasta aquí
+        Reference.reachabilityFence(emergencias);
+        Reference.reachabilityFence(atencion);
+        ColeccionesInstrumentadas.reiniciar();
     }
 }
@@ -1,3 +1,4 @@
+import java.lang.ref.Reference;
 import java.util.HashSet;
 import java.util.TreeSet;
 import java.util.Set;
@@ -20,6 +21,12 @@ public class EjemploSet {
         
         System.out.println("\n=== APLICACIONES PRÁCTICAS ===\n");
         aplicacionesPracticas();
+        
+        // Con --metricas se repite el escenario con colecciones instrumentadas
+        if (Arrays.asList(args).contains("--metricas")) {
+            System.out.println("\n=== MÉTRICAS DE LAS COLECCIONES ===\n");
+            metricas();
+        }
     }
     
     /**
@@ -203,6 +210,7 @@ public class EjemploSet {
         ranking.add(new Estudiante("Carlos", 88));
         ranking.add(new Estudiante("Beatriz", 92));
         ranking.add(new Estudiante("Daniel", 85));
+        ranking.add(new Estudiante("Elena", 92)); // Misma calificación que Beatriz
         
         System.out.println("Ranking de estudiantes (ordenado por calificación):");
         int posicion = 1;
@@ -211,30 +219,35 @@ public class EjemploSet {
             System.out.println(posicion + ". " + est);
             posicion++;
         }
-    }
-}
-
-/**
- * Clase auxiliar para el ejemplo de ranking
- * Implementa Comparable para que TreeSet pueda ordenar
- */
-class Estudiante implements Comparable<Estudiante> {
-    private String nombre;
-    private int calificacion;
-    
-    public Estudiante(String nombre, int calificacion) {
-        this.nombre = nombre;
-        this.calificacion = calificacion;
-    }
-    
-    @Override
-    public int compareTo(Estudiante otro) {
-        // Ordenar por calificación (menor a mayor)
-        return Integer.compare(this.calificacion, otro.calificacion);
+        
+        // Con TablaClasificacion la posición se obtiene en O(log n)
+        // sin recorrer el ranking
+        TablaClasificacion<String> tabla = new TablaClasificacion<>();
+        for (Estudiante est : ranking) {
+            tabla.actualizar(est.getNombre(), est.getCalificacion());
+        }
+        System.out.println("Posición de Elena (TablaClasificacion): " + tabla.posicion("Elena"));
     }
     
-    @Override
-    public String toString() {
-        return nombre + " - " + calificacion + " puntos";
+    /**
+     * El registro de emails y el ranking con más datos: redimensiones
+     * del HashSet y colisiones de los hashCode() de String
+     */
+    public static void metricas() {
+        Set<String> emails = ColeccionesInstrumentadas.conjunto("emails", new HashSet<>());
+        Set<Estudiante> ranking = ColeccionesInstrumentadas.conjunto("ranking", new TreeSet<>());
+        for (int i = 0; i < 50000; i++) {
+            emails.add("usuario" + (i % 40000) + "@email.com");
+            ranking.add(new Estudiante("Estudiante " + i, i % 101));
+        }
+        for (int i = 0; i < 10000; i++) {
+            emails.contains("usuario" + i + "@email.com");
+        }
+        ColeccionesInstrumentadas.imprimirResumen();
+        System.out.println("\nJSON: " + ColeccionesInstrumentadas.instantaneaJson());
+        // Las métricas se registran con referencias débiles: los decoradores deben vivir hasta aquí
+        Reference.reachabilityFence(emails);
+        Reference.reachabilityFence(ranking);
+        ColeccionesInstrumentadas.reiniciar();
     }
 }
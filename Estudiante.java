@@ -0,0 +1,35 @@
+/**
+ * Clase auxiliar para el ejemplo de ranking
+ * Implementa Comparable para que TreeSet pueda ordenar
+ */
+class Estudiante implements Comparable<Estudiante> {
+    private String nombre;
+    private int calificacion;
+    
+    public Estudiante(String nombre, int calificacion) {
+        this.nombre = nombre;
+        this.calificacion = calificacion;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public int getCalificacion() {
+        return calificacion;
+    }
+    
+    @Override
+    public int compareTo(Estudiante otro) {
+        // Ordenar por calificación (menor a mayor)
+        int porCalificacion = Integer.compare(this.calificacion, otro.calificacion);
+        // Desempatar por nombre: si compareTo() retorna 0, el TreeSet
+        // considera duplicados a dos estudiantes con la misma calificación
+        return porCalificacion != 0 ? porCalificacion : this.nombre.compareTo(otro.nombre);
+    }
+    
+    @Override
+    public String toString() {
+        return nombre + " - " + calificacion + " puntos";
+    }
+}
@@ -0,0 +1,358 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+
+/**
+ * Filtro de Bloom por bloques para descartar rápido los emails nuevos
+ *
+ * En EjemploSet el registro de emails usa un HashSet<String> que debe
+ * guardar TODOS los emails. Un filtro de Bloom responde con pocos bits
+ * por email a la pregunta "¿ya existe?":
+ * - "No" es seguro: el email es nuevo (no hay falsos negativos)
+ * - "Quizás" puede ser un falso positivo: hay que confirmar en el
+ *   almacén exacto, que es más lento
+ *
+ * Cada email cae en un solo bloque de 512 bits (64 bytes, una línea de
+ * caché) y todas sus k posiciones están dentro de ese bloque, así que
+ * una consulta lee una sola línea de caché.
+ */
+public class FiltroBloom {
+
+    private static final int MAGIC = 0x424C4F4D; // "BLOM"
+    private static final int VERSION = 1;
+    private static final int PALABRAS_POR_BLOQUE = 8; // 8 x 64 bits = 512 bits
+    private static final int MAX_FUNCIONES_HASH = 16;
+    private static final int BYTES_CABECERA = 24;
+
+    private final long[] bits;
+    private final int numBloques;
+    private final int k;
+    private long elementos;
+
+    private FiltroBloom(long[] bits, int k, long elementos) {
+        this.bits = bits;
+        this.numBloques = bits.length / PALABRAS_POR_BLOQUE;
+        this.k = k;
+        this.elementos = elementos;
+    }
+
+    /**
+     * Crea un filtro para la cantidad esperada de elementos
+     * y la tasa de falsos positivos deseada (por ejemplo 0.01 = 1%)
+     */
+    public static FiltroBloom crear(long elementosEsperados, double tasaFalsosPositivos) {
+        if (elementosEsperados <= 0 || tasaFalsosPositivos <= 0 || tasaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Parámetros inválidos: " + elementosEsperados
+                + " elementos, tasa " + tasaFalsosPositivos);
+        }
+        // Fórmulas clásicas; los bloques concentran los bits, así que se agrega un 20% extra
+        double ln2 = Math.log(2);
+        double bitsPorElemento = -Math.log(tasaFalsosPositivos) / (ln2 * ln2) * 1.2;
+        int k = Math.max(1, Math.min(MAX_FUNCIONES_HASH, (int) Math.round(bitsPorElemento / 1.2 * ln2)));
+        long totalBits = (long) Math.ceil(elementosEsperados * bitsPorElemento);
+        long bloques = Math.max(1, (totalBits + 511) / 512);
+        if (bloques * PALABRAS_POR_BLOQUE > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Filtro demasiado grande: " + bloques + " bloques");
+        }
+        return new FiltroBloom(new long[(int) bloques * PALABRAS_POR_BLOQUE], k, 0);
+    }
+
+    public void agregar(CharSequence elemento) {
+        long h = Hash64.hash(elemento);
+        int base = bloque(h) * PALABRAS_POR_BLOQUE;
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < k; i++) {
+            int bit = (h1 + i * h2) & 511;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+        elementos++;
+    }
+
+    /**
+     * false: el elemento seguro NO fue agregado.
+     * true: probablemente fue agregado (puede ser falso positivo)
+     */
+    public boolean podriaContener(CharSequence elemento) {
+        long h = Hash64.hash(elemento);
+        int base = bloque(h) * PALABRAS_POR_BLOQUE;
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < k; i++) {
+            int bit = (h1 + i * h2) & 511;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tasa de falsos positivos estimada a partir de la fracción de bits
+     * encendidos: (bits en 1 / bits totales) ^ k
+     */
+    public double tasaFalsosPositivosEstimada() {
+        long unos = 0;
+        for (long palabra : bits) {
+            unos += Long.bitCount(palabra);
+        }
+        return Math.pow((double) unos / (bits.length * 64L), k);
+    }
+
+    public long elementos() {
+        return elementos;
+    }
+
+    public long bytes() {
+        return bits.length * 8L;
+    }
+
+    public int funcionesHash() {
+        return k;
+    }
+
+    /**
+     * Guarda el filtro en un archivo binario:
+     * MAGIC, VERSION, k, número de palabras, elementos y las palabras
+     */
+    public void guardar(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(BYTES_CABECERA);
+            cabecera.putInt(MAGIC).putInt(VERSION).putInt(k).putInt(bits.length).putLong(elementos);
+            cabecera.flip();
+            escribirTodo(canal, cabecera);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            for (long palabra : bits) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    escribirTodo(canal, buffer);
+                    buffer.clear();
+                }
+                buffer.putLong(palabra);
+            }
+            buffer.flip();
+            escribirTodo(canal, buffer);
+        }
+    }
+
+    /**
+     * Carga un filtro guardado con guardar(). El archivo se mapea en
+     * memoria y las palabras se copian en bloque, sin procesar elemento por elemento
+     */
+    public static FiltroBloom cargar(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() < BYTES_CABECERA) {
+                throw new IOException("Archivo demasiado corto para un FiltroBloom: " + archivo);
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (mapa.getInt() != MAGIC) {
+                throw new IOException("El archivo no es un FiltroBloom: " + archivo);
+            }
+            int version = mapa.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versión no soportada: " + version);
+            }
+            int k = mapa.getInt();
+            int palabras = mapa.getInt();
+            long elementos = mapa.getLong();
+            // Se valida contra el tamaño real antes de reservar el arreglo
+            if (k < 1 || k > MAX_FUNCIONES_HASH) {
+                throw new IOException("Cantidad de funciones hash inválida: " + k);
+            }
+            if (palabras <= 0 || palabras % PALABRAS_POR_BLOQUE != 0
+                    || BYTES_CABECERA + (long) palabras * Long.BYTES != canal.size()) {
+                throw new IOException("El número de palabras (" + palabras + ") no coincide con el tamaño del archivo ("
+                    + canal.size() + " bytes)");
+            }
+            if (elementos < 0) {
+                throw new IOException("Cantidad de elementos inválida: " + elementos);
+            }
+            long[] bits = new long[palabras];
+            mapa.asLongBuffer().get(bits);
+            return new FiltroBloom(bits, k, elementos);
+        }
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    /**
+     * Elige el bloque con los 32 bits altos del hash (multiplicar y
+     * desplazar es más rápido que el operador %)
+     */
+    private int bloque(long h) {
+        return (int) (((h >>> 32) * numBloques) >>> 32);
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== REGISTRO DE EMAILS CON FILTRO DE BLOOM ===\n");
+        ejemploRegistro();
+
+        System.out.println("\n=== REGISTRO MASIVO ===\n");
+        int existentes = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int nuevos = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        registroMasivo(existentes, nuevos);
+    }
+
+    /**
+     * El mismo ejemplo de EjemploSet.aplicacionesPracticas()
+     */
+    public static void ejemploRegistro() {
+        RegistroEmails registro = new RegistroEmails(FiltroBloom.crear(1000, 0.01), new AlmacenEmailsEnMemoria());
+        String[] intentosRegistro = {
+            "juan@email.com",
+            "maria@email.com",
+            "juan@email.com", // Duplicado
+            "pedro@email.com",
+            "maria@email.com"  // Duplicado
+        };
+        for (String email : intentosRegistro) {
+            if (registro.registrar(email)) {
+                System.out.println("✓ Email registrado: " + email);
+            } else {
+                System.out.println("✗ Email ya existe: " + email);
+            }
+        }
+        System.out.println(registro.estadisticas());
+    }
+
+    /**
+     * Simula una ráfaga de registros contra muchos emails existentes y
+     * mide cuántas consultas al almacén exacto evita el filtro
+     */
+    public static void registroMasivo(int existentes, int nuevos) throws IOException {
+        FiltroBloom filtro = FiltroBloom.crear(existentes + (long) nuevos, 0.01);
+        AlmacenEmailsEnMemoria almacen = new AlmacenEmailsEnMemoria();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < existentes; i++) {
+            String email = "usuario" + i + "@email.com";
+            almacen.agregar(email);
+            filtro.agregar(email);
+        }
+        System.out.println("Carga inicial de " + existentes + " emails: "
+            + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+        System.out.println("Filtro: " + filtro.bytes() / 1024 + " KB, k = " + filtro.funcionesHash()
+            + ", " + String.format("%.1f", filtro.bytes() * 8.0 / existentes) + " bits por email");
+
+        // Guardar y volver a cargar, como al reiniciar el servicio
+        Path archivo = Files.createTempFile("filtro-emails", ".bloom");
+        try {
+            inicio = System.nanoTime();
+            filtro.guardar(archivo);
+            long tiempoGuardar = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            filtro = FiltroBloom.cargar(archivo);
+            long tiempoCargar = System.nanoTime() - inicio;
+            System.out.println("Guardar: " + tiempoGuardar / 1_000_000 + " ms, cargar: "
+                + tiempoCargar / 1_000_000 + " ms (" + Files.size(archivo) / 1024 + " KB)");
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+
+        RegistroEmails registro = new RegistroEmails(filtro, almacen);
+        inicio = System.nanoTime();
+        int registrados = 0;
+        for (int i = 0; i < nuevos; i++) {
+            // Uno de cada diez intentos es un email que ya existe
+            String email = i % 10 == 0
+                ? "usuario" + (i * 7L % existentes) + "@email.com"
+                : "nuevo" + i + "@email.com";
+            if (registro.registrar(email)) {
+                registrados++;
+            }
+        }
+        long tiempo = System.nanoTime() - inicio;
+        System.out.println("\nRáfaga de " + nuevos + " intentos en " + tiempo / 1_000_000 + " ms ("
+            + registrados + " registrados)");
+        System.out.println(registro.estadisticas());
+    }
+}
+
+/**
+ * Almacén exacto de emails: la fuente de verdad, más lenta que el filtro
+ * (en producción sería una base de datos o un servicio remoto)
+ */
+interface AlmacenEmails {
+    boolean contiene(String email);
+
+    void agregar(String email);
+}
+
+/**
+ * Almacén exacto en memoria, equivalente al HashSet de EjemploSet
+ */
+class AlmacenEmailsEnMemoria implements AlmacenEmails {
+    private final HashSet<String> emails = new HashSet<>();
+
+    @Override
+    public boolean contiene(String email) {
+        return emails.contains(email);
+    }
+
+    @Override
+    public void agregar(String email) {
+        emails.add(email);
+    }
+}
+
+/**
+ * Registro de emails con el filtro de Bloom delante del almacén exacto
+ */
+class RegistroEmails {
+    private final FiltroBloom filtro;
+    private final AlmacenEmails almacen;
+    private long rutaRapida;        // Respondidos solo con el filtro
+    private long consultasAlmacen;  // El filtro dijo "quizás"
+    private long falsosPositivos;   // "Quizás" pero el email era nuevo
+
+    RegistroEmails(FiltroBloom filtro, AlmacenEmails almacen) {
+        this.filtro = filtro;
+        this.almacen = almacen;
+    }
+
+    /**
+     * Registra el email. Retorna false si ya existía
+     */
+    public boolean registrar(String email) {
+        if (!filtro.podriaContener(email)) {
+            // Seguro es nuevo: no hace falta consultar el almacén
+            rutaRapida++;
+            almacen.agregar(email);
+            filtro.agregar(email);
+            return true;
+        }
+        consultasAlmacen++;
+        if (almacen.contiene(email)) {
+            return false;
+        }
+        falsosPositivos++;
+        almacen.agregar(email);
+        filtro.agregar(email);
+        return true;
+    }
+
+    /**
+     * Tasa de falsos positivos observada entre los emails que eran nuevos
+     */
+    public double tasaFalsosPositivosObservada() {
+        long nuevos = rutaRapida + falsosPositivos;
+        return nuevos == 0 ? 0 : (double) falsosPositivos / nuevos;
+    }
+
+    public String estadisticas() {
+        return String.format("Ruta rápida: %d, consultas al almacén: %d, falsos positivos: %d%n"
+                + "Tasa de falsos positivos observada: %.3f%%, estimada por el filtro: %.3f%%",
+            rutaRapida, consultasAlmacen, falsosPositivos,
+            tasaFalsosPositivosObservada() * 100, filtro.tasaFalsosPositivosEstimada() * 100);
+    }
+}
@@ -0,0 +1,531 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Generador de carga para los escenarios de los Ejemplo*
+ *
+ * Los ejemplos usan 5 clientes, 4 estudiantes o n = 50000 fijos. Aquí
+ * cada escenario se corre con parámetros:
+ * - Tamaño n de la colección (se llena antes de medir)
+ * - Distribución de claves: uniforme o Zipf (unas pocas claves reciben
+ *   casi todo el tráfico, como en un inventario real)
+ * - Proporción de lecturas y escrituras
+ * - Cantidad de hilos. Las colecciones de los ejemplos no son
+ *   thread-safe, así que se comparten con un ReentrantReadWriteLock:
+ *   las lecturas van en paralelo y las escrituras de a una
+ *
+ * Cada hilo mide la latencia de cada operación en su propio
+ * HistogramaLatencia; al final se combinan. El resultado es una fila CSV
+ * por corrida (throughput y percentiles), y dos archivos CSV se pueden
+ * comparar para detectar regresiones.
+ *
+ * Uso:
+ *   java GeneradorCarga [--escenario inventario,agenda] [--n 100000,1000000]
+ *       [--distribucion uniforme,zipf:0.99] [--lecturas 0.5,0.9] [--hilos 1,4]
+ *       [--segundos 2] [--csv resultados.csv]
+ *   Las opciones con listas se combinan todas entre sí; --segundos es
+ *   la duración de cada corrida
+ *   java GeneradorCarga --comparar base.csv nueva.csv [--tolerancia 0.1]
+ */
+public class GeneradorCarga {
+
+    static final String ENCABEZADO_CSV =
+        "escenario,n,distribucion,lecturas,hilos,operaciones,ops_por_segundo,p50_ns,p90_ns,p99_ns,p999_ns,max_ns";
+
+    private static final double CALENTAMIENTO = 0.5; // Fracción de la duración, antes de medir
+
+    private GeneradorCarga() {
+    }
+
+    /**
+     * Prepara el escenario, lo calienta y lo mide durante los segundos indicados
+     */
+    public static ResultadoCarga ejecutar(EscenarioCarga escenario, int n, GeneradorClaves claves,
+            double lecturas, int hilos, double segundos) throws InterruptedException {
+        if (lecturas < 0 || lecturas > 1) {
+            throw new IllegalArgumentException("La proporción de lecturas debe estar entre 0 y 1: " + lecturas);
+        }
+        EstadoCarga estado = escenario.preparar(n);
+        HiloCarga[] trabajadores = new HiloCarga[hilos];
+        for (int i = 0; i < hilos; i++) {
+            trabajadores[i] = new HiloCarga(estado, claves, lecturas, 0x5EED + i);
+            trabajadores[i].start();
+        }
+        Thread.sleep((long) (segundos * CALENTAMIENTO * 1000));
+        for (HiloCarga trabajador : trabajadores) {
+            trabajador.midiendo = true;
+        }
+        long inicio = System.nanoTime();
+        Thread.sleep((long) (segundos * 1000));
+        for (HiloCarga trabajador : trabajadores) {
+            trabajador.detenido = true;
+        }
+        long duracion = System.nanoTime() - inicio;
+
+        HistogramaLatencia latencias = new HistogramaLatencia();
+        long operaciones = 0;
+        for (HiloCarga trabajador : trabajadores) {
+            trabajador.join();
+            latencias.combinar(trabajador.latencias);
+            operaciones += trabajador.operaciones;
+        }
+        return new ResultadoCarga(escenario.nombre, n, claves.descripcion(), lecturas, hilos, operaciones,
+            operaciones * 1e9 / duracion, latencias.percentil(50), latencias.percentil(90),
+            latencias.percentil(99), latencias.percentil(99.9), latencias.maximo());
+    }
+
+    /**
+     * Compara dos archivos CSV corrida por corrida. Es regresión si el
+     * throughput baja o el p99 sube más que la tolerancia (0.1 = 10%).
+     * Retorna la cantidad de regresiones
+     */
+    public static int comparar(Path base, Path nueva, double tolerancia, PrintStream salida) throws IOException {
+        Map<String, ResultadoCarga> anteriores = new LinkedHashMap<>();
+        for (ResultadoCarga resultado : leerCsv(base)) {
+            anteriores.put(resultado.clave(), resultado);
+        }
+        int regresiones = 0;
+        for (ResultadoCarga actual : leerCsv(nueva)) {
+            ResultadoCarga anterior = anteriores.get(actual.clave());
+            if (anterior == null) {
+                salida.println(actual.clave() + ": sin corrida base");
+                continue;
+            }
+            double cambioThroughput = actual.opsPorSegundo / anterior.opsPorSegundo - 1;
+            double cambioP99 = (double) actual.p99 / Math.max(1, anterior.p99) - 1;
+            boolean regresion = cambioThroughput < -tolerancia || cambioP99 > tolerancia;
+            if (regresion) {
+                regresiones++;
+            }
+            salida.printf(Locale.ROOT, "%-45s ops/s %,.0f -> %,.0f (%+.1f%%)  p99 %s -> %s (%+.1f%%)%s%n",
+                actual.clave(), anterior.opsPorSegundo, actual.opsPorSegundo, cambioThroughput * 100,
+                HistogramaLatencia.formatear(anterior.p99), HistogramaLatencia.formatear(actual.p99),
+                cambioP99 * 100, regresion ? "  REGRESIÓN" : "");
+        }
+        return regresiones;
+    }
+
+    static List<ResultadoCarga> leerCsv(Path archivo) throws IOException {
+        List<ResultadoCarga> resultados = new ArrayList<>();
+        for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+            if (!linea.isBlank() && !linea.equals(ENCABEZADO_CSV)) {
+                resultados.add(ResultadoCarga.desdeCsv(linea));
+            }
+        }
+        return resultados;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> opciones = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--comparar")) {
+                if (i + 2 >= args.length) {
+                    throw new IllegalArgumentException("--comparar necesita dos archivos CSV");
+                }
+                opciones.put("base", args[++i]);
+                opciones.put("nueva", args[++i]);
+            } else if (args[i].startsWith("--") && i + 1 < args.length) {
+                opciones.put(args[i].substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Opción no reconocida: " + args[i]);
+            }
+        }
+
+        if (opciones.containsKey("base")) {
+            double tolerancia = Double.parseDouble(opciones.getOrDefault("tolerancia", "0.1"));
+            int regresiones = comparar(Paths.get(opciones.get("base")), Paths.get(opciones.get("nueva")),
+                tolerancia, System.out);
+            System.out.println(regresiones == 0 ? "Sin regresiones" : "Regresiones: " + regresiones);
+            if (regresiones > 0) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        List<EscenarioCarga> escenarios = new ArrayList<>();
+        for (String nombre : opciones.getOrDefault("escenario", "todos").split(",")) {
+            escenarios.addAll(EscenarioCarga.buscar(nombre));
+        }
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        String hilosPorDefecto = procesadores > 1 ? "1," + procesadores : "1";
+        double segundos = Double.parseDouble(opciones.getOrDefault("segundos", "1"));
+
+        List<String> filas = new ArrayList<>();
+        filas.add(ENCABEZADO_CSV);
+        System.out.println(ENCABEZADO_CSV);
+        for (String tamaño : opciones.getOrDefault("n", "100000").split(",")) {
+            int n = Integer.parseInt(tamaño);
+            for (String distribucion : opciones.getOrDefault("distribucion", "uniforme,zipf:0.99").split(",")) {
+                GeneradorClaves claves = GeneradorClaves.desdeTexto(distribucion, n);
+                for (EscenarioCarga escenario : escenarios) {
+                    for (String lecturas : opciones.getOrDefault("lecturas", "0.9").split(",")) {
+                        for (String hilos : opciones.getOrDefault("hilos", hilosPorDefecto).split(",")) {
+                            ResultadoCarga resultado = ejecutar(escenario, n, claves, Double.parseDouble(lecturas),
+                                Integer.parseInt(hilos), segundos);
+                            filas.add(resultado.aCsv());
+                            System.out.println(resultado.aCsv());
+                        }
+                    }
+                }
+            }
+        }
+        if (opciones.containsKey("csv")) {
+            Files.write(Paths.get(opciones.get("csv")), filas, StandardCharsets.UTF_8);
+            System.out.println("Resultados guardados en " + opciones.get("csv"));
+        }
+    }
+}
+
+/**
+ * Hilo que ejecuta operaciones hasta que se lo detiene. Solo cuenta y
+ * mide las operaciones posteriores al calentamiento
+ */
+class HiloCarga extends Thread {
+    private final EstadoCarga estado;
+    private final GeneradorClaves claves;
+    private final double lecturas;
+    private final SplittableRandom random;
+    final HistogramaLatencia latencias = new HistogramaLatencia();
+    volatile boolean midiendo;
+    volatile boolean detenido;
+    long operaciones;
+    long sumidero; // Evita que el JIT descarte las lecturas
+
+    HiloCarga(EstadoCarga estado, GeneradorClaves claves, double lecturas, long semilla) {
+        this.estado = estado;
+        this.claves = claves;
+        this.lecturas = lecturas;
+        this.random = new SplittableRandom(semilla);
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        while (!detenido) {
+            int clave = claves.siguiente(random);
+            boolean lectura = random.nextDouble() < lecturas;
+            long inicio = System.nanoTime();
+            sumidero += lectura ? estado.leerCompartido(clave) : estado.escribirCompartido(clave, random);
+            long fin = System.nanoTime();
+            if (midiendo) {
+                latencias.registrar(fin - inicio);
+                operaciones++;
+            }
+        }
+    }
+}
+
+/**
+ * Estado compartido de un escenario: la colección ya llena y sus
+ * operaciones de lectura y escritura sobre la clave i
+ */
+abstract class EstadoCarga {
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    abstract int leer(int clave);
+
+    abstract int escribir(int clave, SplittableRandom random);
+
+    final int leerCompartido(int clave) {
+        bloqueo.readLock().lock();
+        try {
+            return leer(clave);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    final int escribirCompartido(int clave, SplittableRandom random) {
+        bloqueo.writeLock().lock();
+        try {
+            return escribir(clave, random);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+}
+
+/**
+ * Un escenario por cada colección principal de los ejemplos
+ */
+enum EscenarioCarga {
+    // EjemploMap: inventario por código (consultar stock / reponer)
+    INVENTARIO("inventario") {
+        @Override
+        EstadoCarga preparar(int n) {
+            String[] codigos = codigos("P", n);
+            HashMap<String, Producto> inventario = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                inventario.put(codigos[i], new Producto("Producto " + (i % 1000), 10 + i % 500, i % 100));
+            }
+            return new EstadoCarga() {
+                @Override
+                int leer(int clave) {
+                    return inventario.get(codigos[clave]).cantidad;
+                }
+
+                @Override
+                int escribir(int clave, SplittableRandom random) {
+                    Producto producto = inventario.get(codigos[clave]);
+                    producto.cantidad = random.nextInt(100);
+                    return producto.cantidad;
+                }
+            };
+        }
+    },
+    // EjemploMap: agenda ordenada por fecha (próximo evento / agendar)
+    AGENDA("agenda") {
+        @Override
+        EstadoCarga preparar(int n) {
+            String[] fechas = codigos("F", n);
+            TreeMap<String, String> agenda = new TreeMap<>();
+            for (int i = 0; i < n; i += 2) {
+                agenda.put(fechas[i], "Evento " + i);
+            }
+            return new EstadoCarga() {
+                @Override
+                int leer(int clave) {
+                    Map.Entry<String, String> proximo = agenda.ceilingEntry(fechas[clave]);
+                    return proximo == null ? 0 : proximo.getValue().length();
+                }
+
+                @Override
+                int escribir(int clave, SplittableRandom random) {
+                    // Cancela si la fecha estaba ocupada y si no agenda: el tamaño se mantiene
+                    if (agenda.remove(fechas[clave]) != null) {
+                        return 0;
+                    }
+                    agenda.put(fechas[clave], "Evento " + clave);
+                    return 1;
+                }
+            };
+        }
+    },
+    // EjemploSet: ranking de estudiantes (consultar / cambiar calificación)
+    RANKING("ranking") {
+        @Override
+        EstadoCarga preparar(int n) {
+            Estudiante[] estudiantes = new Estudiante[n];
+            TreeSet<Estudiante> ranking = new TreeSet<>();
+            for (int i = 0; i < n; i++) {
+                estudiantes[i] = new Estudiante(String.format("E%08d", i), i % 101);
+                ranking.add(estudiantes[i]);
+            }
+            return new EstadoCarga() {
+                @Override
+                int leer(int clave) {
+                    Estudiante siguiente = ranking.higher(estudiantes[clave]);
+                    return siguiente == null ? 0 : siguiente.getCalificacion();
+                }
+
+                @Override
+                int escribir(int clave, SplittableRandom random) {
+                    ranking.remove(estudiantes[clave]);
+                    estudiantes[clave] = new Estudiante(estudiantes[clave].getNombre(), random.nextInt(101));
+                    ranking.add(estudiantes[clave]);
+                    return estudiantes[clave].getCalificacion();
+                }
+            };
+        }
+    },
+    // EjemploSet: registro de emails sin duplicados (verificar / registrar o dar de baja)
+    EMAILS("emails") {
+        @Override
+        EstadoCarga preparar(int n) {
+            String[] emails = new String[n];
+            HashSet<String> registrados = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                emails[i] = String.format("usuario%08d@email.com", i);
+                if (i % 2 == 0) {
+                    registrados.add(emails[i]);
+                }
+            }
+            return new EstadoCarga() {
+                @Override
+                int leer(int clave) {
+                    return registrados.contains(emails[clave]) ? 1 : 0;
+                }
+
+                @Override
+                int escribir(int clave, SplittableRandom random) {
+                    // Da de baja si estaba registrado y si no lo registra: el tamaño se mantiene
+                    if (registrados.remove(emails[clave])) {
+                        return 0;
+                    }
+                    registrados.add(emails[clave]);
+                    return 1;
+                }
+            };
+        }
+    },
+    // EjemploList: lista de compras por posición (leer / reemplazar)
+    LISTA("lista") {
+        @Override
+        EstadoCarga preparar(int n) {
+            String[] valores = codigos("Item ", n);
+            ArrayList<String> lista = new ArrayList<>(n);
+            for (String valor : valores) {
+                lista.add(valor);
+            }
+            return new EstadoCarga() {
+                @Override
+                int leer(int clave) {
+                    return lista.get(clave).length();
+                }
+
+                @Override
+                int escribir(int clave, SplittableRandom random) {
+                    return lista.set(clave, valores[random.nextInt(valores.length)]).length();
+                }
+            };
+        }
+    },
+    // EjemploQueue: fila de atención FIFO (ver el siguiente / atender y volver a la fila)
+    ATENCION("atencion") {
+        @Override
+        EstadoCarga preparar(int n) {
+            ArrayDeque<Cliente> fila = new ArrayDeque<>(n);
+            for (int i = 0; i < n; i++) {
+                fila.offer(new Cliente("Cliente " + i, "Trámite"));
+            }
+            return new EstadoCarga() {
+                @Override
+                int leer(int clave) {
+                    return fila.peek().nombre.length();
+                }
+
+                @Override
+                int escribir(int clave, SplittableRandom random) {
+                    Cliente atendido = fila.poll();
+                    fila.offer(atendido);
+                    return atendido.motivo.length();
+                }
+            };
+        }
+    },
+    // EjemploQueue: cola de tareas por prioridad (ver la siguiente / atender y encolar)
+    COLA_TAREAS("colaTareas") {
+        @Override
+        EstadoCarga preparar(int n) {
+            PriorityQueue<Tarea> cola = new PriorityQueue<>(n);
+            for (int i = 0; i < n; i++) {
+                cola.offer(new Tarea("Tarea " + i, i % 100));
+            }
+            return new EstadoCarga() {
+                @Override
+                int leer(int clave) {
+                    return cola.peek().prioridad;
+                }
+
+                @Override
+                int escribir(int clave, SplittableRandom random) {
+                    Tarea atendida = cola.poll();
+                    atendida.prioridad = clave % 100;
+                    cola.offer(atendida);
+                    return atendida.prioridad;
+                }
+            };
+        }
+    };
+
+    final String nombre;
+
+    EscenarioCarga(String nombre) {
+        this.nombre = nombre;
+    }
+
+    abstract EstadoCarga preparar(int n);
+
+    static List<EscenarioCarga> buscar(String nombre) {
+        List<EscenarioCarga> encontrados = new ArrayList<>();
+        for (EscenarioCarga escenario : values()) {
+            if (nombre.equals("todos") || escenario.nombre.equals(nombre)) {
+                encontrados.add(escenario);
+            }
+        }
+        if (encontrados.isEmpty()) {
+            throw new IllegalArgumentException("Escenario desconocido: " + nombre);
+        }
+        return encontrados;
+    }
+
+    private static String[] codigos(String prefijo, int n) {
+        String[] codigos = new String[n];
+        for (int i = 0; i < n; i++) {
+            codigos[i] = prefijo + String.format("%08d", i);
+        }
+        return codigos;
+    }
+}
+
+class ResultadoCarga {
+    final String escenario;
+    final int n;
+    final String distribucion;
+    final double lecturas;
+    final int hilos;
+    final long operaciones;
+    final double opsPorSegundo;
+    final long p50;
+    final long p90;
+    final long p99;
+    final long p999;
+    final long maximo;
+
+    ResultadoCarga(String escenario, int n, String distribucion, double lecturas, int hilos, long operaciones,
+            double opsPorSegundo, long p50, long p90, long p99, long p999, long maximo) {
+        this.escenario = escenario;
+        this.n = n;
+        this.distribucion = distribucion;
+        this.lecturas = lecturas;
+        this.hilos = hilos;
+        this.operaciones = operaciones;
+        this.opsPorSegundo = opsPorSegundo;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.maximo = maximo;
+    }
+
+    /**
+     * Identifica la corrida (todo menos las mediciones), para comparar
+     */
+    String clave() {
+        // La proporción va completa: con %.2f, 0.995 y 1.0 serían la misma corrida
+        return String.format(Locale.ROOT, "%s,%d,%s,%s,%d", escenario, n, distribucion, lecturas, hilos);
+    }
+
+    String aCsv() {
+        return String.format(Locale.ROOT, "%s,%d,%.1f,%d,%d,%d,%d,%d", clave(), operaciones, opsPorSegundo,
+            p50, p90, p99, p999, maximo);
+    }
+
+    static ResultadoCarga desdeCsv(String linea) {
+        String[] campos = linea.split(",");
+        if (campos.length != 12) {
+            throw new IllegalArgumentException("Fila CSV inválida: " + linea);
+        }
+        return new ResultadoCarga(campos[0], Integer.parseInt(campos[1]), campos[2], Double.parseDouble(campos[3]),
+            Integer.parseInt(campos[4]), Long.parseLong(campos[5]), Double.parseDouble(campos[6]),
+            Long.parseLong(campos[7]), Long.parseLong(campos[8]), Long.parseLong(campos[9]),
+            Long.parseLong(campos[10]), Long.parseLong(campos[11]));
+    }
+}
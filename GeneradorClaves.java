@@ -0,0 +1,89 @@
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Claves en [0, n): uniformes o con distribución de Zipf
+ *
+ * Zipf usa el método de Gray et al. ("Quickly generating billion-record
+ * synthetic databases"), el mismo de YCSB: se calcula zeta(n) una vez y
+ * cada clave sale en O(1). El rango r se dispersa con una multiplicación
+ * por un primo módulo n, para que las claves más pedidas no queden
+ * todas juntas al principio de la lista o del árbol.
+ */
+public final class GeneradorClaves {
+    private static final long PRIMO = 2_654_435_761L;
+
+    private final int n;
+    private final double theta;
+    private final double zetaN;
+    private final double alfa;
+    private final double eta;
+    private final double limiteUno;
+
+    private GeneradorClaves(int n, double theta) {
+        this.n = n;
+        this.theta = theta;
+        if (theta == 0) {
+            zetaN = alfa = eta = limiteUno = 0;
+            return;
+        }
+        if (theta < 0 || theta >= 1) {
+            throw new IllegalArgumentException("El exponente de Zipf debe estar en (0, 1): " + theta);
+        }
+        zetaN = zeta(n, theta);
+        alfa = 1 / (1 - theta);
+        eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+        limiteUno = 1 + Math.pow(0.5, theta);
+    }
+
+    public static GeneradorClaves uniforme(int n) {
+        return new GeneradorClaves(n, 0);
+    }
+
+    public static GeneradorClaves zipf(int n, double theta) {
+        return new GeneradorClaves(n, theta);
+    }
+
+    /**
+     * "uniforme", "zipf" (exponente 0.99) o "zipf:exponente"
+     */
+    public static GeneradorClaves desdeTexto(String texto, int n) {
+        if (texto.equals("uniforme")) {
+            return uniforme(n);
+        } else if (texto.equals("zipf")) {
+            return zipf(n, 0.99);
+        } else if (texto.startsWith("zipf:")) {
+            return zipf(n, Double.parseDouble(texto.substring(5)));
+        }
+        throw new IllegalArgumentException("Distribución desconocida: " + texto);
+    }
+
+    public String descripcion() {
+        return theta == 0 ? "uniforme" : String.format(Locale.ROOT, "zipf:%.2f", theta);
+    }
+
+    public int siguiente(SplittableRandom random) {
+        if (theta == 0) {
+            return random.nextInt(n);
+        }
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        long rango;
+        if (uz < 1) {
+            rango = 0;
+        } else if (uz < limiteUno) {
+            rango = 1;
+        } else {
+            rango = Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alfa)));
+        }
+        return (int) (rango * PRIMO % n);
+    }
+
+    private static double zeta(int n, double theta) {
+        double suma = 0;
+        for (int i = 1; i <= n; i++) {
+            suma += 1 / Math.pow(i, theta);
+        }
+        return suma;
+    }
+}
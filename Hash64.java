@@ -0,0 +1,47 @@
+/**
+ * Funciones hash de 64 bits para las estructuras probabilísticas
+ *
+ * String.hashCode() solo tiene 32 bits y sus bits bajos se parecen mucho
+ * entre cadenas parecidas ("user1@x.com", "user2@x.com"). Los filtros y
+ * sketches necesitan bits bien mezclados para repartir los elementos,
+ * así que usan estas funciones en lugar de hashCode().
+ */
+public final class Hash64 {
+
+    private static final long MULTIPLICADOR = 0x9E3779B97F4A7C15L;
+
+    private Hash64() {
+    }
+
+    /**
+     * Hash de 64 bits de una cadena
+     */
+    public static long hash(CharSequence texto) {
+        return hash(texto, 0);
+    }
+
+    /**
+     * Hash de 64 bits de una cadena con semilla, para obtener
+     * funciones hash independientes entre sí
+     */
+    public static long hash(CharSequence texto, long semilla) {
+        long h = semilla ^ (texto.length() * MULTIPLICADOR);
+        for (int i = 0; i < texto.length(); i++) {
+            h = (h ^ texto.charAt(i)) * MULTIPLICADOR;
+            h ^= h >>> 29;
+        }
+        return mezclar(h);
+    }
+
+    /**
+     * Hash de 64 bits de un long (finalizador de MurmurHash3)
+     */
+    public static long mezclar(long x) {
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
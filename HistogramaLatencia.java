@@ -0,0 +1,176 @@
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas log-lineales
+ *
+ * Guardar cada medición para calcular percentiles no escala. Aquí cada
+ * potencia de dos se divide en 16 cubetas iguales, así que cualquier
+ * latencia entre 1 ns y 2^63 ns cae en una de 1024 cubetas (8 KB) y el
+ * percentil reportado tiene un error relativo menor a 1/16 (~6%).
+ * - registrar() es O(1) y seguro entre hilos (contadores atómicos)
+ * - Los histogramas se pueden combinar, por ejemplo uno por hilo
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUBCUBETA = 4;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int CUBETAS = 64 * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra una medición en nanosegundos (los valores negativos cuentan como 0)
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        cubetas.incrementAndGet(indice(valor));
+        suma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    public long cantidad() {
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            total += cubetas.get(i);
+        }
+        return total;
+    }
+
+    public double media() {
+        long total = cantidad();
+        return total == 0 ? 0 : (double) suma.sum() / total;
+    }
+
+    public long maximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Valor bajo el cual queda el porcentaje indicado de las mediciones
+     * (0 a 100). Retorna el límite superior de la cubeta correspondiente
+     */
+    public long percentil(double porcentaje) {
+        if (porcentaje < 0 || porcentaje > 100) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100: " + porcentaje);
+        }
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(porcentaje / 100 * total));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo());
+            }
+        }
+        return maximo();
+    }
+
+    /**
+     * Suma las mediciones de otro histograma a este
+     */
+    public void combinar(HistogramaLatencia otro) {
+        for (int i = 0; i < CUBETAS; i++) {
+            long cantidad = otro.cubetas.get(i);
+            if (cantidad != 0) {
+                cubetas.addAndGet(i, cantidad);
+            }
+        }
+        suma.add(otro.suma.sum());
+        maximo.accumulate(otro.maximo());
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        suma.reset();
+        maximo.reset();
+    }
+
+    /**
+     * Resumen en JSON: cantidad, media, percentiles y máximo en nanosegundos
+     */
+    public String aJson() {
+        return String.format(Locale.ROOT,
+            "{\"cantidad\":%d,\"media_ns\":%.1f,\"p50_ns\":%d,\"p90_ns\":%d,\"p99_ns\":%d,\"p999_ns\":%d,\"max_ns\":%d}",
+            cantidad(), media(), percentil(50), percentil(90), percentil(99), percentil(99.9), maximo());
+    }
+
+    @Override
+    public String toString() {
+        return "n=" + cantidad() + " p50=" + formatear(percentil(50)) + " p99=" + formatear(percentil(99))
+            + " max=" + formatear(maximo());
+    }
+
+    /**
+     * Nanosegundos en la unidad más legible (ns, µs, ms o s)
+     */
+    public static String formatear(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1f µs", nanos / 1e3);
+        } else if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+
+    /**
+     * Los valores menores que 16 tienen cubeta propia; el resto se ubica
+     * por su bit más alto (grupo) y los 4 bits siguientes (subcubeta)
+     */
+    static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - BITS_SUBCUBETA;
+        int subcubeta = (int) (valor >>> desplazamiento) & (SUBCUBETAS - 1);
+        return (desplazamiento + 1) * SUBCUBETAS + subcubeta;
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = indice / SUBCUBETAS - 1;
+        long inferior = (long) (SUBCUBETAS + indice % SUBCUBETAS) << desplazamiento;
+        return inferior + (1L << desplazamiento) - 1;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== PERCENTILES DE UNA DISTRIBUCIÓN CONOCIDA ===\n");
+        // Latencias simuladas: 99% rápidas (~1 µs) y 1% lentas (~5 ms)
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        Random random = new Random(5);
+        long[] todas = new long[1_000_000];
+        for (int i = 0; i < todas.length; i++) {
+            todas[i] = random.nextInt(100) == 0 ? 5_000_000 + random.nextInt(1_000_000) : 500 + random.nextInt(1_000);
+            histograma.registrar(todas[i]);
+        }
+        Arrays.sort(todas);
+        for (double p : new double[] {50, 90, 99, 99.9}) {
+            long exacto = todas[(int) Math.ceil(p / 100 * todas.length) - 1];
+            System.out.printf("p%-5s histograma: %-10s exacto: %s%n", p, formatear(histograma.percentil(p)),
+                formatear(exacto));
+        }
+        System.out.println("Resumen: " + histograma);
+        System.out.println("JSON: " + histograma.aJson());
+    }
+}
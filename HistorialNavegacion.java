@@ -0,0 +1,245 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Historial de navegación con botones "atrás" y "adelante" y memoria acotada
+ *
+ * A diferencia del ejemplo de EjemploQueue (un ArrayDeque<String> sin límite
+ * que solo permite retroceder), aquí:
+ * - Las pilas de "atrás" y "adelante" son buffers circulares de capacidad fija.
+ *   Cuando se llenan, se descarta la página más antigua.
+ * - Las URLs se guardan una sola vez en un PoolUrls compartido entre sesiones
+ *   y cada sesión solo almacena identificadores int.
+ * - visitar(), atras() y adelante() son O(1).
+ */
+public class HistorialNavegacion {
+
+    private static final int SIN_PAGINA = -1;
+
+    private final PoolUrls pool;
+    private final PilaCircular pilaAtras;
+    private final PilaCircular pilaAdelante;
+    private int actual = SIN_PAGINA;
+
+    public HistorialNavegacion(PoolUrls pool, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        this.pool = pool;
+        this.pilaAtras = new PilaCircular(capacidad);
+        this.pilaAdelante = new PilaCircular(capacidad);
+    }
+
+    /**
+     * Visita una nueva página: la actual pasa a la pila de "atrás"
+     * y el historial de "adelante" se descarta (igual que en un navegador)
+     */
+    public void visitar(String url) {
+        if (actual != SIN_PAGINA) {
+            pilaAtras.push(actual);
+        }
+        actual = pool.intern(url);
+        pilaAdelante.clear(); // O(1): solo reinicia el tamaño
+    }
+
+    /**
+     * Retrocede una página. Retorna la nueva página actual,
+     * o null si no hay a dónde retroceder
+     */
+    public String atras() {
+        if (pilaAtras.isEmpty()) {
+            return null;
+        }
+        pilaAdelante.push(actual);
+        actual = pilaAtras.pop();
+        return pool.url(actual);
+    }
+
+    /**
+     * Avanza una página. Retorna la nueva página actual,
+     * o null si no hay a dónde avanzar
+     */
+    public String adelante() {
+        if (pilaAdelante.isEmpty()) {
+            return null;
+        }
+        pilaAtras.push(actual);
+        actual = pilaAdelante.pop();
+        return pool.url(actual);
+    }
+
+    public String paginaActual() {
+        return actual == SIN_PAGINA ? null : pool.url(actual);
+    }
+
+    public boolean puedeRetroceder() {
+        return !pilaAtras.isEmpty();
+    }
+
+    public boolean puedeAvanzar() {
+        return !pilaAdelante.isEmpty();
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== HISTORIAL CON ATRÁS Y ADELANTE ===\n");
+        ejemploNavegacion();
+
+        System.out.println("\n=== COMPARACIÓN DE MEMORIA POR SESIÓN ===\n");
+        int sesiones = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        comparacionMemoria(sesiones, 20, 50);
+    }
+
+    /**
+     * Demostración de navegación con capacidad pequeña para ver
+     * cómo se descartan las páginas más antiguas
+     */
+    public static void ejemploNavegacion() {
+        PoolUrls pool = new PoolUrls();
+        HistorialNavegacion historial = new HistorialNavegacion(pool, 3);
+
+        historial.visitar("google.com");
+        historial.visitar("github.com");
+        historial.visitar("stackoverflow.com");
+        historial.visitar("youtube.com");
+        historial.visitar("wikipedia.org");
+        System.out.println("Página actual: " + historial.paginaActual());
+
+        // Con capacidad 3 solo se recuerdan las 3 páginas anteriores
+        System.out.println("\nRetrocediendo hasta el final:");
+        String pagina;
+        while ((pagina = historial.atras()) != null) {
+            System.out.println("  Atrás -> " + pagina);
+        }
+
+        System.out.println("\nAvanzando:");
+        System.out.println("  Adelante -> " + historial.adelante());
+        System.out.println("  Adelante -> " + historial.adelante());
+
+        // Visitar una página nueva descarta el historial de "adelante"
+        historial.visitar("docs.oracle.com");
+        System.out.println("\nDespués de visitar docs.oracle.com:");
+        System.out.println("  ¿Puede avanzar? " + historial.puedeAvanzar());
+        System.out.println("  Atrás -> " + historial.atras());
+
+        System.out.println("\nURLs distintas en el pool: " + pool.size());
+    }
+
+    /**
+     * Compara la memoria usada por muchas sesiones con Deque<String>
+     * (una copia de cada URL por sesión) contra HistorialNavegacion
+     * (URLs internadas en un pool compartido e ids int por sesión)
+     */
+    public static void comparacionMemoria(int sesiones, int visitasPorSesion, int urlsDistintas) {
+        System.out.println("Sesiones: " + sesiones + ", visitas por sesión: " + visitasPorSesion
+            + ", URLs distintas: " + urlsDistintas);
+
+        long base = memoriaUsada();
+        Deque<String>[] deques = crearDeques(sesiones, visitasPorSesion, urlsDistintas);
+        long bytesDeque = memoriaUsada() - base;
+        System.out.println("  Sesiones creadas (Deque): " + deques.length);
+        deques = null;
+
+        base = memoriaUsada();
+        PoolUrls pool = new PoolUrls();
+        HistorialNavegacion[] historiales = crearHistoriales(pool, sesiones, visitasPorSesion, urlsDistintas);
+        long bytesHistorial = memoriaUsada() - base;
+        System.out.println("  Sesiones creadas (HistorialNavegacion): " + historiales.length);
+
+        System.out.println("\nBytes por sesión:");
+        System.out.println("  Deque<String>:       " + bytesDeque / sesiones);
+        System.out.println("  HistorialNavegacion: " + bytesHistorial / sesiones);
+        if (bytesHistorial > 0) {
+            System.out.printf("  HistorialNavegacion usa %.1fx menos memoria%n",
+                (double) bytesDeque / bytesHistorial);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Deque<String>[] crearDeques(int sesiones, int visitas, int urlsDistintas) {
+        Deque<String>[] deques = new Deque[sesiones];
+        for (int s = 0; s < sesiones; s++) {
+            Deque<String> historial = new ArrayDeque<>();
+            for (int v = 0; v < visitas; v++) {
+                // Cada sesión recibe su propia copia del String (como al leerlo de una petición)
+                historial.push(new String(urlDePrueba(s, v, urlsDistintas)));
+            }
+            deques[s] = historial;
+        }
+        return deques;
+    }
+
+    private static HistorialNavegacion[] crearHistoriales(PoolUrls pool, int sesiones, int visitas,
+                                                          int urlsDistintas) {
+        HistorialNavegacion[] historiales = new HistorialNavegacion[sesiones];
+        for (int s = 0; s < sesiones; s++) {
+            HistorialNavegacion historial = new HistorialNavegacion(pool, visitas);
+            for (int v = 0; v < visitas; v++) {
+                historial.visitar(new String(urlDePrueba(s, v, urlsDistintas)));
+            }
+            historiales[s] = historial;
+        }
+        return historiales;
+    }
+
+    private static String urlDePrueba(int sesion, int visita, int urlsDistintas) {
+        return "https://sitio" + ((sesion * 31 + visita * 7) % urlsDistintas) + ".example.com/index.html";
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
+
+/**
+ * Pila de ints sobre un buffer circular de capacidad fija.
+ * Si está llena, push() sobrescribe el elemento más antiguo.
+ */
+class PilaCircular {
+    private final int[] elementos;
+    private int inicio; // Posición del elemento más antiguo
+    private int size;
+
+    public PilaCircular(int capacidad) {
+        this.elementos = new int[capacidad];
+    }
+
+    public void push(int valor) {
+        if (size < elementos.length) {
+            elementos[indice(size)] = valor;
+            size++;
+        } else {
+            // Llena: el nuevo ocupa el lugar del más antiguo
+            elementos[inicio] = valor;
+            inicio = indice(1);
+        }
+    }
+
+    public int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("La pila está vacía");
+        }
+        size--;
+        return elementos[indice(size)];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private int indice(int desplazamiento) {
+        int i = inicio + desplazamiento;
+        return i >= elementos.length ? i - elementos.length : i;
+    }
+}
@@ -0,0 +1,337 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Conteo aproximado de elementos distintos con HyperLogLog
+ *
+ * En EjemploSet, "verificar palabras únicas" construye un HashSet<String>
+ * con todas las palabras solo para conocer su tamaño. Con textos de
+ * varios GB eso ocupa gigabytes. HyperLogLog estima la cantidad de
+ * distintos con un arreglo fijo de 2^p registros de un byte:
+ * - Precisión p: con p = 14 usa 16 KB y el error típico es ~0.8%
+ *   (error relativo ≈ 1.04 / sqrt(2^p))
+ * - Combinable: dos sketches se unen tomando el máximo de cada registro,
+ *   así que cada hilo o partición puede contar por separado
+ * - Modo exacto: mientras hay pocos elementos se guardan sus hashes de
+ *   64 bits y el conteo es exacto; al pasar el umbral se cambia al
+ *   sketch (como el modo "sparse" de HyperLogLog++)
+ */
+public class HyperLogLog {
+
+    private static final long VACIO = 0; // Marca de casilla libre en la tabla exacta
+
+    private final int p;
+    private final int umbralExacto;
+
+    // Modo exacto: tabla hash abierta de hashes de 64 bits (null en modo sketch)
+    private long[] hashes;
+    private int numHashes;
+    private boolean tieneHashCero;
+
+    // Modo sketch: 2^p registros con el máximo de ceros iniciales + 1 (null en modo exacto)
+    private byte[] registros;
+
+    /**
+     * Crea un contador con la precisión p (4 a 18) y el umbral del modo
+     * exacto (cantidad de distintos a partir de la cual se usa el sketch)
+     */
+    public HyperLogLog(int p, int umbralExacto) {
+        if (p < 4 || p > 18) {
+            throw new IllegalArgumentException("La precisión debe estar entre 4 y 18: " + p);
+        }
+        if (umbralExacto < 0) {
+            throw new IllegalArgumentException("El umbral no puede ser negativo: " + umbralExacto);
+        }
+        this.p = p;
+        this.umbralExacto = umbralExacto;
+        if (umbralExacto > 0) {
+            hashes = new long[16];
+        } else {
+            registros = new byte[1 << p];
+        }
+    }
+
+    /**
+     * Contador con p = 14 que es exacto hasta 1024 elementos. La tabla
+     * de hashes crece al pasar el 75% de carga, así que con 1024 hashes
+     * tiene 2048 posiciones de 8 bytes: los mismos 16 KB que el sketch
+     */
+    public HyperLogLog() {
+        this(14, (1 << 14) / 16);
+    }
+
+    public void agregar(CharSequence elemento) {
+        agregarHash(Hash64.hash(elemento));
+    }
+
+    public void agregar(long elemento) {
+        agregarHash(Hash64.mezclar(elemento));
+    }
+
+    public void agregarHash(long hash) {
+        if (registros != null) {
+            actualizarRegistro(hash);
+            return;
+        }
+        if (hash == VACIO) {
+            tieneHashCero = true;
+        } else if (insertarHash(hash) && numHashes > umbralExacto) {
+            pasarASketch();
+        }
+    }
+
+    /**
+     * Cantidad estimada de elementos distintos (exacta en modo exacto)
+     */
+    public long estimar() {
+        if (registros == null) {
+            return numHashes + (tieneHashCero ? 1 : 0);
+        }
+        int m = registros.length;
+        double suma = 0;
+        int ceros = 0;
+        for (byte registro : registros) {
+            suma += 1.0 / (1L << registro);
+            if (registro == 0) {
+                ceros++;
+            }
+        }
+        double estimacion = alfa(m) * m * (double) m / suma;
+        // Corrección para cardinalidades bajas: conteo lineal de registros vacíos
+        if (estimacion <= 2.5 * m && ceros > 0) {
+            estimacion = m * Math.log((double) m / ceros);
+        }
+        // Con hashes de 64 bits no hace falta la corrección para valores muy grandes
+        return Math.round(estimacion);
+    }
+
+    /**
+     * Une otro contador a este (deben tener la misma precisión).
+     * El resultado estima los distintos de ambos juntos
+     */
+    public void combinar(HyperLogLog otro) {
+        if (otro.p != p) {
+            throw new IllegalArgumentException("Precisiones distintas: " + p + " y " + otro.p);
+        }
+        if (otro.registros == null) {
+            if (otro.tieneHashCero) {
+                agregarHash(VACIO);
+            }
+            for (long hash : otro.hashes) {
+                if (hash != VACIO) {
+                    agregarHash(hash);
+                }
+            }
+            return;
+        }
+        if (registros == null) {
+            pasarASketch();
+        }
+        for (int i = 0; i < registros.length; i++) {
+            if (otro.registros[i] > registros[i]) {
+                registros[i] = otro.registros[i];
+            }
+        }
+    }
+
+    public boolean esExacto() {
+        return registros == null;
+    }
+
+    public int precision() {
+        return p;
+    }
+
+    /**
+     * Error relativo típico (una desviación estándar) del modo sketch
+     */
+    public double errorEstandar() {
+        return 1.04 / Math.sqrt(1 << p);
+    }
+
+    public long bytes() {
+        return registros != null ? registros.length : hashes.length * 8L;
+    }
+
+    private void actualizarRegistro(long hash) {
+        int indice = (int) (hash >>> (64 - p));
+        // Ceros iniciales del resto del hash; el bit centinela limita el resultado a 64 - p
+        long resto = (hash << p) | (1L << (p - 1));
+        byte rango = (byte) (Long.numberOfLeadingZeros(resto) + 1);
+        if (rango > registros[indice]) {
+            registros[indice] = rango;
+        }
+    }
+
+    /**
+     * Inserta en la tabla abierta. Retorna true si el hash era nuevo
+     */
+    private boolean insertarHash(long hash) {
+        if ((numHashes + 1) * 4 > hashes.length * 3) {
+            long[] viejos = hashes;
+            hashes = new long[viejos.length * 2];
+            numHashes = 0;
+            for (long viejo : viejos) {
+                if (viejo != VACIO) {
+                    insertarHash(viejo);
+                }
+            }
+        }
+        int mascara = hashes.length - 1;
+        int i = (int) hash & mascara;
+        while (hashes[i] != VACIO) {
+            if (hashes[i] == hash) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+        hashes[i] = hash;
+        numHashes++;
+        return true;
+    }
+
+    private void pasarASketch() {
+        registros = new byte[1 << p];
+        if (tieneHashCero) {
+            actualizarRegistro(VACIO);
+        }
+        for (long hash : hashes) {
+            if (hash != VACIO) {
+                actualizarRegistro(hash);
+            }
+        }
+        hashes = null;
+        numHashes = 0;
+        tieneHashCero = false;
+    }
+
+    private static double alfa(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        System.out.println("=== PALABRAS ÚNICAS CON HYPERLOGLOG ===\n");
+        ejemploPalabrasUnicas();
+
+        System.out.println("\n=== ERROR Y MEMORIA CONTRA HASHSET ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        comparacionHashSet(n);
+
+        System.out.println("\n=== CONTEO EN PARALELO POR PARTICIONES ===\n");
+        conteoParalelo(n, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * El mismo texto de EjemploSet.aplicacionesPracticas()
+     */
+    public static void ejemploPalabrasUnicas() {
+        String texto = "el gato y el perro juegan el gato corre";
+        String[] palabras = texto.split(" ");
+        HyperLogLog contador = new HyperLogLog();
+        for (String palabra : palabras) {
+            contador.agregar(palabra);
+        }
+        System.out.println("Texto: " + texto);
+        System.out.println("Total de palabras: " + palabras.length);
+        System.out.println("Palabras únicas: " + contador.estimar()
+            + (contador.esExacto() ? " (modo exacto)" : " (estimado)"));
+        System.out.println("¿Hay repetidas? " + (palabras.length != contador.estimar()));
+    }
+
+    /**
+     * Compara error y memoria contra el HashSet<String> exacto
+     * para varias precisiones
+     */
+    public static void comparacionHashSet(int n) {
+        // Vocabulario con repeticiones: unas n / 4 palabras distintas
+        int distintas = Math.max(1, n / 4);
+        long base = memoriaUsada();
+        HashSet<String> exacto = new HashSet<>();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            exacto.add(palabra(i, distintas));
+        }
+        long tiempoExacto = System.nanoTime() - inicio;
+        long bytesExacto = memoriaUsada() - base;
+        System.out.println("Palabras: " + n + ", distintas reales: " + exacto.size());
+        System.out.printf("  %-16s %12s %10s %10s %10s%n", "Estructura", "Estimación", "Error", "Memoria", "Tiempo");
+        System.out.printf("  %-16s %12d %9.3f%% %8d KB %7d ms%n", "HashSet<String>", exacto.size(), 0.0,
+            bytesExacto / 1024, tiempoExacto / 1_000_000);
+        long reales = exacto.size();
+        exacto = null;
+
+        for (int p : new int[] {10, 12, 14, 16}) {
+            HyperLogLog contador = new HyperLogLog(p, 0);
+            inicio = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                contador.agregar(palabra(i, distintas));
+            }
+            long tiempo = System.nanoTime() - inicio;
+            long estimado = contador.estimar();
+            double error = 100.0 * Math.abs(estimado - reales) / reales;
+            System.out.printf("  %-16s %12d %9.3f%% %8d KB %7d ms  (error típico %.2f%%)%n", "HLL p=" + p,
+                estimado, error, Math.max(1, contador.bytes() / 1024), tiempo / 1_000_000,
+                contador.errorEstandar() * 100);
+        }
+    }
+
+    /**
+     * Cada hilo cuenta una partición del texto con su propio sketch
+     * y al final se combinan
+     */
+    public static void conteoParalelo(int n, int hilos) throws InterruptedException, ExecutionException {
+        int distintas = Math.max(1, n / 4);
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            long inicio = System.nanoTime();
+            List<Future<HyperLogLog>> parciales = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                int desde = (int) ((long) n * h / hilos);
+                int hasta = (int) ((long) n * (h + 1) / hilos);
+                parciales.add(pool.submit(() -> {
+                    HyperLogLog parcial = new HyperLogLog();
+                    for (int i = desde; i < hasta; i++) {
+                        parcial.agregar(palabra(i, distintas));
+                    }
+                    return parcial;
+                }));
+            }
+            HyperLogLog total = new HyperLogLog();
+            for (Future<HyperLogLog> parcial : parciales) {
+                total.combinar(parcial.get());
+            }
+            long tiempo = System.nanoTime() - inicio;
+            System.out.println("Hilos: " + hilos + ", estimación combinada: " + total.estimar()
+                + " (reales: " + Math.min(n, distintas) + "), " + tiempo / 1_000_000 + " ms");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String palabra(int i, int distintas) {
+        // mezclar() es una biyección, así que hay exactamente "distintas" palabras
+        return "palabra" + Long.toHexString(Hash64.mezclar(i % distintas));
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,748 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Instantáneas binarias de colecciones que se restauran sin deserializar
+ *
+ * Todo el estado de los Ejemplo* (inventario, agenda, ranking,
+ * colaTareas) se reconstruye elemento por elemento en cada arranque.
+ * Este formato guarda cada colección como arreglos primitivos:
+ * - Encabezado: "SNAP", versión, cantidad de secciones y la posición
+ *   del directorio (nombre, tipo, posición y largo de cada sección)
+ * - Secciones de int, long o double: cantidad y luego los valores
+ * - Tablas de cadenas: posiciones de inicio + bytes UTF-8. Si están
+ *   ordenadas (claves de mapas y conjuntos), se busca con búsqueda
+ *   binaria directamente sobre los bytes
+ * - Colas de prioridad: el arreglo del montículo tal cual, que ya
+ *   cumple la propiedad de montículo y no hay que reordenar
+ *
+ * Al abrir, cada sección se mapea a memoria (FileChannel.map): nada se
+ * lee hasta que se usa, y solo se crean objetos para lo que se consulta.
+ * Todas las secciones empiezan alineadas a 8 bytes.
+ */
+public class InstantaneaBinaria {
+
+    static final int MAGIC = 0x534E4150; // "SNAP"
+    static final int VERSION = 1;
+    static final int BYTES_ENCABEZADO = 24;
+
+    static final byte TIPO_INTS = 1;
+    static final byte TIPO_LONGS = 2;
+    static final byte TIPO_DOUBLES = 3;
+    static final byte TIPO_CADENAS = 4;
+
+    private final int version;
+    private final long bytes;
+    private final Map<String, MappedByteBuffer> secciones = new LinkedHashMap<>();
+    private final Map<String, Byte> tipos = new HashMap<>();
+
+    private InstantaneaBinaria(int version, long bytes) {
+        this.version = version;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Abre una instantánea: valida el encabezado y mapea cada sección
+     */
+    public static InstantaneaBinaria abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer encabezado = ByteBuffer.allocate(BYTES_ENCABEZADO);
+            while (encabezado.hasRemaining() && canal.read(encabezado) >= 0) {
+                // Lee hasta completar el encabezado
+            }
+            encabezado.flip();
+            if (encabezado.remaining() < BYTES_ENCABEZADO || encabezado.getInt() != MAGIC) {
+                throw new IOException("No es una instantánea: " + archivo);
+            }
+            int version = encabezado.getInt();
+            if (version <= 0 || version > VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            int cantidad = encabezado.getInt();
+            encabezado.getInt(); // Relleno
+            long posicionDirectorio = encabezado.getLong();
+            if (cantidad < 0 || posicionDirectorio < BYTES_ENCABEZADO || posicionDirectorio > canal.size()) {
+                throw new IOException("Encabezado de instantánea corrupto: " + archivo);
+            }
+
+            InstantaneaBinaria instantanea = new InstantaneaBinaria(version, canal.size());
+            MappedByteBuffer directorio = canal.map(FileChannel.MapMode.READ_ONLY, posicionDirectorio,
+                canal.size() - posicionDirectorio);
+            for (int i = 0; i < cantidad; i++) {
+                if (directorio.remaining() < Short.BYTES) {
+                    throw new IOException("Directorio de instantánea truncado: " + archivo);
+                }
+                short largoNombre = directorio.getShort();
+                if (largoNombre < 0 || directorio.remaining() < largoNombre + 1 + 2 * Long.BYTES) {
+                    throw new IOException("Directorio de instantánea truncado: " + archivo);
+                }
+                byte[] nombre = new byte[largoNombre];
+                directorio.get(nombre);
+                byte tipo = directorio.get();
+                long posicion = directorio.getLong();
+                long largo = directorio.getLong();
+                if (largo > Integer.MAX_VALUE) {
+                    throw new IOException("Sección demasiado grande para mapear: " + largo + " bytes");
+                }
+                if (posicion < BYTES_ENCABEZADO || largo < 0 || posicion + largo > posicionDirectorio) {
+                    throw new IOException("Sección fuera del archivo: " + new String(nombre, StandardCharsets.UTF_8));
+                }
+                String clave = new String(nombre, StandardCharsets.UTF_8);
+                instantanea.secciones.put(clave, canal.map(FileChannel.MapMode.READ_ONLY, posicion, largo));
+                instantanea.tipos.put(clave, tipo);
+            }
+            return instantanea;
+        }
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public Set<String> secciones() {
+        return Collections.unmodifiableSet(secciones.keySet());
+    }
+
+    public IntBuffer ints(String nombre) {
+        ByteBuffer seccion = seccion(nombre, TIPO_INTS);
+        return seccion.position(8).slice().asIntBuffer().limit(seccion.getInt(0));
+    }
+
+    public LongBuffer longs(String nombre) {
+        ByteBuffer seccion = seccion(nombre, TIPO_LONGS);
+        return seccion.position(8).slice().asLongBuffer().limit(seccion.getInt(0));
+    }
+
+    public DoubleBuffer doubles(String nombre) {
+        ByteBuffer seccion = seccion(nombre, TIPO_DOUBLES);
+        return seccion.position(8).slice().asDoubleBuffer().limit(seccion.getInt(0));
+    }
+
+    public TablaCadenas cadenas(String nombre) {
+        return new TablaCadenas(seccion(nombre, TIPO_CADENAS));
+    }
+
+    private ByteBuffer seccion(String nombre, byte tipo) {
+        MappedByteBuffer seccion = secciones.get(nombre);
+        if (seccion == null) {
+            throw new IllegalArgumentException("No existe la sección: " + nombre);
+        }
+        if (tipos.get(nombre) != tipo) {
+            throw new IllegalArgumentException("La sección " + nombre + " es de otro tipo");
+        }
+        return seccion.duplicate();
+    }
+
+    // ------------------------------------------------------------------
+    // Colecciones de los ejemplos
+    // ------------------------------------------------------------------
+
+    /**
+     * Inventario de EjemploMap: códigos ordenados y, en el mismo orden,
+     * nombre, precio y cantidad de cada producto
+     */
+    public static void guardarInventario(EscritorInstantanea escritor, String nombre,
+            Map<String, Producto> inventario) throws IOException {
+        String[] codigos = inventario.keySet().toArray(new String[0]);
+        int[] orden = escritor.cadenasOrdenadas(nombre + ".codigos", codigos);
+        String[] nombres = new String[orden.length];
+        double[] precios = new double[orden.length];
+        int[] cantidades = new int[orden.length];
+        for (int i = 0; i < orden.length; i++) {
+            Producto producto = inventario.get(codigos[orden[i]]);
+            nombres[i] = producto.nombre;
+            precios[i] = producto.precio;
+            cantidades[i] = producto.cantidad;
+        }
+        escritor.cadenas(nombre + ".nombres", nombres);
+        escritor.doubles(nombre + ".precios", precios);
+        escritor.ints(nombre + ".cantidades", cantidades);
+    }
+
+    public InventarioMapeado inventario(String nombre) {
+        return new InventarioMapeado(cadenas(nombre + ".codigos"), cadenas(nombre + ".nombres"),
+            doubles(nombre + ".precios"), ints(nombre + ".cantidades"));
+    }
+
+    /**
+     * Mapa de cadenas (como la agenda de EjemploMap): claves ordenadas y valores
+     */
+    public static void guardarMapa(EscritorInstantanea escritor, String nombre, Map<String, String> mapa)
+            throws IOException {
+        String[] claves = mapa.keySet().toArray(new String[0]);
+        int[] orden = escritor.cadenasOrdenadas(nombre + ".claves", claves);
+        String[] valores = new String[orden.length];
+        for (int i = 0; i < orden.length; i++) {
+            valores[i] = mapa.get(claves[orden[i]]);
+        }
+        escritor.cadenas(nombre + ".valores", valores);
+    }
+
+    public MapaMapeado mapa(String nombre) {
+        return new MapaMapeado(cadenas(nombre + ".claves"), cadenas(nombre + ".valores"));
+    }
+
+    /**
+     * Ranking de EjemploSet: los estudiantes en el orden en que se recorren
+     */
+    public static void guardarRanking(EscritorInstantanea escritor, String nombre,
+            Collection<Estudiante> ranking) throws IOException {
+        String[] nombres = new String[ranking.size()];
+        int[] calificaciones = new int[ranking.size()];
+        int i = 0;
+        for (Estudiante estudiante : ranking) {
+            nombres[i] = estudiante.getNombre();
+            calificaciones[i++] = estudiante.getCalificacion();
+        }
+        escritor.cadenas(nombre + ".nombres", nombres);
+        escritor.ints(nombre + ".calificaciones", calificaciones);
+    }
+
+    public RankingMapeado ranking(String nombre) {
+        return new RankingMapeado(cadenas(nombre + ".nombres"), ints(nombre + ".calificaciones"));
+    }
+
+    /**
+     * Cola de tareas de EjemploQueue. El arreglo interno de PriorityQueue
+     * (toArray()) ya está en orden de montículo binario: se guarda tal
+     * cual como (prioridad, posición) empaquetados
+     */
+    public static void guardarColaTareas(EscritorInstantanea escritor, String nombre, PriorityQueue<Tarea> cola)
+            throws IOException {
+        Object[] enOrden = cola.toArray();
+        long[] claves = new long[enOrden.length];
+        String[] descripciones = new String[enOrden.length];
+        for (int i = 0; i < enOrden.length; i++) {
+            Tarea tarea = (Tarea) enOrden[i];
+            // A igual prioridad el padre tiene menor posición, así que
+            // también se cumple la propiedad con la posición como desempate
+            claves[i] = AlmacenColumnar.empaquetar(tarea.prioridad, i);
+            descripciones[i] = tarea.descripcion;
+        }
+        escritor.longs(nombre + ".monticulo", claves);
+        escritor.cadenas(nombre + ".descripciones", descripciones);
+    }
+
+    public ColaTareasMapeada colaTareas(String nombre) {
+        LongBuffer mapeado = longs(nombre + ".monticulo");
+        long[] claves = new long[mapeado.remaining()];
+        mapeado.get(claves); // Copia en bloque: la cola se modifica al atender
+        return new ColaTareasMapeada(MonticuloLong.desdeArreglo(2, true, claves),
+            cadenas(nombre + ".descripciones"));
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        System.out.println("=== GUARDAR Y RESTAURAR LOS EJEMPLOS ===\n");
+        ejemploEjemplos();
+
+        System.out.println("\n=== COMPARACIÓN CON LA SERIALIZACIÓN DE JAVA ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        comparacionSerializacion(n);
+    }
+
+    public static void ejemploEjemplos() throws IOException {
+        HashMap<String, Producto> inventario = new HashMap<>();
+        inventario.put("LAP001", new Producto("Laptop Dell", 1200.0, 15));
+        inventario.put("MOU002", new Producto("Mouse Logitech", 25.0, 50));
+        inventario.put("TEC003", new Producto("Teclado Mecánico", 80.0, 30));
+
+        TreeMap<String, String> agenda = new TreeMap<>();
+        agenda.put("2025-10-25", "Examen de Programación");
+        agenda.put("2025-10-22", "Entrega de proyecto");
+        agenda.put("2025-11-01", "Inicio de vacaciones");
+
+        TreeSet<Estudiante> ranking = new TreeSet<>();
+        ranking.add(new Estudiante("Ana", 95));
+        ranking.add(new Estudiante("Carlos", 88));
+        ranking.add(new Estudiante("Beatriz", 92));
+
+        PriorityQueue<Tarea> colaTareas = new PriorityQueue<>();
+        colaTareas.offer(new Tarea("Revisar emails", 2));
+        colaTareas.offer(new Tarea("Bug crítico en producción", 5));
+        colaTareas.offer(new Tarea("Reunión de equipo", 3));
+        colaTareas.offer(new Tarea("Code review urgente", 4));
+
+        Path archivo = Files.createTempFile("ejemplos", ".snap");
+        try {
+            try (EscritorInstantanea escritor = new EscritorInstantanea(archivo)) {
+                guardarInventario(escritor, "inventario", inventario);
+                guardarMapa(escritor, "agenda", agenda);
+                guardarRanking(escritor, "ranking", ranking.descendingSet());
+                guardarColaTareas(escritor, "colaTareas", colaTareas);
+            }
+
+            InstantaneaBinaria instantanea = abrir(archivo);
+            System.out.println("Instantánea v" + instantanea.version() + ", " + instantanea.bytes() + " bytes, "
+                + instantanea.secciones().size() + " secciones");
+            InventarioMapeado productos = instantanea.inventario("inventario");
+            System.out.println("Producto LAP001: " + productos.buscar("LAP001"));
+            System.out.println("Producto XYZ999: " + productos.buscar("XYZ999"));
+            MapaMapeado eventos = instantanea.mapa("agenda");
+            System.out.println("Evento del 2025-10-22: " + eventos.get("2025-10-22"));
+            RankingMapeado mejores = instantanea.ranking("ranking");
+            System.out.println("Primero del ranking: " + mejores.get(0));
+            ColaTareasMapeada tareas = instantanea.colaTareas("colaTareas");
+            System.out.println("Tareas restauradas por prioridad:");
+            while (!tareas.isEmpty()) {
+                System.out.println("  " + tareas.poll());
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    /**
+     * Inventario de n productos: tiempo de guardar, de restaurar y de la
+     * primera ronda de consultas, contra ObjectOutputStream/ObjectInputStream
+     */
+    public static void comparacionSerializacion(int n) throws IOException, ClassNotFoundException {
+        Random random = new Random(23);
+        HashMap<String, Producto> inventario = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            inventario.put(String.format("P%08d", i), new Producto("Producto " + (i % 1000),
+                1 + random.nextInt(100_000) / 100.0, random.nextInt(100)));
+        }
+        String[] consultas = new String[100_000];
+        for (int i = 0; i < consultas.length; i++) {
+            consultas[i] = String.format("P%08d", random.nextInt(n));
+        }
+
+        Path binario = Files.createTempFile("inventario", ".snap");
+        Path serializado = Files.createTempFile("inventario", ".ser");
+        try {
+            long inicio = System.nanoTime();
+            try (EscritorInstantanea escritor = new EscritorInstantanea(binario)) {
+                guardarInventario(escritor, "inventario", inventario);
+            }
+            long guardarBinario = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            try (ObjectOutputStream salida = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(serializado)))) {
+                salida.writeObject(inventario);
+            }
+            long guardarSerializado = System.nanoTime() - inicio;
+            inventario = null;
+
+            inicio = System.nanoTime();
+            InventarioMapeado mapeado = abrir(binario).inventario("inventario");
+            long restaurarBinario = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            long stockBinario = 0;
+            for (String codigo : consultas) {
+                stockBinario += mapeado.buscar(codigo).cantidad;
+            }
+            long consultasBinario = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            HashMap<String, Producto> restaurado;
+            try (ObjectInputStream entrada = new ObjectInputStream(
+                    new BufferedInputStream(Files.newInputStream(serializado)))) {
+                @SuppressWarnings("unchecked")
+                HashMap<String, Producto> leido = (HashMap<String, Producto>) entrada.readObject();
+                restaurado = leido;
+            }
+            long restaurarSerializado = System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            long stockSerializado = 0;
+            for (String codigo : consultas) {
+                stockSerializado += restaurado.get(codigo).cantidad;
+            }
+            long consultasSerializado = System.nanoTime() - inicio;
+
+            System.out.println("Inventario de " + n + " productos, " + consultas.length + " consultas:");
+            System.out.printf("  %-22s %10s %10s %12s %10s%n", "Formato", "Archivo", "Guardar", "Restaurar",
+                "Consultas");
+            System.out.printf("  %-22s %7d MB %7d ms %9d ms %7d ms%n", "InstantaneaBinaria",
+                Files.size(binario) >> 20, guardarBinario / 1_000_000, restaurarBinario / 1_000_000,
+                consultasBinario / 1_000_000);
+            System.out.printf("  %-22s %7d MB %7d ms %9d ms %7d ms%n", "Serialización de Java",
+                Files.size(serializado) >> 20, guardarSerializado / 1_000_000, restaurarSerializado / 1_000_000,
+                consultasSerializado / 1_000_000);
+            System.out.println("  ¿Mismas respuestas? " + (stockBinario == stockSerializado));
+        } finally {
+            Files.deleteIfExists(binario);
+            Files.deleteIfExists(serializado);
+        }
+    }
+}
+
+/**
+ * Escribe secciones alineadas a 8 bytes y, al cerrar, el directorio
+ */
+class EscritorInstantanea implements Closeable {
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final List<Object[]> directorio = new ArrayList<>(); // {nombre, tipo, posición, largo}
+    private final Set<String> nombres = new HashSet<>();
+    private long escritos;
+    private long inicioSeccion;
+
+    EscritorInstantanea(Path archivo) throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+        // El encabezado se completa al cerrar, cuando se conoce el directorio
+        asegurar(InstantaneaBinaria.BYTES_ENCABEZADO);
+        buffer.put(new byte[InstantaneaBinaria.BYTES_ENCABEZADO]);
+        escritos = InstantaneaBinaria.BYTES_ENCABEZADO;
+    }
+
+    void ints(String nombre, int[] datos) throws IOException {
+        iniciar(nombre, datos.length);
+        for (int desde = 0; desde < datos.length; ) {
+            asegurar(Integer.BYTES);
+            int cantidad = Math.min(datos.length - desde, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(datos, desde, cantidad);
+            avanzar(cantidad * Integer.BYTES);
+            desde += cantidad;
+        }
+        terminar(nombre, InstantaneaBinaria.TIPO_INTS);
+    }
+
+    void longs(String nombre, long[] datos) throws IOException {
+        iniciar(nombre, datos.length);
+        for (int desde = 0; desde < datos.length; ) {
+            asegurar(Long.BYTES);
+            int cantidad = Math.min(datos.length - desde, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().put(datos, desde, cantidad);
+            avanzar(cantidad * Long.BYTES);
+            desde += cantidad;
+        }
+        terminar(nombre, InstantaneaBinaria.TIPO_LONGS);
+    }
+
+    void doubles(String nombre, double[] datos) throws IOException {
+        iniciar(nombre, datos.length);
+        for (int desde = 0; desde < datos.length; ) {
+            asegurar(Double.BYTES);
+            int cantidad = Math.min(datos.length - desde, buffer.remaining() / Double.BYTES);
+            buffer.asDoubleBuffer().put(datos, desde, cantidad);
+            avanzar(cantidad * Double.BYTES);
+            desde += cantidad;
+        }
+        terminar(nombre, InstantaneaBinaria.TIPO_DOUBLES);
+    }
+
+    /**
+     * Tabla de cadenas en el orden dado (acceso por posición)
+     */
+    void cadenas(String nombre, String[] cadenas) throws IOException {
+        byte[][] codificadas = new byte[cadenas.length][];
+        for (int i = 0; i < cadenas.length; i++) {
+            codificadas[i] = cadenas[i].getBytes(StandardCharsets.UTF_8);
+        }
+        escribirTabla(nombre, codificadas, false);
+    }
+
+    /**
+     * Tabla de cadenas ordenada por sus bytes UTF-8, para buscar por
+     * clave. Retorna la permutación aplicada (orden[i] = posición
+     * original de la cadena i) para escribir los valores en el mismo orden
+     */
+    int[] cadenasOrdenadas(String nombre, String[] cadenas) throws IOException {
+        byte[][] codificadas = new byte[cadenas.length][];
+        Integer[] orden = new Integer[cadenas.length];
+        for (int i = 0; i < cadenas.length; i++) {
+            codificadas[i] = cadenas[i].getBytes(StandardCharsets.UTF_8);
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> Arrays.compareUnsigned(codificadas[a], codificadas[b]));
+        byte[][] ordenadas = new byte[cadenas.length][];
+        int[] permutacion = new int[cadenas.length];
+        for (int i = 0; i < cadenas.length; i++) {
+            permutacion[i] = orden[i];
+            ordenadas[i] = codificadas[orden[i]];
+            if (i > 0 && Arrays.equals(ordenadas[i], ordenadas[i - 1])) {
+                throw new IllegalArgumentException("Clave repetida en " + nombre + ": " + cadenas[orden[i]]);
+            }
+        }
+        escribirTabla(nombre, ordenadas, true);
+        return permutacion;
+    }
+
+    private void escribirTabla(String nombre, byte[][] cadenas, boolean ordenada) throws IOException {
+        iniciar(nombre, cadenas.length);
+        // Reemplaza el relleno del encabezado de la sección por la marca de orden
+        buffer.putInt(buffer.position() - Integer.BYTES, ordenada ? 1 : 0);
+        int inicio = 0;
+        for (byte[] cadena : cadenas) {
+            escribirInt(inicio);
+            inicio += cadena.length;
+        }
+        escribirInt(inicio);
+        alinear();
+        for (byte[] cadena : cadenas) {
+            for (int desde = 0; desde < cadena.length; ) {
+                asegurar(1);
+                int cantidad = Math.min(cadena.length - desde, buffer.remaining());
+                buffer.put(cadena, desde, cantidad);
+                escritos += cantidad;
+                desde += cantidad;
+            }
+        }
+        terminar(nombre, InstantaneaBinaria.TIPO_CADENAS);
+    }
+
+    /**
+     * Cada sección empieza con la cantidad de elementos y 4 bytes de relleno
+     */
+    private void iniciar(String nombre, int cantidad) throws IOException {
+        if (!nombres.add(nombre)) {
+            throw new IllegalArgumentException("Sección repetida: " + nombre);
+        }
+        inicioSeccion = escritos;
+        asegurar(2 * Integer.BYTES);
+        buffer.putInt(cantidad);
+        buffer.putInt(0);
+        escritos += 2 * Integer.BYTES;
+    }
+
+    private void terminar(String nombre, byte tipo) throws IOException {
+        alinear();
+        directorio.add(new Object[] {nombre, tipo, inicioSeccion, escritos - inicioSeccion});
+    }
+
+    private void escribirInt(int valor) throws IOException {
+        asegurar(Integer.BYTES);
+        buffer.putInt(valor);
+        escritos += Integer.BYTES;
+    }
+
+    private void alinear() throws IOException {
+        while (escritos % 8 != 0) {
+            asegurar(1);
+            buffer.put((byte) 0);
+            escritos++;
+        }
+    }
+
+    private void avanzar(int cantidadBytes) {
+        buffer.position(buffer.position() + cantidadBytes);
+        escritos += cantidadBytes;
+    }
+
+    private void asegurar(int cantidadBytes) throws IOException {
+        if (buffer.remaining() < cantidadBytes) {
+            vaciar();
+        }
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long posicionDirectorio = escritos;
+            for (Object[] entrada : directorio) {
+                byte[] nombre = ((String) entrada[0]).getBytes(StandardCharsets.UTF_8);
+                asegurar(2 + nombre.length + 1 + 2 * Long.BYTES);
+                buffer.putShort((short) nombre.length);
+                buffer.put(nombre);
+                buffer.put((Byte) entrada[1]);
+                buffer.putLong((Long) entrada[2]);
+                buffer.putLong((Long) entrada[3]);
+            }
+            vaciar();
+            ByteBuffer encabezado = ByteBuffer.allocate(InstantaneaBinaria.BYTES_ENCABEZADO);
+            encabezado.putInt(InstantaneaBinaria.MAGIC).putInt(InstantaneaBinaria.VERSION)
+                .putInt(directorio.size()).putInt(0).putLong(posicionDirectorio).flip();
+            while (encabezado.hasRemaining()) {
+                canal.write(encabezado, encabezado.position());
+            }
+        } finally {
+            canal.close();
+        }
+    }
+}
+
+/**
+ * Tabla de cadenas mapeada: decodifica solo la cadena que se pide
+ */
+class TablaCadenas {
+    private final int size;
+    private final boolean ordenada;
+    private final IntBuffer inicios;
+    private final ByteBuffer datos;
+
+    TablaCadenas(ByteBuffer seccion) {
+        size = seccion.getInt(0);
+        ordenada = seccion.getInt(4) == 1;
+        inicios = seccion.position(8).slice().asIntBuffer().limit(size + 1);
+        int posicionDatos = 8 + (size + 1) * Integer.BYTES;
+        posicionDatos += (8 - posicionDatos % 8) % 8;
+        datos = seccion.position(posicionDatos).slice();
+    }
+
+    int size() {
+        return size;
+    }
+
+    String get(int i) {
+        int inicio = inicios.get(i);
+        byte[] bytes = new byte[inicios.get(i + 1) - inicio];
+        datos.get(inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Posición de la cadena (búsqueda binaria sobre los bytes), o
+     * -(punto de inserción) - 1 si no está
+     */
+    int indice(String cadena) {
+        if (!ordenada) {
+            throw new IllegalStateException("La tabla no está ordenada");
+        }
+        byte[] buscada = cadena.getBytes(StandardCharsets.UTF_8);
+        int bajo = 0;
+        int alto = size - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            int comparacion = comparar(medio, buscada);
+            if (comparacion < 0) {
+                bajo = medio + 1;
+            } else if (comparacion > 0) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(bajo + 1);
+    }
+
+    private int comparar(int i, byte[] buscada) {
+        int inicio = inicios.get(i);
+        int largo = inicios.get(i + 1) - inicio;
+        int comun = Math.min(largo, buscada.length);
+        for (int k = 0; k < comun; k++) {
+            int diferencia = (datos.get(inicio + k) & 0xFF) - (buscada[k] & 0xFF);
+            if (diferencia != 0) {
+                return diferencia;
+            }
+        }
+        return largo - buscada.length;
+    }
+}
+
+class InventarioMapeado {
+    private final TablaCadenas codigos;
+    private final TablaCadenas nombres;
+    private final DoubleBuffer precios;
+    private final IntBuffer cantidades;
+
+    InventarioMapeado(TablaCadenas codigos, TablaCadenas nombres, DoubleBuffer precios, IntBuffer cantidades) {
+        this.codigos = codigos;
+        this.nombres = nombres;
+        this.precios = precios;
+        this.cantidades = cantidades;
+    }
+
+    /**
+     * Producto con ese código (se crea al consultarlo), o null
+     */
+    Producto buscar(String codigo) {
+        int i = codigos.indice(codigo);
+        return i < 0 ? null : new Producto(nombres.get(i), precios.get(i), cantidades.get(i));
+    }
+
+    int size() {
+        return codigos.size();
+    }
+}
+
+class MapaMapeado {
+    private final TablaCadenas claves;
+    private final TablaCadenas valores;
+
+    MapaMapeado(TablaCadenas claves, TablaCadenas valores) {
+        this.claves = claves;
+        this.valores = valores;
+    }
+
+    String get(String clave) {
+        int i = claves.indice(clave);
+        return i < 0 ? null : valores.get(i);
+    }
+
+    int size() {
+        return claves.size();
+    }
+}
+
+class RankingMapeado {
+    private final TablaCadenas nombres;
+    private final IntBuffer calificaciones;
+
+    RankingMapeado(TablaCadenas nombres, IntBuffer calificaciones) {
+        this.nombres = nombres;
+        this.calificaciones = calificaciones;
+    }
+
+    Estudiante get(int posicion) {
+        return new Estudiante(nombres.get(posicion), calificaciones.get(posicion));
+    }
+
+    int size() {
+        return nombres.size();
+    }
+}
+
+class ColaTareasMapeada {
+    private final MonticuloLong monticulo;
+    private final TablaCadenas descripciones;
+
+    ColaTareasMapeada(MonticuloLong monticulo, TablaCadenas descripciones) {
+        this.monticulo = monticulo;
+        this.descripciones = descripciones;
+    }
+
+    Tarea poll() {
+        long clave = monticulo.poll();
+        return new Tarea(descripciones.get(AlmacenColumnar.filaDe(clave)), (int) (clave >> 32));
+    }
+
+    boolean isEmpty() {
+        return monticulo.isEmpty();
+    }
+
+    int size() {
+        return monticulo.size();
+    }
+}
@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Inventario de EjemploMap con índices por precio y por stock
+ *
+ * El inventario de EjemploMap es un HashMap<String, Producto>: buscar
+ * por código es O(1), pero "productos entre $50 y $200" o "stock menor
+ * a 10" recorren todo el mapa. Esta colección mantiene, además del
+ * mapa principal:
+ * - Un índice ordenado por precio: TreeSet de (precio, código). Un rango
+ *   de precios es un subSet, O(log n + k)
+ * - Un índice por cantidad en cubetas: una cubeta por cada stock de 0 a
+ *   1023 y otra para el resto. "Stock menor a u" junta las cubetas 0 a
+ *   u - 1, O(u + k)
+ * - Consultas combinadas: recorren el índice con menos candidatos y
+ *   verifican la otra condición en el mapa principal
+ *
+ * Los índices se actualizan en cada agregar, eliminar, actualizarPrecio
+ * y actualizarCantidad. Por eso los productos guardados no salen de la
+ * colección: agregar() guarda una copia, get() devuelve otra y los
+ * cambios pasan por los métodos de actualización.
+ */
+public class InventarioIndexado {
+
+    static final int CUBETAS_EXACTAS = 1024;
+
+    private static final Comparator<EntradaPrecio> POR_PRECIO =
+        Comparator.comparingDouble((EntradaPrecio e) -> e.precio).thenComparing(e -> e.codigo);
+
+    private final HashMap<String, Producto> productos = new HashMap<>();
+    private final TreeSet<EntradaPrecio> porPrecio = new TreeSet<>(POR_PRECIO);
+    private final List<HashSet<String>> porCantidad = new ArrayList<>(CUBETAS_EXACTAS + 1);
+
+    public InventarioIndexado() {
+        for (int i = 0; i <= CUBETAS_EXACTAS; i++) {
+            porCantidad.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un producto. Se guarda una copia
+     */
+    public void agregar(String codigo, Producto producto) {
+        if (producto.cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + producto.cantidad);
+        }
+        eliminar(codigo);
+        Producto copia = new Producto(producto.nombre, producto.precio, producto.cantidad);
+        productos.put(codigo, copia);
+        porPrecio.add(new EntradaPrecio(copia.precio, codigo));
+        cubeta(copia.cantidad).add(codigo);
+    }
+
+    /**
+     * Una copia del producto guardado, o null. Modificarla no cambia el
+     * inventario: para eso están actualizarPrecio y actualizarCantidad
+     */
+    public Producto get(String codigo) {
+        Producto producto = productos.get(codigo);
+        return producto == null ? null : new Producto(producto.nombre, producto.precio, producto.cantidad);
+    }
+
+    public Producto eliminar(String codigo) {
+        Producto producto = productos.remove(codigo);
+        if (producto != null) {
+            porPrecio.remove(new EntradaPrecio(producto.precio, codigo));
+            cubeta(producto.cantidad).remove(codigo);
+        }
+        return producto;
+    }
+
+    public void actualizarPrecio(String codigo, double precio) {
+        Producto producto = buscarExistente(codigo);
+        porPrecio.remove(new EntradaPrecio(producto.precio, codigo));
+        producto.precio = precio;
+        porPrecio.add(new EntradaPrecio(precio, codigo));
+    }
+
+    public void actualizarCantidad(String codigo, int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + cantidad);
+        }
+        Producto producto = buscarExistente(codigo);
+        if (cubeta(producto.cantidad) != cubeta(cantidad)) {
+            cubeta(producto.cantidad).remove(codigo);
+            cubeta(cantidad).add(codigo);
+        }
+        producto.cantidad = cantidad;
+    }
+
+    /**
+     * Códigos con precio en [minimo, maximo], de menor a mayor precio
+     */
+    public List<String> porRangoPrecio(double minimo, double maximo) {
+        List<String> codigos = new ArrayList<>();
+        for (EntradaPrecio entrada : rangoPrecio(minimo, maximo)) {
+            codigos.add(entrada.codigo);
+        }
+        return codigos;
+    }
+
+    /**
+     * Códigos con cantidad menor que el umbral (sin orden)
+     */
+    public List<String> conStockMenorA(int umbral) {
+        List<String> codigos = new ArrayList<>();
+        int exactas = Math.min(Math.max(umbral, 0), CUBETAS_EXACTAS);
+        for (int i = 0; i < exactas; i++) {
+            codigos.addAll(porCantidad.get(i));
+        }
+        if (umbral > CUBETAS_EXACTAS) {
+            // Cubeta del resto: hay que verificar cada cantidad
+            for (String codigo : porCantidad.get(CUBETAS_EXACTAS)) {
+                if (productos.get(codigo).cantidad < umbral) {
+                    codigos.add(codigo);
+                }
+            }
+        }
+        return codigos;
+    }
+
+    /**
+     * Códigos con precio en [minimo, maximo] y cantidad menor que el
+     * umbral. Recorre el índice con menos candidatos: primero cuenta los
+     * del stock y avanza por el rango de precios hasta esa cantidad; si
+     * el rango termina antes, es el más chico
+     */
+    public List<String> buscar(double precioMinimo, double precioMaximo, int stockMenorA) {
+        long candidatosStock = 0;
+        int exactas = Math.min(Math.max(stockMenorA, 0), CUBETAS_EXACTAS);
+        for (int i = 0; i < exactas; i++) {
+            candidatosStock += porCantidad.get(i).size();
+        }
+        if (stockMenorA > CUBETAS_EXACTAS) {
+            candidatosStock += porCantidad.get(CUBETAS_EXACTAS).size();
+        }
+
+        NavigableSet<EntradaPrecio> rango = rangoPrecio(precioMinimo, precioMaximo);
+        List<String> codigos = new ArrayList<>();
+        long recorridos = 0;
+        for (EntradaPrecio entrada : rango) {
+            if (++recorridos > candidatosStock) {
+                break;
+            }
+            if (productos.get(entrada.codigo).cantidad < stockMenorA) {
+                codigos.add(entrada.codigo);
+            }
+        }
+        if (recorridos <= candidatosStock) {
+            return codigos;
+        }
+
+        codigos.clear();
+        for (String codigo : conStockMenorA(stockMenorA)) {
+            double precio = productos.get(codigo).precio;
+            if (precio >= precioMinimo && precio <= precioMaximo) {
+                codigos.add(codigo);
+            }
+        }
+        return codigos;
+    }
+
+    public int size() {
+        return productos.size();
+    }
+
+    private NavigableSet<EntradaPrecio> rangoPrecio(double minimo, double maximo) {
+        if (minimo > maximo) {
+            return new TreeSet<>(POR_PRECIO);
+        }
+        // El código "" es el menor posible: desde (minimo, "") inclusive
+        // hasta (el double siguiente a maximo, "") exclusive
+        return porPrecio.subSet(new EntradaPrecio(minimo, ""), true,
+            new EntradaPrecio(Math.nextUp(maximo), ""), false);
+    }
+
+    private HashSet<String> cubeta(int cantidad) {
+        return porCantidad.get(Math.min(cantidad, CUBETAS_EXACTAS));
+    }
+
+    private Producto buscarExistente(String codigo) {
+        Producto producto = productos.get(codigo);
+        if (producto == null) {
+            throw new IllegalArgumentException("No existe el producto: " + codigo);
+        }
+        return producto;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== INVENTARIO DE EjemploMap CON ÍNDICES ===\n");
+        InventarioIndexado inventario = new InventarioIndexado();
+        inventario.agregar("LAP001", new Producto("Laptop Dell", 1200.0, 15));
+        inventario.agregar("MOU002", new Producto("Mouse Logitech", 25.0, 50));
+        inventario.agregar("TEC003", new Producto("Teclado Mecánico", 80.0, 30));
+        inventario.agregar("MON004", new Producto("Monitor 24\"", 180.0, 4));
+        inventario.agregar("AUD005", new Producto("Audífonos", 60.0, 8));
+
+        System.out.println("Precio entre $50 y $200: " + inventario.porRangoPrecio(50, 200));
+        System.out.println("Stock menor a 10: " + inventario.conStockMenorA(10));
+        System.out.println("Entre $50 y $200 con stock menor a 10: " + inventario.buscar(50, 200, 10));
+        inventario.actualizarCantidad("TEC003", 2);
+        inventario.actualizarPrecio("MON004", 220.0);
+        System.out.println("Tras vender teclados y subir el monitor: " + inventario.buscar(50, 200, 10));
+
+        System.out.println("\n=== CONSULTAS CON ÍNDICES VS RECORRER EL HashMap ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        comparacionRecorrido(n);
+    }
+
+    /**
+     * n productos con precio entre $1 y $1000 y stock entre 0 y 499.
+     * Compara cada tipo de consulta contra un recorrido de HashMap.values()
+     */
+    public static void comparacionRecorrido(int n) {
+        Random random = new Random(47);
+        HashMap<String, Producto> mapa = new HashMap<>();
+        InventarioIndexado inventario = new InventarioIndexado();
+        for (int i = 0; i < n; i++) {
+            String codigo = String.format("P%08d", i);
+            Producto producto = new Producto("Producto " + (i % 1000), 1 + random.nextInt(99_900) / 100.0,
+                random.nextInt(500));
+            mapa.put(codigo, producto);
+            inventario.agregar(codigo, producto);
+        }
+
+        int consultas = 20;
+        for (int ronda = 1; ronda <= 2; ronda++) {
+            // La primera ronda calienta el JIT
+            long[] indexado = new long[3];
+            long[] recorrido = new long[3];
+            long resultados = 0;
+            for (int q = 0; q < consultas; q++) {
+                double desde = 1 + random.nextInt(990);
+                int umbral = 1 + random.nextInt(10);
+
+                long inicio = System.nanoTime();
+                int rango = inventario.porRangoPrecio(desde, desde + 1).size();
+                indexado[0] += System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                int stock = inventario.conStockMenorA(umbral).size();
+                indexado[1] += System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                int combinada = inventario.buscar(desde, desde + 100, umbral).size();
+                indexado[2] += System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                int rangoScan = 0;
+                for (Producto producto : mapa.values()) {
+                    if (producto.precio >= desde && producto.precio <= desde + 1) {
+                        rangoScan++;
+                    }
+                }
+                recorrido[0] += System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                int stockScan = 0;
+                for (Producto producto : mapa.values()) {
+                    if (producto.cantidad < umbral) {
+                        stockScan++;
+                    }
+                }
+                recorrido[1] += System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                int combinadaScan = 0;
+                for (Producto producto : mapa.values()) {
+                    if (producto.precio >= desde && producto.precio <= desde + 100 && producto.cantidad < umbral) {
+                        combinadaScan++;
+                    }
+                }
+                recorrido[2] += System.nanoTime() - inicio;
+
+                if (rango != rangoScan || stock != stockScan || combinada != combinadaScan) {
+                    throw new IllegalStateException("Los índices no coinciden con el recorrido");
+                }
+                resultados += rango + stock + combinada;
+            }
+            if (ronda == 2) {
+                String[] nombres = {"Precio en [x, x + 1]", "Stock menor a u (u <= 10)",
+                    "Precio en [x, x + 100] y stock < u"};
+                System.out.println(n + " productos, " + consultas + " consultas de cada tipo (promedio):");
+                System.out.printf("  %-36s %12s %12s%n", "Consulta", "Índices", "Recorrido");
+                for (int i = 0; i < 3; i++) {
+                    System.out.printf("  %-36s %9.3f ms %9.3f ms%n", nombres[i], indexado[i] / 1e6 / consultas,
+                        recorrido[i] / 1e6 / consultas);
+                }
+                System.out.println("  Resultados por consulta (promedio): " + resultados / (3 * consultas));
+            }
+        }
+    }
+}
+
+/**
+ * Entrada del índice de precios. El código desempata productos con el
+ * mismo precio
+ */
+class EntradaPrecio {
+    final double precio;
+    final String codigo;
+
+    EntradaPrecio(double precio, String codigo) {
+        this.precio = precio;
+        this.codigo = codigo;
+    }
+}
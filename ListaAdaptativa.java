@@ -0,0 +1,616 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.RandomAccess;
+
+/**
+ * Lista que elige su representación según cómo se la usa
+ *
+ * EjemploList.comparacionRendimiento() termina con una regla escrita a
+ * mano: ArrayList para acceso por índice, LinkedList para insertar al
+ * inicio. Pero al crear una lista no siempre se sabe cómo se va a usar.
+ * ListaAdaptativa guarda los elementos en una de tres representaciones:
+ * - ARREGLO: como ArrayList. Acceso O(1), insertar en i mueve n - i
+ * - CIRCULAR: como ArrayDeque con índices. Acceso O(1), insertar en i
+ *   mueve min(i, n - i), así que ambos extremos son O(1)
+ * - BLOQUES: bloques de hasta 256 elementos. Acceso O(log n) e insertar
+ *   en cualquier posición mueve a lo sumo un bloque
+ *
+ * Una de cada 16 operaciones (al azar) se muestrea y se le suma a cada
+ * representación su costo estimado (elementos movidos o visitados).
+ * Cada 256 muestras se compara el costo acumulado: se migra solo si lo
+ * que se ahorraría en la próxima ventana supera el doble de copiar la
+ * lista, así el costo de migrar queda amortizado y no hay oscilaciones.
+ */
+public class ListaAdaptativa<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int MUESTREO = 16;
+    private static final int MUESTRAS_POR_VENTANA = 256;
+    private static final int FACTOR_MIGRACION = 2;
+
+    private SoporteLista<E> soporte;
+    private RepresentacionLista representacion;
+    private final double[] costos = new double[RepresentacionLista.values().length];
+    private long semilla = 0x9E3779B97F4A7C15L;
+    private int muestras;
+    private int migraciones;
+
+    public ListaAdaptativa() {
+        this(RepresentacionLista.ARREGLO);
+    }
+
+    public ListaAdaptativa(RepresentacionLista inicial) {
+        representacion = inicial;
+        soporte = SoporteLista.crear(inicial, new Object[0], 0);
+    }
+
+    public ListaAdaptativa(Collection<? extends E> elementos) {
+        this();
+        addAll(elementos);
+    }
+
+    @Override
+    public E get(int indice) {
+        verificarIndice(indice, size());
+        observar(TipoOperacion.ACCESO, indice);
+        return soporte.get(indice);
+    }
+
+    @Override
+    public E set(int indice, E elemento) {
+        verificarIndice(indice, size());
+        observar(TipoOperacion.ACCESO, indice);
+        return soporte.set(indice, elemento);
+    }
+
+    @Override
+    public void add(int indice, E elemento) {
+        verificarIndice(indice, size() + 1);
+        observar(TipoOperacion.INSERCION, indice);
+        soporte.add(indice, elemento);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int indice) {
+        verificarIndice(indice, size());
+        observar(TipoOperacion.ELIMINACION, indice);
+        modCount++;
+        return soporte.remove(indice);
+    }
+
+    @Override
+    public int size() {
+        return soporte.size();
+    }
+
+    @Override
+    public void clear() {
+        soporte = SoporteLista.crear(representacion, new Object[0], 0);
+        modCount++;
+    }
+
+    public RepresentacionLista representacion() {
+        return representacion;
+    }
+
+    public int migraciones() {
+        return migraciones;
+    }
+
+    private static void verificarIndice(int indice, int limite) {
+        if (indice < 0 || indice >= limite) {
+            throw new IndexOutOfBoundsException("Índice: " + indice + ", tamaño: " + limite);
+        }
+    }
+
+    /**
+     * Acumula el costo de la operación en cada representación (solo las
+     * muestreadas) y al cerrar la ventana decide si conviene migrar
+     */
+    private void observar(TipoOperacion tipo, int indice) {
+        // Muestreo pseudoaleatorio: con un contador fijo, una carga que
+        // alterna dos operaciones mostraría siempre la misma
+        semilla = semilla * 6364136223846793005L + 1442695040888963407L;
+        if ((semilla >>> 40) % MUESTREO != 0) {
+            return;
+        }
+        int n = size();
+        for (RepresentacionLista candidata : RepresentacionLista.values()) {
+            costos[candidata.ordinal()] += candidata.costo(tipo, indice, n);
+        }
+        if (++muestras < MUESTRAS_POR_VENTANA) {
+            return;
+        }
+        RepresentacionLista mejor = representacion;
+        for (RepresentacionLista candidata : RepresentacionLista.values()) {
+            if (costos[candidata.ordinal()] < costos[mejor.ordinal()]) {
+                mejor = candidata;
+            }
+        }
+        // Lo muestreado representa MUESTREO operaciones de la ventana
+        double ahorro = (costos[representacion.ordinal()] - costos[mejor.ordinal()]) * MUESTREO;
+        if (mejor != representacion && ahorro > (double) FACTOR_MIGRACION * n) {
+            migrar(mejor);
+        }
+        // Las ventanas anteriores pesan cada vez menos
+        for (int i = 0; i < costos.length; i++) {
+            costos[i] /= 2;
+        }
+        muestras = 0;
+    }
+
+    private void migrar(RepresentacionLista nueva) {
+        Object[] elementos = soporte.aArreglo();
+        soporte = SoporteLista.crear(nueva, elementos, elementos.length);
+        representacion = nueva;
+        migraciones++;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== ADAPTACIÓN AL PATRÓN DE USO ===\n");
+        ejemploAdaptacion();
+
+        System.out.println("\n=== COMPARACIÓN CON ARRAYLIST Y LINKEDLIST ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        comparacionRendimiento(n);
+    }
+
+    public static void ejemploAdaptacion() {
+        ListaAdaptativa<Integer> lista = new ListaAdaptativa<>();
+        for (int i = 0; i < 20_000; i++) {
+            lista.add(i);
+        }
+        System.out.println("Después de agregar al final: " + lista.representacion());
+
+        for (int i = 0; i < 20_000; i++) {
+            lista.add(0, i); // Como la cola de EjemploList, pero sobre una lista
+            lista.remove(lista.size() - 1);
+        }
+        System.out.println("Después de insertar al inicio y sacar del final: " + lista.representacion());
+
+        Random random = new Random(1);
+        for (int i = 0; i < 20_000; i++) {
+            lista.add(random.nextInt(lista.size()), i);
+        }
+        System.out.println("Después de insertar en posiciones al azar: " + lista.representacion());
+        System.out.println("Migraciones: " + lista.migraciones() + ", tamaño: " + lista.size());
+    }
+
+    /**
+     * Cuatro cargas de trabajo, incluida una que cambia de patrón a mitad de camino
+     */
+    public static void comparacionRendimiento(int n) {
+        String[] cargas = {"acceso por índice", "insertar al inicio", "insertar al medio", "por fases"};
+        System.out.printf("  %-20s %12s %12s %12s%n", "Carga (n = " + n + ")", "ArrayList", "LinkedList",
+            "Adaptativa");
+        for (int ronda = 0; ronda < 2; ronda++) { // La primera ronda calienta el JIT
+            for (int c = 0; c < cargas.length; c++) {
+                long arrayList = medir(new ArrayList<>(), c, n);
+                long linkedList = medir(new LinkedList<>(), c, n);
+                ListaAdaptativa<Integer> adaptativa = new ListaAdaptativa<>();
+                long tiempoAdaptativa = medir(adaptativa, c, n);
+                if (ronda == 1) {
+                    System.out.printf("  %-20s %9.1f ms %9.1f ms %9.1f ms  (%s, %d migraciones)%n", cargas[c],
+                        arrayList / 1e6, linkedList / 1e6, tiempoAdaptativa / 1e6, adaptativa.representacion(),
+                        adaptativa.migraciones());
+                }
+            }
+        }
+    }
+
+    private static long medir(List<Integer> lista, int carga, int n) {
+        Random random = new Random(7);
+        long inicio = System.nanoTime();
+        long suma = 0;
+        if (carga == 0 || carga == 3) {
+            for (int i = 0; i < n; i++) {
+                lista.add(i);
+            }
+            for (int i = 0; i < n; i++) {
+                suma += lista.get(random.nextInt(lista.size()));
+            }
+        }
+        if (carga == 1 || carga == 3) {
+            for (int i = 0; i < n; i++) {
+                lista.add(0, i);
+                if (lista.size() > n) {
+                    suma += lista.remove(lista.size() - 1);
+                }
+            }
+        }
+        if (carga == 2 || carga == 3) {
+            for (int i = 0; i < n; i++) {
+                lista.add(random.nextInt(lista.size() + 1), i);
+            }
+            for (int i = 0; i < n / 2; i++) {
+                suma += lista.remove(random.nextInt(lista.size()));
+            }
+        }
+        long tiempo = System.nanoTime() - inicio;
+        if (suma == -1) {
+            System.out.println(suma); // Evita que el JIT elimine las lecturas
+        }
+        return tiempo;
+    }
+}
+
+enum TipoOperacion {
+    ACCESO, INSERCION, ELIMINACION
+}
+
+/**
+ * Representaciones posibles y su costo estimado por operación, en
+ * elementos movidos o visitados. Mover con System.arraycopy cuesta
+ * alrededor de un cuarto que mover de a un elemento en un ciclo
+ */
+enum RepresentacionLista {
+    ARREGLO {
+        @Override
+        double costo(TipoOperacion tipo, int indice, int n) {
+            return tipo == TipoOperacion.ACCESO ? 1 : 1 + COPIA * Math.max(0, n - indice - 1);
+        }
+    },
+    CIRCULAR {
+        @Override
+        double costo(TipoOperacion tipo, int indice, int n) {
+            return tipo == TipoOperacion.ACCESO ? 1 : 1 + Math.max(0, Math.min(indice, n - indice - 1));
+        }
+    },
+    BLOQUES {
+        @Override
+        double costo(TipoOperacion tipo, int indice, int n) {
+            // Búsqueda binaria del bloque; al modificar se mueve medio bloque
+            // y se actualizan los inicios de los bloques siguientes
+            int bloques = n / SoporteBloques.CAPACIDAD + 1;
+            double busqueda = 2 + 32 - Integer.numberOfLeadingZeros(bloques);
+            if (tipo == TipoOperacion.ACCESO) {
+                return busqueda;
+            }
+            int bloquesSiguientes = Math.max(0, (n - indice) / SoporteBloques.CAPACIDAD);
+            return busqueda + COPIA * (SoporteBloques.CAPACIDAD / 4.0 + bloquesSiguientes);
+        }
+    };
+
+    private static final double COPIA = 0.25;
+
+    abstract double costo(TipoOperacion tipo, int indice, int n);
+}
+
+/**
+ * Almacenamiento concreto de una ListaAdaptativa (los índices ya vienen validados)
+ */
+abstract class SoporteLista<E> {
+
+    abstract E get(int indice);
+
+    abstract E set(int indice, E elemento);
+
+    abstract void add(int indice, E elemento);
+
+    abstract E remove(int indice);
+
+    abstract int size();
+
+    abstract Object[] aArreglo();
+
+    static <E> SoporteLista<E> crear(RepresentacionLista representacion, Object[] elementos, int n) {
+        switch (representacion) {
+            case CIRCULAR:
+                return new SoporteCircular<>(elementos, n);
+            case BLOQUES:
+                return new SoporteBloques<>(elementos, n);
+            default:
+                return new SoporteArreglo<>(elementos, n);
+        }
+    }
+}
+
+class SoporteArreglo<E> extends SoporteLista<E> {
+    private Object[] datos;
+    private int tamanio;
+
+    SoporteArreglo(Object[] elementos, int n) {
+        datos = Arrays.copyOf(elementos, Math.max(10, n));
+        tamanio = n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    E get(int indice) {
+        return (E) datos[indice];
+    }
+
+    @Override
+    E set(int indice, E elemento) {
+        E anterior = get(indice);
+        datos[indice] = elemento;
+        return anterior;
+    }
+
+    @Override
+    void add(int indice, E elemento) {
+        if (tamanio == datos.length) {
+            datos = Arrays.copyOf(datos, datos.length + (datos.length >> 1));
+        }
+        System.arraycopy(datos, indice, datos, indice + 1, tamanio - indice);
+        datos[indice] = elemento;
+        tamanio++;
+    }
+
+    @Override
+    E remove(int indice) {
+        E eliminado = get(indice);
+        System.arraycopy(datos, indice + 1, datos, indice, tamanio - indice - 1);
+        datos[--tamanio] = null;
+        return eliminado;
+    }
+
+    @Override
+    int size() {
+        return tamanio;
+    }
+
+    @Override
+    Object[] aArreglo() {
+        return Arrays.copyOf(datos, tamanio);
+    }
+}
+
+/**
+ * Buffer circular con capacidad potencia de dos: mueve la mitad más corta
+ */
+class SoporteCircular<E> extends SoporteLista<E> {
+    private Object[] datos;
+    private int cabeza;
+    private int tamanio;
+
+    SoporteCircular(Object[] elementos, int n) {
+        datos = new Object[Math.max(16, Integer.highestOneBit(Math.max(1, n)) << 1)];
+        System.arraycopy(elementos, 0, datos, 0, n);
+        tamanio = n;
+    }
+
+    private int posicion(int indice) {
+        return (cabeza + indice) & (datos.length - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    E get(int indice) {
+        return (E) datos[posicion(indice)];
+    }
+
+    @Override
+    E set(int indice, E elemento) {
+        int p = posicion(indice);
+        @SuppressWarnings("unchecked")
+        E anterior = (E) datos[p];
+        datos[p] = elemento;
+        return anterior;
+    }
+
+    @Override
+    void add(int indice, E elemento) {
+        if (tamanio == datos.length) {
+            Object[] nuevos = new Object[datos.length << 1];
+            for (int i = 0; i < tamanio; i++) {
+                nuevos[i] = datos[posicion(i)];
+            }
+            datos = nuevos;
+            cabeza = 0;
+        }
+        if (indice < tamanio / 2) {
+            // Corre los primeros "indice" elementos una posición hacia atrás
+            cabeza = (cabeza - 1) & (datos.length - 1);
+            for (int i = 0; i < indice; i++) {
+                datos[posicion(i)] = datos[posicion(i + 1)];
+            }
+        } else {
+            for (int i = tamanio; i > indice; i--) {
+                datos[posicion(i)] = datos[posicion(i - 1)];
+            }
+        }
+        datos[posicion(indice)] = elemento;
+        tamanio++;
+    }
+
+    @Override
+    E remove(int indice) {
+        E eliminado = get(indice);
+        if (indice < tamanio / 2) {
+            for (int i = indice; i > 0; i--) {
+                datos[posicion(i)] = datos[posicion(i - 1)];
+            }
+            datos[cabeza] = null;
+            cabeza = (cabeza + 1) & (datos.length - 1);
+        } else {
+            for (int i = indice; i < tamanio - 1; i++) {
+                datos[posicion(i)] = datos[posicion(i + 1)];
+            }
+            datos[posicion(tamanio - 1)] = null;
+        }
+        tamanio--;
+        return eliminado;
+    }
+
+    @Override
+    int size() {
+        return tamanio;
+    }
+
+    @Override
+    Object[] aArreglo() {
+        Object[] copia = new Object[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            copia[i] = datos[posicion(i)];
+        }
+        return copia;
+    }
+}
+
+/**
+ * Bloques de hasta CAPACIDAD elementos con el índice donde empieza
+ * cada uno; un bloque lleno se parte en dos y dos vecinos chicos se unen
+ */
+class SoporteBloques<E> extends SoporteLista<E> {
+    static final int CAPACIDAD = 256;
+
+    private Object[][] bloques = new Object[4][];
+    private int[] tamanios = new int[4];
+    private int[] inicios = new int[4];
+    private int numBloques;
+    private int tamanio;
+
+    SoporteBloques(Object[] elementos, int n) {
+        for (int desde = 0; desde < n; desde += CAPACIDAD / 2) {
+            int cantidad = Math.min(CAPACIDAD / 2, n - desde);
+            Object[] bloque = new Object[CAPACIDAD];
+            System.arraycopy(elementos, desde, bloque, 0, cantidad);
+            insertarBloque(numBloques, bloque, cantidad, desde);
+        }
+        tamanio = n;
+    }
+
+    /**
+     * Último bloque que empieza en o antes del índice (búsqueda binaria)
+     */
+    private int ubicar(int indice) {
+        int bajo = 0;
+        int alto = numBloques - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (inicios[medio] <= indice) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    E get(int indice) {
+        int b = ubicar(indice);
+        return (E) bloques[b][indice - inicios[b]];
+    }
+
+    @Override
+    E set(int indice, E elemento) {
+        int b = ubicar(indice);
+        @SuppressWarnings("unchecked")
+        E anterior = (E) bloques[b][indice - inicios[b]];
+        bloques[b][indice - inicios[b]] = elemento;
+        return anterior;
+    }
+
+    @Override
+    void add(int indice, E elemento) {
+        if (numBloques == 0) {
+            insertarBloque(0, new Object[CAPACIDAD], 0, 0);
+        }
+        int b = indice == tamanio ? numBloques - 1 : ubicar(indice);
+        if (tamanios[b] == CAPACIDAD) {
+            partir(b);
+            if (indice - inicios[b] > tamanios[b]) {
+                b++;
+            }
+        }
+        int desplazamiento = indice - inicios[b];
+        Object[] bloque = bloques[b];
+        System.arraycopy(bloque, desplazamiento, bloque, desplazamiento + 1, tamanios[b] - desplazamiento);
+        bloque[desplazamiento] = elemento;
+        tamanios[b]++;
+        for (int i = b + 1; i < numBloques; i++) {
+            inicios[i]++;
+        }
+        tamanio++;
+    }
+
+    @Override
+    E remove(int indice) {
+        int b = ubicar(indice);
+        int desplazamiento = indice - inicios[b];
+        Object[] bloque = bloques[b];
+        @SuppressWarnings("unchecked")
+        E eliminado = (E) bloque[desplazamiento];
+        System.arraycopy(bloque, desplazamiento + 1, bloque, desplazamiento, tamanios[b] - desplazamiento - 1);
+        bloque[--tamanios[b]] = null;
+        for (int i = b + 1; i < numBloques; i++) {
+            inicios[i]--;
+        }
+        tamanio--;
+        if (tamanios[b] == 0) {
+            quitarBloque(b);
+        } else if (b + 1 < numBloques && tamanios[b] + tamanios[b + 1] <= CAPACIDAD / 2) {
+            unir(b);
+        } else if (b > 0 && tamanios[b - 1] + tamanios[b] <= CAPACIDAD / 2) {
+            unir(b - 1);
+        }
+        return eliminado;
+    }
+
+    @Override
+    int size() {
+        return tamanio;
+    }
+
+    @Override
+    Object[] aArreglo() {
+        Object[] copia = new Object[tamanio];
+        for (int b = 0; b < numBloques; b++) {
+            System.arraycopy(bloques[b], 0, copia, inicios[b], tamanios[b]);
+        }
+        return copia;
+    }
+
+    /**
+     * Mueve la segunda mitad del bloque lleno a un bloque nuevo
+     */
+    private void partir(int b) {
+        int mitad = CAPACIDAD / 2;
+        Object[] nuevo = new Object[CAPACIDAD];
+        System.arraycopy(bloques[b], mitad, nuevo, 0, CAPACIDAD - mitad);
+        Arrays.fill(bloques[b], mitad, CAPACIDAD, null);
+        tamanios[b] = mitad;
+        insertarBloque(b + 1, nuevo, CAPACIDAD - mitad, inicios[b] + mitad);
+    }
+
+    /**
+     * Pasa los elementos del bloque b + 1 al final del bloque b
+     */
+    private void unir(int b) {
+        System.arraycopy(bloques[b + 1], 0, bloques[b], tamanios[b], tamanios[b + 1]);
+        tamanios[b] += tamanios[b + 1];
+        quitarBloque(b + 1);
+    }
+
+    private void insertarBloque(int b, Object[] bloque, int cantidad, int inicio) {
+        if (numBloques == bloques.length) {
+            int capacidad = bloques.length * 2;
+            bloques = Arrays.copyOf(bloques, capacidad);
+            tamanios = Arrays.copyOf(tamanios, capacidad);
+            inicios = Arrays.copyOf(inicios, capacidad);
+        }
+        System.arraycopy(bloques, b, bloques, b + 1, numBloques - b);
+        System.arraycopy(tamanios, b, tamanios, b + 1, numBloques - b);
+        System.arraycopy(inicios, b, inicios, b + 1, numBloques - b);
+        bloques[b] = bloque;
+        tamanios[b] = cantidad;
+        inicios[b] = inicio;
+        numBloques++;
+    }
+
+    private void quitarBloque(int b) {
+        System.arraycopy(bloques, b + 1, bloques, b, numBloques - b - 1);
+        System.arraycopy(tamanios, b + 1, tamanios, b, numBloques - b - 1);
+        System.arraycopy(inicios, b + 1, inicios, b, numBloques - b - 1);
+        numBloques--;
+        bloques[numBloques] = null;
+    }
+}
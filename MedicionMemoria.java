@@ -0,0 +1,384 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Mide cuánta memoria ocupa cada colección de los ejemplos
+ *
+ * La tabla de Investigacion_Java_Collections.md solo da la complejidad
+ * temporal. Para planificar capacidad hacen falta bytes: este programa
+ * llena cada colección usada en EjemploList, EjemploSet, EjemploMap y
+ * EjemploQueue con n elementos (Integer o String) y reporta:
+ * - Bytes retenidos por elemento por la estructura (nodos, arreglos,
+ *   tablas), medidos con System.gc() antes y después de construirla.
+ *   Los elementos ya existen antes de medir, así que no se cuentan
+ * - Bytes retenidos por elemento incluyendo el elemento
+ * - Bytes asignados por inserción, contando la basura de redimensionar
+ *   (com.sun.management.ThreadMXBean.getThreadAllocatedBytes)
+ * - Bytes asignados por actualización: quitar un elemento y volver a
+ *   agregarlo, en régimen estable (nodos nuevos, boxing, etc.)
+ *
+ * Con n chico se construyen varias copias, para que la medición del
+ * heap no se pierda en el ruido del GC. El resultado es una tabla
+ * markdown que se puede pegar en el documento de investigación.
+ */
+public class MedicionMemoria {
+
+    private static final int ELEMENTOS_POR_MEDICION = 1_000_000;
+    private static final int ACTUALIZACIONES = 100_000;
+
+    // Mantiene vivas las colecciones mientras se mide el heap
+    private static Object retenida;
+
+    private final ThreadMXBean hilos = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<ResultadoMemoria> resultados = new ArrayList<>();
+
+    public MedicionMemoria() {
+        if (!hilos.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("La JVM no informa los bytes asignados por hilo");
+        }
+        hilos.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Mide todas las colecciones con ambos tipos de elemento en cada tamaño
+     */
+    public List<ResultadoMemoria> medirTodo(int... tamaños) {
+        for (int n : tamaños) {
+            for (CargaMedicion carga : CargaMedicion.values()) {
+                for (ColeccionMedida coleccion : ColeccionMedida.values()) {
+                    resultados.add(medir(coleccion, carga, n));
+                }
+            }
+        }
+        return resultados;
+    }
+
+    public ResultadoMemoria medir(ColeccionMedida coleccion, CargaMedicion carga, int n) {
+        int copias = Math.max(1, ELEMENTOS_POR_MEDICION / n);
+        long totalElementos = (long) n * copias;
+
+        // El tamaño de cada elemento no depende de n: se mide sobre
+        // muchos para que el ruido del GC no cuente (sin el arreglo)
+        int muestra = Math.max(n, ELEMENTOS_POR_MEDICION);
+        Object[] elementos = new Object[muestra];
+        long antesCarga = memoriaUsada();
+        carga.llenar(elementos);
+        double bytesCarga = (double) (memoriaUsada() - antesCarga) / muestra;
+        elementos = null;
+        Object[] datos = carga.generar(n);
+
+        Object[] instancias = new Object[copias];
+        long base = memoriaUsada();
+        long asignadosAntes = asignados();
+        for (int c = 0; c < copias; c++) {
+            instancias[c] = coleccion.construir(datos);
+        }
+        long asignadosInsercion = asignados() - asignadosAntes;
+        retenida = instancias;
+        long bytesEstructura = memoriaUsada() - base;
+
+        // Una ronda para que el JIT compile la actualización y otra para medir
+        int actualizaciones = Math.min(n, ACTUALIZACIONES);
+        Random random = new Random(31);
+        for (int i = 0; i < actualizaciones; i++) {
+            coleccion.actualizar(instancias[0], datos[random.nextInt(n)]);
+        }
+        asignadosAntes = asignados();
+        for (int i = 0; i < actualizaciones; i++) {
+            coleccion.actualizar(instancias[0], datos[random.nextInt(n)]);
+        }
+        long asignadosActualizacion = asignados() - asignadosAntes;
+
+        retenida = null;
+        return new ResultadoMemoria(coleccion, carga, n,
+            (double) bytesEstructura / totalElementos,
+            bytesCarga,
+            (double) asignadosInsercion / totalElementos,
+            (double) asignadosActualizacion / actualizaciones);
+    }
+
+    /**
+     * Tabla markdown con los resultados medidos hasta ahora
+     */
+    public String informe() {
+        StringBuilder texto = new StringBuilder();
+        texto.append("| Colección | Elemento | n | Bytes/elem. (estructura) | Bytes/elem. (con elemento)"
+            + " | Asignado por inserción | Asignado por actualización |\n");
+        texto.append("|-----------|----------|---|---:|---:|---:|---:|\n");
+        for (ResultadoMemoria resultado : resultados) {
+            texto.append(String.format("| %s | %s | %,d | %.1f | %.1f | %.1f B | %.1f B |%n",
+                resultado.coleccion.nombre, resultado.carga.nombre, resultado.n, resultado.bytesEstructura,
+                resultado.bytesEstructura + resultado.bytesCarga, resultado.asignadoInsercion,
+                resultado.asignadoActualizacion));
+        }
+        texto.append("\nJVM: ").append(System.getProperty("java.vm.name")).append(' ')
+            .append(System.getProperty("java.version"))
+            .append(", referencias comprimidas: ").append(referenciasComprimidas()).append('\n');
+        return texto.toString();
+    }
+
+    private long asignados() {
+        return hilos.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static String referenciasComprimidas() {
+        HotSpotDiagnosticMXBean diagnostico = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        return diagnostico == null ? "desconocido" : diagnostico.getVMOption("UseCompressedOops").getValue();
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Uso: java MedicionMemoria [tamaño...] [--salida archivo.md]
+     */
+    public static void main(String[] args) throws IOException {
+        List<Integer> tamaños = new ArrayList<>();
+        Path salida = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--salida")) {
+                salida = Paths.get(args[++i]);
+            } else {
+                tamaños.add(Integer.parseInt(args[i]));
+            }
+        }
+        if (tamaños.isEmpty()) {
+            tamaños.add(1_000);
+            tamaños.add(100_000);
+            tamaños.add(1_000_000);
+        }
+
+        System.out.println("=== MEMORIA POR ELEMENTO DE CADA COLECCIÓN ===\n");
+        MedicionMemoria medicion = new MedicionMemoria();
+        medicion.medirTodo(tamaños.stream().mapToInt(Integer::intValue).toArray());
+        String informe = medicion.informe();
+        System.out.println(informe);
+        if (salida != null) {
+            Files.write(salida, informe.getBytes(StandardCharsets.UTF_8));
+            System.out.println("Informe guardado en " + salida);
+        }
+    }
+}
+
+/**
+ * Tipo de elemento: Integer (boxing) o String, todos distintos
+ */
+enum CargaMedicion {
+    ENTEROS("Integer") {
+        @Override
+        Object crear(int i) {
+            // Fuera del rango cacheado por Integer.valueOf
+            return Integer.valueOf(1_000 + i);
+        }
+    },
+    CADENAS("String") {
+        @Override
+        Object crear(int i) {
+            return "elemento-" + i;
+        }
+    };
+
+    final String nombre;
+
+    CargaMedicion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    abstract Object crear(int i);
+
+    Object[] generar(int n) {
+        Object[] datos = new Object[n];
+        llenar(datos);
+        return datos;
+    }
+
+    void llenar(Object[] datos) {
+        for (int i = 0; i < datos.length; i++) {
+            datos[i] = crear(i);
+        }
+    }
+}
+
+/**
+ * Colecciones que usan los ejemplos. Los mapas guardan el elemento como
+ * clave y como valor (el valor no agrega objetos, solo la referencia)
+ */
+@SuppressWarnings("unchecked")
+enum ColeccionMedida {
+    ARRAY_LIST("ArrayList") {
+        @Override
+        Object construir(Object[] datos) {
+            return agregarTodos(new ArrayList<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            List<Object> lista = (List<Object>) coleccion;
+            lista.remove(lista.size() - 1);
+            lista.add(dato);
+        }
+    },
+    LINKED_LIST("LinkedList") {
+        @Override
+        Object construir(Object[] datos) {
+            return agregarTodos(new LinkedList<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            Deque<Object> lista = (Deque<Object>) coleccion;
+            lista.pollFirst();
+            lista.offerLast(dato);
+        }
+    },
+    ARRAY_DEQUE("ArrayDeque") {
+        @Override
+        Object construir(Object[] datos) {
+            return agregarTodos(new ArrayDeque<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            Deque<Object> cola = (Deque<Object>) coleccion;
+            cola.pollFirst();
+            cola.offerLast(dato);
+        }
+    },
+    PRIORITY_QUEUE("PriorityQueue") {
+        @Override
+        Object construir(Object[] datos) {
+            return agregarTodos(new PriorityQueue<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            PriorityQueue<Object> cola = (PriorityQueue<Object>) coleccion;
+            cola.offer(cola.poll());
+        }
+    },
+    HASH_SET("HashSet") {
+        @Override
+        Object construir(Object[] datos) {
+            return agregarTodos(new HashSet<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            Collection<Object> conjunto = (Collection<Object>) coleccion;
+            conjunto.remove(dato);
+            conjunto.add(dato);
+        }
+    },
+    TREE_SET("TreeSet") {
+        @Override
+        Object construir(Object[] datos) {
+            return agregarTodos(new TreeSet<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            Collection<Object> conjunto = (Collection<Object>) coleccion;
+            conjunto.remove(dato);
+            conjunto.add(dato);
+        }
+    },
+    HASH_MAP("HashMap") {
+        @Override
+        Object construir(Object[] datos) {
+            return ponerTodos(new HashMap<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            Map<Object, Object> mapa = (Map<Object, Object>) coleccion;
+            mapa.remove(dato);
+            mapa.put(dato, dato);
+        }
+    },
+    TREE_MAP("TreeMap") {
+        @Override
+        Object construir(Object[] datos) {
+            return ponerTodos(new TreeMap<>(), datos);
+        }
+
+        @Override
+        void actualizar(Object coleccion, Object dato) {
+            Map<Object, Object> mapa = (Map<Object, Object>) coleccion;
+            mapa.remove(dato);
+            mapa.put(dato, dato);
+        }
+    };
+
+    final String nombre;
+
+    ColeccionMedida(String nombre) {
+        this.nombre = nombre;
+    }
+
+    abstract Object construir(Object[] datos);
+
+    /**
+     * Quita un elemento y agrega otro, dejando el tamaño igual
+     */
+    abstract void actualizar(Object coleccion, Object dato);
+
+    private static Collection<Object> agregarTodos(Collection<Object> coleccion, Object[] datos) {
+        for (Object dato : datos) {
+            coleccion.add(dato);
+        }
+        return coleccion;
+    }
+
+    private static Map<Object, Object> ponerTodos(Map<Object, Object> mapa, Object[] datos) {
+        for (Object dato : datos) {
+            mapa.put(dato, dato);
+        }
+        return mapa;
+    }
+}
+
+class ResultadoMemoria {
+    final ColeccionMedida coleccion;
+    final CargaMedicion carga;
+    final int n;
+    final double bytesEstructura;
+    final double bytesCarga;
+    final double asignadoInsercion;
+    final double asignadoActualizacion;
+
+    ResultadoMemoria(ColeccionMedida coleccion, CargaMedicion carga, int n, double bytesEstructura,
+            double bytesCarga, double asignadoInsercion, double asignadoActualizacion) {
+        this.coleccion = coleccion;
+        this.carga = carga;
+        this.n = n;
+        this.bytesEstructura = bytesEstructura;
+        this.bytesCarga = bytesCarga;
+        this.asignadoInsercion = asignadoInsercion;
+        this.asignadoActualizacion = asignadoActualizacion;
+    }
+}
@@ -0,0 +1,322 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Montículo d-ario de enteros primitivos (sin boxing)
+ *
+ * PriorityQueue<Integer> guarda cada número como un objeto Integer
+ * y compara llamando a compareTo() o a un Comparator. Este montículo
+ * guarda los valores en un int[] y compara directamente con < o >.
+ *
+ * - Modo mínimo: peek() retorna el menor (como PriorityQueue natural)
+ * - Modo máximo: peek() retorna el mayor (como Comparator.reverseOrder())
+ * - Aridad d: cada nodo tiene d hijos. Con d = 4 el árbol es más bajo
+ *   y los hijos de un nodo quedan contiguos en memoria
+ */
+public class MonticuloInt {
+    private final int aridad;
+    private final boolean maximo;
+    private int[] elementos;
+    private int size;
+
+    private MonticuloInt(int aridad, boolean maximo, int capacidadInicial) {
+        if (aridad < 2) {
+            throw new IllegalArgumentException("La aridad debe ser al menos 2: " + aridad);
+        }
+        this.aridad = aridad;
+        this.maximo = maximo;
+        this.elementos = new int[Math.max(1, capacidadInicial)];
+    }
+
+    /**
+     * Montículo donde peek() retorna el menor valor
+     */
+    public static MonticuloInt minimo(int aridad, int capacidadInicial) {
+        return new MonticuloInt(aridad, false, capacidadInicial);
+    }
+
+    /**
+     * Montículo donde peek() retorna el mayor valor
+     */
+    public static MonticuloInt maximo(int aridad, int capacidadInicial) {
+        return new MonticuloInt(aridad, true, capacidadInicial);
+    }
+
+    public void offer(int valor) {
+        if (size == elementos.length) {
+            elementos = Arrays.copyOf(elementos, size + (size >> 1) + 1);
+        }
+        subir(size++, valor);
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("El montículo está vacío");
+        }
+        return elementos[0];
+    }
+
+    public int poll() {
+        int tope = peek();
+        size--;
+        if (size > 0) {
+            bajar(0, elementos[size]);
+        }
+        return tope;
+    }
+
+    /**
+     * Reemplaza el tope por un nuevo valor con un solo recorrido hacia abajo.
+     * Equivale a poll() seguido de offer(), pero con la mitad del trabajo
+     */
+    public int reemplazarTope(int valor) {
+        int tope = peek();
+        bajar(0, valor);
+        return tope;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private boolean antes(int a, int b) {
+        return maximo ? a > b : a < b;
+    }
+
+    private void subir(int i, int valor) {
+        while (i > 0) {
+            int padre = (i - 1) / aridad;
+            if (!antes(valor, elementos[padre])) {
+                break;
+            }
+            elementos[i] = elementos[padre];
+            i = padre;
+        }
+        elementos[i] = valor;
+    }
+
+    private void bajar(int i, int valor) {
+        while (true) {
+            int primerHijo = i * aridad + 1;
+            if (primerHijo >= size) {
+                break;
+            }
+            int ultimoHijo = Math.min(primerHijo + aridad, size);
+            int mejor = primerHijo;
+            for (int h = primerHijo + 1; h < ultimoHijo; h++) {
+                if (antes(elementos[h], elementos[mejor])) {
+                    mejor = h;
+                }
+            }
+            if (!antes(elementos[mejor], valor)) {
+                break;
+            }
+            elementos[i] = elementos[mejor];
+            i = mejor;
+        }
+        elementos[i] = valor;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== MONTÍCULO DE ENTEROS PRIMITIVOS ===\n");
+        ejemploMonticulo();
+
+        System.out.println("\n=== TOP-K EN UN FLUJO ===\n");
+        ejemploTopK();
+
+        System.out.println("\n=== COMPARACIÓN DE RENDIMIENTO ===\n");
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        comparacionRendimiento(n, k);
+    }
+
+    /**
+     * Mismo ejemplo que EjemploQueue.ejemploPriorityQueue(), sin boxing
+     */
+    public static void ejemploMonticulo() {
+        MonticuloInt colaNumeros = MonticuloInt.minimo(4, 8);
+        colaNumeros.offer(50);
+        colaNumeros.offer(10);
+        colaNumeros.offer(30);
+        colaNumeros.offer(20);
+        colaNumeros.offer(40);
+
+        System.out.println("Modo mínimo (como orden natural):");
+        while (!colaNumeros.isEmpty()) {
+            System.out.println("  Procesando: " + colaNumeros.poll());
+        }
+
+        MonticuloInt colaInversa = MonticuloInt.maximo(4, 8);
+        colaInversa.offer(50);
+        colaInversa.offer(10);
+        colaInversa.offer(30);
+        colaInversa.offer(20);
+
+        System.out.println("\nModo máximo (como Comparator.reverseOrder()):");
+        while (!colaInversa.isEmpty()) {
+            System.out.println("  Procesando: " + colaInversa.poll());
+        }
+    }
+
+    /**
+     * Top-k: solo se guardan k elementos, sin importar cuántos lleguen
+     */
+    public static void ejemploTopK() {
+        int[] flujo = {15, 3, 99, 42, 7, 64, 23, 88, 1, 50};
+        SelectorTopK mayores = SelectorTopK.mayores(3);
+        SelectorTopK menores = SelectorTopK.menores(3);
+        for (int valor : flujo) {
+            mayores.aceptar(valor);
+            menores.aceptar(valor);
+        }
+        System.out.println("Flujo: " + Arrays.toString(flujo));
+        System.out.println("3 mayores: " + Arrays.toString(mayores.resultado()));
+        System.out.println("3 menores: " + Arrays.toString(menores.resultado()));
+    }
+
+    /**
+     * Compara contra PriorityQueue<Integer> en dos escenarios:
+     * 1. Insertar y sacar muchos elementos (ordenar con el montículo)
+     * 2. Top-k sobre un flujo de n elementos generados al vuelo
+     */
+    public static void comparacionRendimiento(long n, int k) {
+        int m = (int) Math.min(n, 5_000_000L);
+        System.out.println("Inserción y extracción de " + m + " elementos:");
+
+        long inicio = System.nanoTime();
+        PriorityQueue<Integer> cola = new PriorityQueue<>(m);
+        long semilla = 42;
+        for (int i = 0; i < m; i++) {
+            semilla = siguiente(semilla);
+            cola.offer((int) semilla);
+        }
+        long control = 0;
+        while (!cola.isEmpty()) {
+            control += cola.poll();
+        }
+        long tiempoCola = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        MonticuloInt monticulo = MonticuloInt.minimo(4, m);
+        semilla = 42;
+        for (int i = 0; i < m; i++) {
+            semilla = siguiente(semilla);
+            monticulo.offer((int) semilla);
+        }
+        long controlMonticulo = 0;
+        while (!monticulo.isEmpty()) {
+            controlMonticulo += monticulo.poll();
+        }
+        long tiempoMonticulo = System.nanoTime() - inicio;
+
+        System.out.println("  PriorityQueue<Integer>: " + tiempoCola / 1_000_000.0 + " ms");
+        System.out.println("  MonticuloInt (d = 4):   " + tiempoMonticulo / 1_000_000.0 + " ms");
+        System.out.println("  ¿Mismo resultado? " + (control == controlMonticulo));
+
+        System.out.println("\nTop-" + k + " sobre un flujo de " + n + " elementos:");
+        inicio = System.nanoTime();
+        PriorityQueue<Integer> topCola = new PriorityQueue<>(k, Comparator.naturalOrder());
+        semilla = 7;
+        for (long i = 0; i < n; i++) {
+            semilla = siguiente(semilla);
+            int valor = (int) semilla;
+            if (topCola.size() < k) {
+                topCola.offer(valor);
+            } else if (valor > topCola.peek()) {
+                topCola.poll();
+                topCola.offer(valor);
+            }
+        }
+        long tiempoTopCola = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        SelectorTopK selector = SelectorTopK.mayores(k);
+        semilla = 7;
+        for (long i = 0; i < n; i++) {
+            semilla = siguiente(semilla);
+            selector.aceptar((int) semilla);
+        }
+        int[] top = selector.resultado();
+        long tiempoSelector = System.nanoTime() - inicio;
+
+        System.out.println("  PriorityQueue<Integer>: " + tiempoTopCola / 1_000_000.0 + " ms");
+        System.out.println("  SelectorTopK:           " + tiempoSelector / 1_000_000.0 + " ms");
+        System.out.println("  Máximo encontrado: " + top[0] + " (PriorityQueue: "
+            + topCola.stream().max(Integer::compare).orElse(0) + ")");
+        System.out.printf("  Elementos por segundo (SelectorTopK): %.0f%n", n / (tiempoSelector / 1e9));
+    }
+
+    /**
+     * Generador xorshift: produce números pseudoaleatorios sin crear objetos
+     */
+    private static long siguiente(long x) {
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        return x;
+    }
+}
+
+/**
+ * Selección de los k mayores (o menores) de un flujo sin límite
+ *
+ * Para los k mayores se usa un montículo MÍNIMO de tamaño k: su tope
+ * es el peor de los k mejores. Un valor nuevo solo entra si supera
+ * ese tope, así que la mayoría de los valores se descartan con una
+ * sola comparación.
+ */
+class SelectorTopK {
+    private final int k;
+    private final boolean mayores;
+    private final MonticuloInt monticulo;
+
+    private SelectorTopK(int k, boolean mayores) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k debe ser positivo: " + k);
+        }
+        this.k = k;
+        this.mayores = mayores;
+        this.monticulo = mayores ? MonticuloInt.minimo(4, k) : MonticuloInt.maximo(4, k);
+    }
+
+    public static SelectorTopK mayores(int k) {
+        return new SelectorTopK(k, true);
+    }
+
+    public static SelectorTopK menores(int k) {
+        return new SelectorTopK(k, false);
+    }
+
+    public void aceptar(int valor) {
+        if (monticulo.size() < k) {
+            monticulo.offer(valor);
+        } else if (mayores ? valor > monticulo.peek() : valor < monticulo.peek()) {
+            monticulo.reemplazarTope(valor);
+        }
+    }
+
+    /**
+     * Retorna los k elementos seleccionados, del mejor al peor
+     */
+    public int[] resultado() {
+        int[] copia = new int[monticulo.size()];
+        for (int i = copia.length - 1; i >= 0; i--) {
+            copia[i] = monticulo.poll();
+        }
+        // Restaurar el montículo para poder seguir aceptando valores
+        for (int valor : copia) {
+            monticulo.offer(valor);
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Montículo d-ario de valores long primitivos (sin boxing)
+ *
+ * Es la versión long de MonticuloInt: mismas operaciones y mismo
+ * modo mínimo/máximo. Además de números grandes, sirve para guardar
+ * pares (prioridad, id) empaquetados en un solo long.
+ */
+public class MonticuloLong {
+    private final int aridad;
+    private final boolean maximo;
+    private long[] elementos;
+    private int size;
+
+    private MonticuloLong(int aridad, boolean maximo, int capacidadInicial) {
+        if (aridad < 2) {
+            throw new IllegalArgumentException("La aridad debe ser al menos 2: " + aridad);
+        }
+        this.aridad = aridad;
+        this.maximo = maximo;
+        this.elementos = new long[Math.max(1, capacidadInicial)];
+    }
+
+    /**
+     * Montículo donde peek() retorna el menor valor
+     */
+    public static MonticuloLong minimo(int aridad, int capacidadInicial) {
+        return new MonticuloLong(aridad, false, capacidadInicial);
+    }
+
+    /**
+     * Montículo donde peek() retorna el mayor valor
+     */
+    public static MonticuloLong maximo(int aridad, int capacidadInicial) {
+        return new MonticuloLong(aridad, true, capacidadInicial);
+    }
+
+    public void offer(long valor) {
+        if (size == elementos.length) {
+            elementos = Arrays.copyOf(elementos, size + (size >> 1) + 1);
+        }
+        subir(size++, valor);
+    }
+
+    public long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("El montículo está vacío");
+        }
+        return elementos[0];
+    }
+
+    public long poll() {
+        long tope = peek();
+        size--;
+        if (size > 0) {
+            bajar(0, elementos[size]);
+        }
+        return tope;
+    }
+
+    /**
+     * Reemplaza el tope por un nuevo valor con un solo recorrido hacia abajo.
+     * Equivale a poll() seguido de offer(), pero con la mitad del trabajo
+     */
+    public long reemplazarTope(long valor) {
+        long tope = peek();
+        bajar(0, valor);
+        return tope;
+    }
+
+    /**
+     * Montículo sobre un arreglo que ya está en orden de montículo (por
+     * ejemplo, las claves de un PriorityQueue guardado con toArray()).
+     * Solo verifica la propiedad, en O(n), y usa el arreglo sin copiarlo
+     */
+    public static MonticuloLong desdeArreglo(int aridad, boolean maximo, long[] enOrden) {
+        MonticuloLong monticulo = new MonticuloLong(aridad, maximo, 0);
+        for (int i = 1; i < enOrden.length; i++) {
+            if (monticulo.antes(enOrden[i], enOrden[(i - 1) / aridad])) {
+                throw new IllegalArgumentException("El arreglo no está en orden de montículo (posición " + i + ")");
+            }
+        }
+        monticulo.elementos = enOrden.length > 0 ? enOrden : monticulo.elementos;
+        monticulo.size = enOrden.length;
+        return monticulo;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private boolean antes(long a, long b) {
+        return maximo ? a > b : a < b;
+    }
+
+    private void subir(int i, long valor) {
+        while (i > 0) {
+            int padre = (i - 1) / aridad;
+            if (!antes(valor, elementos[padre])) {
+                break;
+            }
+            elementos[i] = elementos[padre];
+            i = padre;
+        }
+        elementos[i] = valor;
+    }
+
+    private void bajar(int i, long valor) {
+        while (true) {
+            int primerHijo = i * aridad + 1;
+            if (primerHijo >= size) {
+                break;
+            }
+            int ultimoHijo = Math.min(primerHijo + aridad, size);
+            int mejor = primerHijo;
+            for (int h = primerHijo + 1; h < ultimoHijo; h++) {
+                if (antes(elementos[h], elementos[mejor])) {
+                    mejor = h;
+                }
+            }
+            if (!antes(elementos[mejor], valor)) {
+                break;
+            }
+            elementos[i] = elementos[mejor];
+            i = mejor;
+        }
+        elementos[i] = valor;
+    }
+}
@@ -0,0 +1,440 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Multiconjunto ordenado de enteros con conteos y sumas por rango en O(log n)
+ *
+ * En EjemploSet, headSet(50), tailSet(30) y subSet(20, 60) son vistas:
+ * llamar a size() sobre ellas o sumar sus elementos recorre todo el rango.
+ * Aquí los valores posibles se "comprimen" a posiciones 0..U-1 (el valor
+ * más chico es la posición 0, el siguiente la 1, etc.) y dos árboles de
+ * Fenwick guardan, por posición, la cantidad de apariciones y su suma.
+ * Así contar o sumar en [a, b), floor, ceiling y el k-ésimo menor son
+ * O(log U), con inserciones y eliminaciones dinámicas.
+ *
+ * Conviene declarar en el constructor el universo de valores posibles.
+ * Los valores que no estaban van a otro MultiConjuntoRangos de
+ * pendientes (que a su vez tiene los suyos). Cuando los pendientes
+ * superan al universo, se mezclan en O(U) y el universo al menos se
+ * duplica: cada valor se mezcla O(log n) veces y agregar valores nuevos
+ * cuesta O(log n) amortizado en reconstrucciones. Mientras haya
+ * pendientes, cada operación consulta O(log n) niveles, O(log² n).
+ */
+public class MultiConjuntoRangos {
+
+    private int[] valores;     // Valores posibles, ordenados y sin repetir
+    private long[] conteos;    // Apariciones de cada valor (por posición)
+    private long[] arbolConteo; // Fenwick de conteos, índices desde 1
+    private long[] arbolSuma;   // Fenwick de sumas, índices desde 1
+    private long total;
+    private int reconstrucciones;
+    private MultiConjuntoRangos pendientes; // Valores fuera del universo (null si no hay)
+
+    private static final int MINIMO_PENDIENTES = 16;
+
+    /**
+     * Crea el multiconjunto para los valores que pueden aparecer
+     * (pueden venir desordenados y con repetidos)
+     */
+    public MultiConjuntoRangos(int[] universo) {
+        int[] ordenados = universo.clone();
+        Arrays.sort(ordenados);
+        int n = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            if (i == 0 || ordenados[i] != ordenados[i - 1]) {
+                ordenados[n++] = ordenados[i];
+            }
+        }
+        valores = Arrays.copyOf(ordenados, n);
+        conteos = new long[n];
+        arbolConteo = new long[n + 1];
+        arbolSuma = new long[n + 1];
+    }
+
+    /**
+     * Sin universo declarado: todos los valores llegan como pendientes y
+     * se incorporan en mezclas de tamaño creciente
+     */
+    public MultiConjuntoRangos() {
+        this(new int[0]);
+    }
+
+    public void agregar(int valor) {
+        agregar(valor, 1);
+    }
+
+    /**
+     * Agrega el valor la cantidad de veces indicada
+     */
+    public void agregar(int valor, long veces) {
+        if (veces < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + veces);
+        }
+        int i = Arrays.binarySearch(valores, valor);
+        if (i >= 0) {
+            actualizar(i, valor, veces);
+            return;
+        }
+        if (pendientes == null && valores.length < MINIMO_PENDIENTES) {
+            // Universo chico: se agrega directamente
+            mezclar(new int[] {valor}, new long[] {0});
+            actualizar(Arrays.binarySearch(valores, valor), valor, veces);
+            return;
+        }
+        if (pendientes == null) {
+            pendientes = new MultiConjuntoRangos();
+        }
+        pendientes.agregar(valor, veces);
+        if (pendientes.universo() > Math.max(MINIMO_PENDIENTES, valores.length)) {
+            incorporarPendientes();
+        }
+    }
+
+    /**
+     * Elimina una aparición del valor. Retorna false si no estaba
+     */
+    public boolean eliminar(int valor) {
+        int i = Arrays.binarySearch(valores, valor);
+        if (i < 0 || conteos[i] == 0) {
+            // Los pendientes tienen solo valores que no están en el universo
+            return i < 0 && pendientes != null && pendientes.eliminar(valor);
+        }
+        actualizar(i, valor, -1);
+        return true;
+    }
+
+    /**
+     * Cantidad de apariciones del valor
+     */
+    public long contar(int valor) {
+        int i = Arrays.binarySearch(valores, valor);
+        if (i < 0) {
+            return pendientes == null ? 0 : pendientes.contar(valor);
+        }
+        return conteos[i];
+    }
+
+    /**
+     * Cantidad de elementos en [desde, hasta), como subSet(desde, hasta).size()
+     */
+    public long contarRango(int desde, int hasta) {
+        if (desde >= hasta) {
+            return 0;
+        }
+        return prefijo(arbolConteo, posicionInferior(hasta)) - prefijo(arbolConteo, posicionInferior(desde))
+            + (pendientes == null ? 0 : pendientes.contarRango(desde, hasta));
+    }
+
+    /**
+     * Suma de los elementos en [desde, hasta) contando repeticiones
+     */
+    public long sumarRango(int desde, int hasta) {
+        if (desde >= hasta) {
+            return 0;
+        }
+        return prefijo(arbolSuma, posicionInferior(hasta)) - prefijo(arbolSuma, posicionInferior(desde))
+            + (pendientes == null ? 0 : pendientes.sumarRango(desde, hasta));
+    }
+
+    /**
+     * Cantidad de elementos menores que el valor, como headSet(valor).size()
+     */
+    public long contarMenores(int valor) {
+        return prefijo(arbolConteo, posicionInferior(valor))
+            + (pendientes == null ? 0 : pendientes.contarMenores(valor));
+    }
+
+    /**
+     * Cantidad de elementos mayores o iguales al valor, como tailSet(valor).size()
+     */
+    public long contarMayoresOIguales(int valor) {
+        return size() - contarMenores(valor);
+    }
+
+    /**
+     * El k-ésimo menor elemento, contando repeticiones (k empieza en 0)
+     */
+    public int kEsimo(long k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("Posición fuera de rango: " + k);
+        }
+        if (pendientes != null) {
+            // Hay varios niveles: búsqueda binaria sobre los valores
+            // del menor valor v con más de k elementos menores o iguales
+            long bajo = Integer.MIN_VALUE;
+            long alto = Integer.MAX_VALUE;
+            while (bajo < alto) {
+                long medio = bajo + (alto - bajo) / 2;
+                if (contarMenores((int) medio + 1) > k) {
+                    alto = medio;
+                } else {
+                    bajo = medio + 1;
+                }
+            }
+            return (int) bajo;
+        }
+        // Descenso por potencias de dos sobre el árbol de Fenwick
+        int posicion = 0;
+        long restante = k + 1;
+        for (int paso = Integer.highestOneBit(Math.max(1, valores.length)); paso > 0; paso >>= 1) {
+            int siguiente = posicion + paso;
+            if (siguiente <= valores.length && arbolConteo[siguiente] < restante) {
+                posicion = siguiente;
+                restante -= arbolConteo[siguiente];
+            }
+        }
+        return valores[posicion];
+    }
+
+    /**
+     * Mayor elemento menor o igual al valor, o null si no existe
+     */
+    public Integer floor(int valor) {
+        long menoresOIguales = valor == Integer.MAX_VALUE ? size() : contarMenores(valor + 1);
+        return menoresOIguales == 0 ? null : kEsimo(menoresOIguales - 1);
+    }
+
+    /**
+     * Menor elemento mayor o igual al valor, o null si no existe
+     */
+    public Integer ceiling(int valor) {
+        long menores = contarMenores(valor);
+        return menores == size() ? null : kEsimo(menores);
+    }
+
+    public int primero() {
+        if (size() == 0) {
+            throw new NoSuchElementException("El multiconjunto está vacío");
+        }
+        return kEsimo(0);
+    }
+
+    public int ultimo() {
+        if (size() == 0) {
+            throw new NoSuchElementException("El multiconjunto está vacío");
+        }
+        return kEsimo(size() - 1);
+    }
+
+    public long size() {
+        return total + (pendientes == null ? 0 : pendientes.size());
+    }
+
+    /**
+     * Veces que se reconstruyeron los árboles para incorporar valores
+     * fuera del universo (contando los niveles de pendientes)
+     */
+    public int reconstrucciones() {
+        return reconstrucciones + (pendientes == null ? 0 : pendientes.reconstrucciones());
+    }
+
+    /**
+     * Cantidad de valores distintos conocidos, en todos los niveles
+     */
+    private int universo() {
+        return valores.length + (pendientes == null ? 0 : pendientes.universo());
+    }
+
+    private void actualizar(int i, int valor, long delta) {
+        conteos[i] += delta;
+        total += delta;
+        long deltaSuma = delta * valor;
+        for (int j = i + 1; j <= valores.length; j += j & -j) {
+            arbolConteo[j] += delta;
+            arbolSuma[j] += deltaSuma;
+        }
+    }
+
+    /**
+     * Suma de las primeras "posiciones" casillas del árbol
+     */
+    private static long prefijo(long[] arbol, int posiciones) {
+        long suma = 0;
+        for (int j = posiciones; j > 0; j -= j & -j) {
+            suma += arbol[j];
+        }
+        return suma;
+    }
+
+    /**
+     * Cantidad de valores del universo menores que el valor dado
+     */
+    private int posicionInferior(int valor) {
+        int i = Arrays.binarySearch(valores, valor);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Mezcla los pendientes (todos sus niveles) con el universo
+     */
+    private void incorporarPendientes() {
+        int[] otrosValores = new int[pendientes.universo()];
+        long[] otrosConteos = new long[otrosValores.length];
+        pendientes.volcar(otrosValores, otrosConteos);
+        pendientes = null;
+        mezclar(otrosValores, otrosConteos);
+    }
+
+    /**
+     * Mezcla valores ordenados que no están en el universo y
+     * reconstruye los árboles en O(U)
+     */
+    private void mezclar(int[] otrosValores, long[] otrosConteos) {
+        int n = valores.length + otrosValores.length;
+        int[] nuevosValores = new int[n];
+        long[] nuevosConteos = new long[n];
+        int i = 0;
+        int j = 0;
+        for (int destino = 0; destino < n; destino++) {
+            if (j == otrosValores.length || (i < valores.length && valores[i] < otrosValores[j])) {
+                nuevosValores[destino] = valores[i];
+                nuevosConteos[destino] = conteos[i++];
+            } else {
+                nuevosValores[destino] = otrosValores[j];
+                nuevosConteos[destino] = otrosConteos[j++];
+            }
+        }
+        valores = nuevosValores;
+        conteos = nuevosConteos;
+        construirArboles();
+        reconstrucciones++;
+    }
+
+    /**
+     * Copia todos los valores de todos los niveles, ordenados, con sus conteos
+     */
+    private void volcar(int[] destinoValores, long[] destinoConteos) {
+        if (pendientes != null) {
+            incorporarPendientes();
+        }
+        System.arraycopy(valores, 0, destinoValores, 0, valores.length);
+        System.arraycopy(conteos, 0, destinoConteos, 0, conteos.length);
+    }
+
+    private void construirArboles() {
+        int n = valores.length;
+        arbolConteo = new long[n + 1];
+        arbolSuma = new long[n + 1];
+        total = 0;
+        // Construcción lineal: cada casilla le pasa su total a su padre
+        for (int j = 1; j <= n; j++) {
+            total += conteos[j - 1];
+            arbolConteo[j] += conteos[j - 1];
+            arbolSuma[j] += conteos[j - 1] * valores[j - 1];
+            int padre = j + (j & -j);
+            if (padre <= n) {
+                arbolConteo[padre] += arbolConteo[j];
+                arbolSuma[padre] += arbolSuma[j];
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== CONTEOS Y SUMAS POR RANGO ===\n");
+        ejemploRangos();
+
+        System.out.println("\n=== COMPARACIÓN CON TREESET/TREEMAP ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        comparacionRendimiento(n, 10_000);
+    }
+
+    /**
+     * Las mismas consultas de EjemploSet.ejemploTreeSet(), sin recorrer rangos
+     */
+    public static void ejemploRangos() {
+        MultiConjuntoRangos numeros = new MultiConjuntoRangos(new int[] {10, 20, 30, 50, 80});
+        numeros.agregar(50);
+        numeros.agregar(20);
+        numeros.agregar(80);
+        numeros.agregar(10);
+        numeros.agregar(30);
+        numeros.agregar(20); // En un multiconjunto los repetidos sí cuentan
+
+        System.out.println("Elementos: " + numeros.size());
+        System.out.println("Cuántos son menores que 50: " + numeros.contarMenores(50));
+        System.out.println("Cuántos son mayores o iguales a 30: " + numeros.contarMayoresOIguales(30));
+        System.out.println("Cuántos hay entre 20 y 60: " + numeros.contarRango(20, 60));
+        System.out.println("Suma entre 20 y 60: " + numeros.sumarRango(20, 60));
+        System.out.println("Menor o igual a 25: " + numeros.floor(25));
+        System.out.println("Mayor o igual a 25: " + numeros.ceiling(25));
+        System.out.println("Tercer menor (kEsimo(2)): " + numeros.kEsimo(2));
+
+        numeros.agregar(45); // No estaba en el universo: queda pendiente
+        numeros.eliminar(20);
+        System.out.println("\nDespués de agregar 45 y eliminar un 20:");
+        System.out.println("Cuántos hay entre 20 y 60: " + numeros.contarRango(20, 60));
+        System.out.println("Suma entre 20 y 60: " + numeros.sumarRango(20, 60));
+        System.out.println("Reconstrucciones: " + numeros.reconstrucciones());
+    }
+
+    /**
+     * Compara "cuántos y cuánto suman en [a, b)" contra recorrer la
+     * vista subMap de un TreeMap (valor -> apariciones)
+     */
+    public static void comparacionRendimiento(int n, int consultas) {
+        Random random = new Random(3);
+        int rango = 10_000_000;
+        int[] datos = new int[n];
+        for (int i = 0; i < n; i++) {
+            datos[i] = random.nextInt(rango);
+        }
+
+        long inicio = System.nanoTime();
+        TreeMap<Integer, Integer> arbol = new TreeMap<>();
+        for (int valor : datos) {
+            arbol.merge(valor, 1, Integer::sum);
+        }
+        long construccionArbol = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        MultiConjuntoRangos fenwick = new MultiConjuntoRangos(datos);
+        for (int valor : datos) {
+            fenwick.agregar(valor);
+        }
+        long construccionFenwick = System.nanoTime() - inicio;
+        System.out.println("Elementos: " + n + ", consultas de rango: " + consultas);
+        System.out.printf("Construcción: TreeMap %d ms, MultiConjuntoRangos %d ms%n",
+            construccionArbol / 1_000_000, construccionFenwick / 1_000_000);
+
+        int[][] rangos = new int[consultas][];
+        for (int i = 0; i < consultas; i++) {
+            int a = random.nextInt(rango);
+            rangos[i] = new int[] {a, a + random.nextInt(rango / 10)};
+        }
+
+        inicio = System.nanoTime();
+        long controlArbol = 0;
+        for (int[] r : rangos) {
+            long cantidad = 0;
+            long suma = 0;
+            for (Map.Entry<Integer, Integer> e : arbol.subMap(r[0], r[1]).entrySet()) {
+                cantidad += e.getValue();
+                suma += (long) e.getKey() * e.getValue();
+            }
+            controlArbol += cantidad + suma;
+        }
+        long tiempoArbol = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        long controlFenwick = 0;
+        for (int[] r : rangos) {
+            controlFenwick += fenwick.contarRango(r[0], r[1]) + fenwick.sumarRango(r[0], r[1]);
+        }
+        long tiempoFenwick = System.nanoTime() - inicio;
+
+        System.out.printf("Conteo + suma por rango: TreeMap %.2f µs/consulta, MultiConjuntoRangos %.2f µs/consulta%n",
+            tiempoArbol / 1e3 / consultas, tiempoFenwick / 1e3 / consultas);
+        System.out.println("¿Mismos resultados? " + (controlArbol == controlFenwick));
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < consultas; i++) {
+            int valor = datos[i];
+            fenwick.eliminar(valor);
+            fenwick.agregar(valor);
+        }
+        System.out.printf("Eliminar + agregar: %.2f µs por par%n", (System.nanoTime() - inicio) / 1e3 / consultas);
+    }
+}
@@ -0,0 +1,294 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Ordenamiento estable por una clave entera (counting sort / radix LSD)
+ *
+ * Tarea, Paciente y Estudiante se ordenan comparando un solo int chico
+ * (prioridad, urgencia, calificación), pero Collections.sort() hace
+ * n log n llamadas virtuales a compareTo(). Aquí:
+ * 1. Se extrae la clave de cada elemento UNA vez, a un int[]
+ * 2. Si el rango de claves entra en 16 bits (1 a 5, 0 a 100...) basta
+ *    una pasada de counting sort; si no, radix LSD en dígitos de 11 bits
+ *    (a lo sumo 3 pasadas). Ambos son estables: los empates conservan el
+ *    orden original, igual que Collections.sort()
+ * 3. Con muchos elementos cada pasada se reparte entre hilos: cada uno
+ *    cuenta su tramo, y con las sumas parciales cada hilo sabe dónde
+ *    escribir sin pisar a los demás
+ *
+ * El resultado es la permutación (índices en orden) o la lista ordenada.
+ */
+public class OrdenamientoRadix {
+
+    /** Desde este tamaño se ordena en paralelo */
+    private static final int UMBRAL_PARALELO = 1 << 16;
+
+    /** Rango máximo (en bits) que se ordena con una sola pasada */
+    private static final int BITS_CONTEO = 16;
+
+    private static final int BITS_DIGITO = 11;
+
+    private OrdenamientoRadix() {
+    }
+
+    /**
+     * Índices de los elementos en orden ascendente de clave
+     */
+    public static <T> int[] permutacion(List<? extends T> elementos, ToIntFunction<? super T> clave) {
+        return permutacion(elementos, clave, false);
+    }
+
+    public static <T> int[] permutacion(List<? extends T> elementos, ToIntFunction<? super T> clave,
+            boolean descendente) {
+        return ordenarIndices(extraerClaves(elementos, clave, descendente),
+            elementos.size() >= UMBRAL_PARALELO);
+    }
+
+    /**
+     * Nueva lista con los elementos ordenados por clave ascendente
+     */
+    public static <T> List<T> ordenar(List<? extends T> elementos, ToIntFunction<? super T> clave) {
+        return ordenar(elementos, clave, false);
+    }
+
+    public static <T> List<T> ordenar(List<? extends T> elementos, ToIntFunction<? super T> clave,
+            boolean descendente) {
+        return ordenar(elementos, clave, descendente, elementos.size() >= UMBRAL_PARALELO);
+    }
+
+    /**
+     * Como ordenar(), eligiendo explícitamente la versión secuencial o paralela
+     */
+    public static <T> List<T> ordenar(List<? extends T> elementos, ToIntFunction<? super T> clave,
+            boolean descendente, boolean paralelo) {
+        Object[] originales = elementos.toArray();
+        int[] orden = ordenarIndices(extraerClaves(elementos, clave, descendente), paralelo);
+        List<T> resultado = new ArrayList<>(orden.length);
+        for (int indice : orden) {
+            @SuppressWarnings("unchecked")
+            T elemento = (T) originales[indice];
+            resultado.add(elemento);
+        }
+        return resultado;
+    }
+
+    /**
+     * Permutación estable que ordena las claves de menor a mayor
+     * (resultado[p] = índice original del elemento en la posición p)
+     */
+    public static int[] ordenarIndices(int[] claves, boolean paralelo) {
+        int n = claves.length;
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        if (n < 2) {
+            return indices;
+        }
+        int minimo = Integer.MAX_VALUE;
+        int maximo = Integer.MIN_VALUE;
+        for (int clave : claves) {
+            minimo = Math.min(minimo, clave);
+            maximo = Math.max(maximo, clave);
+        }
+        // Se ordena (clave - mínimo) como entero sin signo: así sobran los bits altos
+        int bits = 64 - Long.numberOfLeadingZeros((long) maximo - minimo);
+        if (bits == 0) {
+            return indices;
+        }
+        int[] desplazadas = new int[n];
+        for (int i = 0; i < n; i++) {
+            desplazadas[i] = claves[i] - minimo;
+        }
+        int[] clavesAux = new int[n];
+        int[] indicesAux = new int[n];
+        int ancho = bits <= BITS_CONTEO ? bits : BITS_DIGITO;
+        for (int desplazamiento = 0; desplazamiento < bits; desplazamiento += ancho) {
+            int anchoPasada = Math.min(ancho, bits - desplazamiento);
+            if (paralelo && n >= UMBRAL_PARALELO) {
+                pasadaParalela(desplazadas, indices, clavesAux, indicesAux, desplazamiento, anchoPasada);
+            } else {
+                pasada(desplazadas, indices, clavesAux, indicesAux, 0, n, desplazamiento, anchoPasada,
+                    acumular(contar(desplazadas, 0, n, desplazamiento, anchoPasada)));
+            }
+            int[] temporal = desplazadas;
+            desplazadas = clavesAux;
+            clavesAux = temporal;
+            temporal = indices;
+            indices = indicesAux;
+            indicesAux = temporal;
+        }
+        return indices;
+    }
+
+    private static <T> int[] extraerClaves(List<? extends T> elementos, ToIntFunction<? super T> clave,
+            boolean descendente) {
+        int[] claves = new int[elementos.size()];
+        int i = 0;
+        for (T elemento : elementos) {
+            int valor = clave.applyAsInt(elemento);
+            // ~valor invierte el orden sin desbordar (~MIN_VALUE == MAX_VALUE)
+            claves[i++] = descendente ? ~valor : valor;
+        }
+        return claves;
+    }
+
+    private static int[] contar(int[] claves, int desde, int hasta, int desplazamiento, int ancho) {
+        int mascara = (1 << ancho) - 1;
+        int[] conteos = new int[1 << ancho];
+        for (int i = desde; i < hasta; i++) {
+            conteos[(claves[i] >>> desplazamiento) & mascara]++;
+        }
+        return conteos;
+    }
+
+    /**
+     * Convierte conteos en la posición donde empieza cada dígito
+     */
+    private static int[] acumular(int[] conteos) {
+        int suma = 0;
+        for (int d = 0; d < conteos.length; d++) {
+            int cantidad = conteos[d];
+            conteos[d] = suma;
+            suma += cantidad;
+        }
+        return conteos;
+    }
+
+    /**
+     * Distribuye el tramo [desde, hasta) en orden, a partir de las
+     * posiciones iniciales de cada dígito
+     */
+    private static void pasada(int[] claves, int[] indices, int[] clavesDestino, int[] indicesDestino,
+            int desde, int hasta, int desplazamiento, int ancho, int[] posiciones) {
+        int mascara = (1 << ancho) - 1;
+        for (int i = desde; i < hasta; i++) {
+            int posicion = posiciones[(claves[i] >>> desplazamiento) & mascara]++;
+            clavesDestino[posicion] = claves[i];
+            indicesDestino[posicion] = indices[i];
+        }
+    }
+
+    /**
+     * Cada hilo cuenta su tramo; las posiciones se asignan por dígito y,
+     * dentro de cada dígito, por tramo, lo que mantiene la estabilidad
+     */
+    private static void pasadaParalela(int[] claves, int[] indices, int[] clavesDestino, int[] indicesDestino,
+            int desplazamiento, int ancho) {
+        int n = claves.length;
+        int tramos = Math.min(Runtime.getRuntime().availableProcessors() * 2, n / (UMBRAL_PARALELO / 4));
+        int[] cortes = new int[tramos + 1];
+        for (int t = 0; t <= tramos; t++) {
+            cortes[t] = (int) ((long) n * t / tramos);
+        }
+        int[][] conteos = new int[tramos][];
+        IntStream.range(0, tramos).parallel().forEach(t ->
+            conteos[t] = contar(claves, cortes[t], cortes[t + 1], desplazamiento, ancho));
+        int suma = 0;
+        for (int d = 0; d < (1 << ancho); d++) {
+            for (int t = 0; t < tramos; t++) {
+                int cantidad = conteos[t][d];
+                conteos[t][d] = suma;
+                suma += cantidad;
+            }
+        }
+        IntStream.range(0, tramos).parallel().forEach(t ->
+            pasada(claves, indices, clavesDestino, indicesDestino, cortes[t], cortes[t + 1], desplazamiento,
+                ancho, conteos[t]));
+    }
+
+    public static void main(String[] args) {
+        System.out.println("=== ORDENAR TAREAS POR PRIORIDAD ===\n");
+        ejemploTareas();
+
+        System.out.println("\n=== COMPARACIÓN CON COLLECTIONS.SORT Y LIST.SORT ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        comparacionRendimiento(n);
+    }
+
+    /**
+     * Las tareas de EjemploQueue.aplicacionesPracticas(), con empates
+     */
+    public static void ejemploTareas() {
+        List<Tarea> tareas = new ArrayList<>();
+        tareas.add(new Tarea("Revisar emails", 2));
+        tareas.add(new Tarea("Bug crítico en producción", 5));
+        tareas.add(new Tarea("Reunión de equipo", 3));
+        tareas.add(new Tarea("Actualizar documentación", 1));
+        tareas.add(new Tarea("Code review urgente", 4));
+        tareas.add(new Tarea("Responder al cliente", 5)); // Empata con el bug: queda después
+
+        List<Tarea> ordenadas = ordenar(tareas, tarea -> tarea.prioridad, true);
+        System.out.println("Tareas por prioridad (descendente, estable):");
+        for (Tarea tarea : ordenadas) {
+            System.out.println("  " + tarea);
+        }
+
+        int[] orden = permutacion(tareas, tarea -> tarea.prioridad, true);
+        System.out.print("Permutación (índices originales):");
+        for (int indice : orden) {
+            System.out.print(" " + indice);
+        }
+        System.out.println();
+    }
+
+    public static void comparacionRendimiento(int n) {
+        Random random = new Random(13);
+        List<Tarea> tareas = new ArrayList<>(n);
+        List<Paciente> pacientes = new ArrayList<>(n);
+        List<Estudiante> estudiantes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            tareas.add(new Tarea("Tarea " + i, 1 + random.nextInt(5)));
+            pacientes.add(new Paciente("Paciente " + i, "Consulta", 1 + random.nextInt(5)));
+            estudiantes.add(new Estudiante("Estudiante " + i, random.nextInt(101)));
+        }
+        System.out.printf("  %-12s %16s %14s %12s %12s %10s%n", "n = " + n, "Collections.sort", "List.sort(cmp)",
+            "Radix", "Radix par.", "¿Iguales?");
+        for (int ronda = 0; ronda < 2; ronda++) { // La primera ronda calienta el JIT
+            comparar("Tarea", tareas, Comparator.comparingInt((Tarea t) -> t.prioridad).reversed(),
+                t -> t.prioridad, true, ronda == 1);
+            comparar("Paciente", pacientes, Comparator.comparingInt((Paciente p) -> p.urgencia).reversed(),
+                p -> p.urgencia, true, ronda == 1);
+            // compareTo() de Estudiante desempata por nombre; el comparador y el radix
+            // usan solo la calificación, así que se comparan entre ellos
+            comparar("Estudiante", estudiantes, Comparator.comparingInt(Estudiante::getCalificacion),
+                Estudiante::getCalificacion, false, ronda == 1);
+        }
+    }
+
+    private static <T extends Comparable<? super T>> void comparar(String nombre, List<T> datos,
+            Comparator<T> comparador, ToIntFunction<T> clave, boolean descendente, boolean imprimir) {
+        List<T> natural = new ArrayList<>(datos);
+        long inicio = System.nanoTime();
+        Collections.sort(natural);
+        long tiempoNatural = System.nanoTime() - inicio;
+
+        List<T> conComparador = new ArrayList<>(datos);
+        inicio = System.nanoTime();
+        conComparador.sort(comparador);
+        long tiempoComparador = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        List<T> radix = ordenar(datos, clave, descendente, false);
+        long tiempoRadix = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        List<T> radixParalelo = ordenar(datos, clave, descendente, true);
+        long tiempoParalelo = System.nanoTime() - inicio;
+
+        // Mismos objetos en el mismo orden: confirma la estabilidad
+        boolean iguales = true;
+        for (int i = 0; i < datos.size() && iguales; i++) {
+            iguales = radix.get(i) == conComparador.get(i) && radixParalelo.get(i) == conComparador.get(i);
+        }
+        if (imprimir) {
+            System.out.printf("  %-12s %13.1f ms %11.1f ms %9.1f ms %9.1f ms %10s%n", nombre, tiempoNatural / 1e6,
+                tiempoComparador / 1e6, tiempoRadix / 1e6, tiempoParalelo / 1e6, iguales ? "sí" : "NO");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Clase auxiliar para representar un paciente
+ * Implementa Comparable para ordenar por urgencia
+ */
+class Paciente implements Comparable<Paciente> {
+    String nombre;
+    String condicion;
+    int urgencia; // 1-5, donde 5 es más urgente
+    
+    public Paciente(String nombre, String condicion, int urgencia) {
+        this.nombre = nombre;
+        this.condicion = condicion;
+        this.urgencia = urgencia;
+    }
+    
+    @Override
+    public int compareTo(Paciente otro) {
+        // Orden descendente: mayor urgencia primero
+        return Integer.compare(otro.urgencia, this.urgencia);
+    }
+    
+    @Override
+    public String toString() {
+        return "[Urgencia " + urgencia + "] " + nombre + " - " + condicion;
+    }
+}
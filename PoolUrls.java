@@ -0,0 +1,39 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Pool de URLs compartido: cada URL distinta se guarda una sola vez
+ * y se identifica con un int. Es seguro usarlo desde varios hilos.
+ */
+class PoolUrls {
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private String[] urls = new String[64];
+    private int size;
+
+    /**
+     * Retorna el id de la URL, agregándola al pool si es nueva
+     */
+    public synchronized int intern(String url) {
+        Integer id = ids.get(url);
+        if (id != null) {
+            return id;
+        }
+        if (size == urls.length) {
+            urls = Arrays.copyOf(urls, size * 2);
+        }
+        urls[size] = url;
+        ids.put(url, size);
+        return size++;
+    }
+
+    public synchronized String url(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id de URL inválido: " + id);
+        }
+        return urls[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,23 @@
+import java.io.Serializable;
+
+/**
+ * Clase auxiliar para representar un producto
+ */
+class Producto implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    String nombre;
+    double precio;
+    int cantidad;
+    
+    public Producto(String nombre, double precio, int cantidad) {
+        this.nombre = nombre;
+        this.precio = precio;
+        this.cantidad = cantidad;
+    }
+    
+    @Override
+    public String toString() {
+        return nombre + " - $" + precio + " (Stock: " + cantidad + ")";
+    }
+}
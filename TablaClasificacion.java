@@ -0,0 +1,460 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tabla de clasificación (leaderboard) con posición en O(log n)
+ *
+ * El ranking de EjemploSet usa un TreeSet<Estudiante> con dos problemas:
+ * - Si compareTo() solo mira la calificación, dos estudiantes con la
+ *   misma nota se consideran iguales y uno se pierde
+ * - Para saber la posición de un estudiante hay que recorrer el
+ *   descendingSet() contando, lo que es O(n)
+ *
+ * Aquí la clave es (puntaje, id): el id desempata, así que no se pierde
+ * nadie. Los nodos están en un treap (árbol binario con prioridades
+ * aleatorias) donde cada nodo guarda el tamaño de su subárbol. Con esos
+ * tamaños se calcula la posición de un id y el elemento en una posición
+ * dada en O(log n) esperado.
+ *
+ * Las escrituras toman un candado de escritura y las consultas uno de
+ * lectura, así que varios hilos pueden actualizar puntajes a la vez.
+ */
+public class TablaClasificacion<K extends Comparable<K>> {
+
+    private final HashMap<K, NodoClasificacion<K>> indice = new HashMap<>();
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final SplittableRandom aleatorio = new SplittableRandom(42);
+    private NodoClasificacion<K> raiz;
+
+    /**
+     * Inserta el id o cambia su puntaje. Retorna el puntaje anterior, o null si es nuevo
+     */
+    public Long actualizar(K id, long puntaje) {
+        candado.writeLock().lock();
+        try {
+            NodoClasificacion<K> anterior = indice.get(id);
+            if (anterior != null) {
+                if (anterior.puntaje == puntaje) {
+                    return puntaje;
+                }
+                raiz = eliminar(raiz, anterior.puntaje, id);
+            }
+            NodoClasificacion<K> nuevo = new NodoClasificacion<>(id, puntaje, aleatorio.nextInt());
+            raiz = insertar(raiz, nuevo);
+            indice.put(id, nuevo);
+            return anterior == null ? null : anterior.puntaje;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suma puntos de forma atómica (el id empieza en 0 si no existía).
+     * Retorna el nuevo puntaje
+     */
+    public long sumarPuntos(K id, long delta) {
+        candado.writeLock().lock();
+        try {
+            NodoClasificacion<K> actual = indice.get(id);
+            long nuevo = (actual == null ? 0 : actual.puntaje) + delta;
+            actualizar(id, nuevo); // El candado de escritura es reentrante
+            return nuevo;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public boolean eliminar(K id) {
+        candado.writeLock().lock();
+        try {
+            NodoClasificacion<K> nodo = indice.remove(id);
+            if (nodo == null) {
+                return false;
+            }
+            raiz = eliminar(raiz, nodo.puntaje, id);
+            return true;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puntaje actual del id, o null si no está en la tabla
+     */
+    public Long puntaje(K id) {
+        candado.readLock().lock();
+        try {
+            NodoClasificacion<K> nodo = indice.get(id);
+            return nodo == null ? null : nodo.puntaje;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posición del id en el ranking (1 = mayor puntaje), o -1 si no está
+     */
+    public int posicion(K id) {
+        candado.readLock().lock();
+        try {
+            NodoClasificacion<K> buscado = indice.get(id);
+            if (buscado == null) {
+                return -1;
+            }
+            int antes = 0;
+            NodoClasificacion<K> t = raiz;
+            while (t != null) {
+                int cmp = comparar(buscado.puntaje, id, t.puntaje, t.id);
+                if (cmp < 0) {
+                    t = t.izq;
+                } else {
+                    antes += tamano(t.izq);
+                    if (cmp == 0) {
+                        return antes + 1;
+                    }
+                    antes++;
+                    t = t.der;
+                }
+            }
+            throw new IllegalStateException("El índice y el árbol no coinciden para " + id);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entrada en la posición indicada (1 = mayor puntaje)
+     */
+    public EntradaClasificacion<K> seleccionar(int posicion) {
+        candado.readLock().lock();
+        try {
+            if (posicion < 1 || posicion > tamano(raiz)) {
+                throw new IndexOutOfBoundsException("Posición fuera de rango: " + posicion);
+            }
+            NodoClasificacion<K> t = raiz;
+            int k = posicion - 1;
+            while (true) {
+                int izquierda = tamano(t.izq);
+                if (k < izquierda) {
+                    t = t.izq;
+                } else if (k == izquierda) {
+                    return new EntradaClasificacion<>(t.id, t.puntaje, posicion);
+                } else {
+                    k -= izquierda + 1;
+                    t = t.der;
+                }
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los n primeros del ranking
+     */
+    public List<EntradaClasificacion<K>> top(int n) {
+        return rango(1, n);
+    }
+
+    /**
+     * Entradas entre las posiciones desde y hasta (inclusivas).
+     * Solo se visitan los nodos del camino y los del rango: O(log n + k)
+     */
+    public List<EntradaClasificacion<K>> rango(int desde, int hasta) {
+        candado.readLock().lock();
+        try {
+            List<EntradaClasificacion<K>> resultado = new ArrayList<>();
+            hasta = Math.min(hasta, tamano(raiz));
+            if (desde < 1) {
+                desde = 1;
+            }
+            if (desde <= hasta) {
+                recolectar(raiz, 0, desde, hasta, resultado);
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        candado.readLock().lock();
+        try {
+            return tamano(raiz);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorrido en orden que salta los subárboles fuera de [desde, hasta].
+     * "antes" es la cantidad de nodos anteriores al subárbol t
+     */
+    private void recolectar(NodoClasificacion<K> t, int antes, int desde, int hasta,
+                            List<EntradaClasificacion<K>> resultado) {
+        if (t == null) {
+            return;
+        }
+        int posicionNodo = antes + tamano(t.izq) + 1;
+        if (desde < posicionNodo) {
+            recolectar(t.izq, antes, desde, hasta, resultado);
+        }
+        if (desde <= posicionNodo && posicionNodo <= hasta) {
+            resultado.add(new EntradaClasificacion<>(t.id, t.puntaje, posicionNodo));
+        }
+        if (hasta > posicionNodo) {
+            recolectar(t.der, posicionNodo, desde, hasta, resultado);
+        }
+    }
+
+    /**
+     * Orden del ranking: mayor puntaje primero y, con el mismo puntaje, menor id primero
+     */
+    private int comparar(long puntajeA, K idA, long puntajeB, K idB) {
+        int porPuntaje = Long.compare(puntajeB, puntajeA);
+        return porPuntaje != 0 ? porPuntaje : idA.compareTo(idB);
+    }
+
+    private static int tamano(NodoClasificacion<?> t) {
+        return t == null ? 0 : t.tamano;
+    }
+
+    private static void recalcular(NodoClasificacion<?> t) {
+        t.tamano = 1 + tamano(t.izq) + tamano(t.der);
+    }
+
+    private NodoClasificacion<K> insertar(NodoClasificacion<K> t, NodoClasificacion<K> nuevo) {
+        if (t == null) {
+            return nuevo;
+        }
+        if (nuevo.prioridad > t.prioridad) {
+            // El nuevo nodo sube hasta aquí: se parte el subárbol alrededor de su clave
+            dividir(t, nuevo);
+            recalcular(nuevo);
+            return nuevo;
+        }
+        if (comparar(nuevo.puntaje, nuevo.id, t.puntaje, t.id) < 0) {
+            t.izq = insertar(t.izq, nuevo);
+        } else {
+            t.der = insertar(t.der, nuevo);
+        }
+        recalcular(t);
+        return t;
+    }
+
+    /**
+     * Parte t en los nodos menores y mayores que "pivote" y los cuelga
+     * como hijos izquierdo y derecho del pivote
+     */
+    private void dividir(NodoClasificacion<K> t, NodoClasificacion<K> pivote) {
+        if (t == null) {
+            pivote.izq = null;
+            pivote.der = null;
+            return;
+        }
+        if (comparar(t.puntaje, t.id, pivote.puntaje, pivote.id) < 0) {
+            dividir(t.der, pivote);
+            t.der = pivote.izq;
+            recalcular(t);
+            pivote.izq = t;
+        } else {
+            dividir(t.izq, pivote);
+            t.izq = pivote.der;
+            recalcular(t);
+            pivote.der = t;
+        }
+    }
+
+    private NodoClasificacion<K> eliminar(NodoClasificacion<K> t, long puntaje, K id) {
+        if (t == null) {
+            return null;
+        }
+        int cmp = comparar(puntaje, id, t.puntaje, t.id);
+        if (cmp == 0) {
+            return unir(t.izq, t.der);
+        }
+        if (cmp < 0) {
+            t.izq = eliminar(t.izq, puntaje, id);
+        } else {
+            t.der = eliminar(t.der, puntaje, id);
+        }
+        recalcular(t);
+        return t;
+    }
+
+    /**
+     * Une dos treaps donde todas las claves de a son menores que las de b
+     */
+    private NodoClasificacion<K> unir(NodoClasificacion<K> a, NodoClasificacion<K> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.prioridad > b.prioridad) {
+            a.der = unir(a.der, b);
+            recalcular(a);
+            return a;
+        }
+        b.izq = unir(a, b.izq);
+        recalcular(b);
+        return b;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== RANKING DE ESTUDIANTES ===\n");
+        ejemploRanking();
+
+        System.out.println("\n=== RENDIMIENTO ===\n");
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        comparacionRendimiento(n, hilos);
+    }
+
+    /**
+     * Los estudiantes de EjemploSet, más dos con calificaciones repetidas
+     */
+    public static void ejemploRanking() {
+        TablaClasificacion<String> ranking = new TablaClasificacion<>();
+        ranking.actualizar("Ana", 95);
+        ranking.actualizar("Carlos", 88);
+        ranking.actualizar("Beatriz", 92);
+        ranking.actualizar("Daniel", 85);
+        ranking.actualizar("Elena", 92); // Misma calificación que Beatriz: no se pierde
+        ranking.actualizar("Fernando", 88);
+
+        System.out.println("Ranking completo:");
+        for (EntradaClasificacion<String> entrada : ranking.top(ranking.size())) {
+            System.out.println("  " + entrada);
+        }
+
+        System.out.println("\nPosición de Elena: " + ranking.posicion("Elena"));
+        System.out.println("Tercer lugar: " + ranking.seleccionar(3));
+
+        ranking.sumarPuntos("Daniel", 12); // Daniel sube a 97
+        System.out.println("\nDespués de sumar 12 puntos a Daniel:");
+        System.out.println("  Posición de Daniel: " + ranking.posicion("Daniel"));
+        System.out.println("  Top 3: " + ranking.top(3));
+        System.out.println("  Posiciones 3 a 5: " + ranking.rango(3, 5));
+    }
+
+    /**
+     * Construye una tabla de n entradas, mide consultas de posición y
+     * actualizaciones concurrentes, y compara la posición contra el
+     * recorrido de un TreeSet
+     */
+    public static void comparacionRendimiento(int n, int hilos) throws InterruptedException {
+        TablaClasificacion<Long> tabla = new TablaClasificacion<>();
+        SplittableRandom random = new SplittableRandom(7);
+        long inicio = System.nanoTime();
+        for (long id = 0; id < n; id++) {
+            tabla.actualizar(id, random.nextInt(1_000_000));
+        }
+        System.out.println("Inserción de " + n + " entradas: " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+
+        int consultas = 200_000;
+        inicio = System.nanoTime();
+        long control = 0;
+        for (int i = 0; i < consultas; i++) {
+            control += tabla.posicion((long) random.nextInt(n));
+        }
+        long tiempo = System.nanoTime() - inicio;
+        System.out.printf("posicion(): %.0f ns por consulta (control %d)%n", (double) tiempo / consultas, control);
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < consultas; i++) {
+            control += tabla.seleccionar(1 + random.nextInt(n)).puntaje;
+        }
+        tiempo = System.nanoTime() - inicio;
+        System.out.printf("seleccionar(): %.0f ns por consulta%n", (double) tiempo / consultas);
+
+        inicio = System.nanoTime();
+        List<EntradaClasificacion<Long>> top = tabla.top(100);
+        System.out.printf("top(100): %.3f ms (primero: %s)%n", (System.nanoTime() - inicio) / 1e6, top.get(0));
+
+        // Actualizaciones concurrentes de puntaje
+        int actualizacionesPorHilo = 200_000;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            long semilla = h;
+            pool.execute(() -> {
+                SplittableRandom local = new SplittableRandom(semilla);
+                for (int i = 0; i < actualizacionesPorHilo; i++) {
+                    tabla.sumarPuntos((long) local.nextInt(n), local.nextInt(100));
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        tiempo = System.nanoTime() - inicio;
+        long total = (long) hilos * actualizacionesPorHilo;
+        System.out.printf("%d actualizaciones con %d hilos: %d ms (%.0f por segundo), tamaño final %d%n",
+            total, hilos, tiempo / 1_000_000, total / (tiempo / 1e9), tabla.size());
+
+        // Posición con TreeSet: hay que recorrer contando (O(n))
+        int muestra = Math.min(n, 100_000);
+        TreeSet<long[]> arbol = new TreeSet<>((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+        for (long id = 0; id < muestra; id++) {
+            arbol.add(new long[] {id, tabla.puntaje(id)});
+        }
+        long[] buscado = arbol.last();
+        inicio = System.nanoTime();
+        int posicion = 1;
+        for (long[] entrada : arbol) {
+            if (entrada == buscado) {
+                break;
+            }
+            posicion++;
+        }
+        long tiempoArbol = System.nanoTime() - inicio;
+        System.out.printf("%nPosición del último de %d con TreeSet (recorrido): %.3f ms (posición %d)%n",
+            muestra, tiempoArbol / 1e6, posicion);
+    }
+}
+
+/**
+ * Nodo del treap: clave (puntaje, id), prioridad aleatoria y tamaño del subárbol
+ */
+class NodoClasificacion<K> {
+    final K id;
+    final long puntaje;
+    final int prioridad;
+    int tamano = 1;
+    NodoClasificacion<K> izq;
+    NodoClasificacion<K> der;
+
+    NodoClasificacion(K id, long puntaje, int prioridad) {
+        this.id = id;
+        this.puntaje = puntaje;
+        this.prioridad = prioridad;
+    }
+}
+
+/**
+ * Resultado de una consulta: id, puntaje y posición en el ranking
+ */
+class EntradaClasificacion<K> {
+    final K id;
+    final long puntaje;
+    final int posicion;
+
+    EntradaClasificacion(K id, long puntaje, int posicion) {
+        this.id = id;
+        this.puntaje = puntaje;
+        this.posicion = posicion;
+    }
+
+    @Override
+    public String toString() {
+        return posicion + ". " + id + " - " + puntaje + " puntos";
+    }
+}
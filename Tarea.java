@@ -0,0 +1,24 @@
+/**
+ * Clase auxiliar para representar una tarea con prioridad
+ * Implementa Comparable para que PriorityQueue pueda ordenar
+ */
+class Tarea implements Comparable<Tarea> {
+    String descripcion;
+    int prioridad; // Número mayor = mayor prioridad
+    
+    public Tarea(String descripcion, int prioridad) {
+        this.descripcion = descripcion;
+        this.prioridad = prioridad;
+    }
+    
+    @Override
+    public int compareTo(Tarea otra) {
+        // Orden descendente: mayor prioridad primero
+        return Integer.compare(otra.prioridad, this.prioridad);
+    }
+    
+    @Override
+    public String toString() {
+        return "[Prioridad " + prioridad + "] " + descripcion;
+    }
+}